@@ -0,0 +1,131 @@
+package org.xiao.algs.graph;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.IndexMinDoublePQ;
+import org.xiao.algs.stack.Stack;
+
+/***
+ *
+ * 点对点最短路径的A*算法
+ *
+ * 和DijkstraSP相同，只是优先队列的键为distTo[v] + h(v)，其中h(v)是v到终点t距离的估计值，
+ * 搜索会优先朝着t的方向扩展，t出队时停止
+ *
+ * h必须是可采纳的(不大于v到t的实际最短距离)，结果才是最短路径；h恒为0时等价于提前结束的DijkstraSP
+ * 如果h还是一致的(对每条边v->w有h(v) <= weight + h(w))，每个顶点最多出队一次
+ *
+ * @author XiaoJian
+ *
+ */
+public class AStarSP {
+
+	/**
+	 * 启发函数，返回顶点v到终点距离的下界
+	 */
+	public interface Heuristic {
+		double estimate(int v);
+	}
+
+	private final int t; // 终点
+	private double[] distTo; // distTo[v] = s到v的已知最短距离
+	private DirectedEdge[] edgeTo; // edgeTo[v] = s到v的最短路径上的最后一条边
+	private IndexMinDoublePQ pq; // 键为distTo[v] + h(v)
+	private final Heuristic h;
+
+	/**
+	 * 计算s到t的最短路径
+	 */
+	public AStarSP(EdgeWeightedDigraph G, int s, int t, Heuristic h) {
+		if (s < 0 || s >= G.V()) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (G.V()-1));
+		if (t < 0 || t >= G.V()) throw new IndexOutOfBoundsException("vertex " + t + " is not between 0 and " + (G.V()-1));
+		this.t = t;
+		this.h = h;
+		distTo = new double[G.V()];
+		edgeTo = new DirectedEdge[G.V()];
+		for (int v = 0; v < G.V(); v++)
+			distTo[v] = Double.POSITIVE_INFINITY;
+		distTo[s] = 0.0;
+
+		pq = new IndexMinDoublePQ(G.V());
+		pq.insert(s, h.estimate(s));
+		while (!pq.isEmpty()) {
+			int v = pq.delMin();
+			if (v == t) break;
+			for (DirectedEdge e : G.adj(v))
+				relax(e);
+		}
+	}
+
+	// 松弛边，已经出队的顶点距离变小时会重新入队(h不一致时才会发生)
+	private void relax(DirectedEdge e) {
+		if (e.weight() < 0)
+			throw new IllegalArgumentException("edge " + e + " has negative weight");
+		int v = e.from(), w = e.to();
+		double d = distTo[v] + e.weight();
+		if (distTo[w] > d) {
+			distTo[w] = d;
+			edgeTo[w] = e;
+			// h(w)为无穷大或者d + h(w)舍入后不变时键不会变小，decreaseKey会拒绝，所以只在键变小时更新
+			double key = d + h.estimate(w);
+			if (!pq.contains(w))         pq.insert(w, key);
+			else if (key < pq.keyOf(w))  pq.decreaseKey(w, key);
+		}
+	}
+
+	/**
+	 * 返回s到t的最短距离，不存在则为无穷大
+	 */
+	public double dist() {
+		return distTo[t];
+	}
+
+	/**
+	 * 是否存在s到t的路径
+	 */
+	public boolean hasPath() {
+		return distTo[t] < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 返回s到t的最短路径，如果不存在则为null
+	 */
+	public Iterable<DirectedEdge> path() {
+		if (!hasPath()) return null;
+		Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+		for (DirectedEdge e = edgeTo[t]; e != null; e = edgeTo[e.from()]) {
+			path.push(e);
+		}
+		return path;
+	}
+
+	/**
+	 * 测试，使用恒为0的启发函数
+	 *
+	 * java AStarSP tinyEWD.txt 0 6
+	 * 0 to 6 (1.51)  0->2  0.26   2->7  0.34   7->3  0.39   3->6  0.52
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+		int s = Integer.parseInt(args[1]);
+		int t = Integer.parseInt(args[2]);
+
+		AStarSP sp = new AStarSP(G, s, t, new Heuristic() {
+			public double estimate(int v) {
+				return 0.0;
+			}
+		});
+		if (sp.hasPath()) {
+			StdOut.printf("%d to %d (%.2f)  ", s, t, sp.dist());
+			for (DirectedEdge e : sp.path()) {
+				StdOut.print(e + "   ");
+			}
+			StdOut.println();
+		}
+		else {
+			StdOut.printf("%d to %d         no path\n", s, t);
+		}
+	}
+
+}
@@ -19,36 +19,51 @@ import org.xiao.algs.stack.Stack;
  *
  */
 public class AcyclicSP {
-    private double[] distTo;         // distTo[v] = s到v的最短距离，不存在则为无穷大
-    private DirectedEdge[] edgeTo;   // edgeTo[v] = s到v的最短路径上的最后一条边
+    private final SearchWorkspace ws;  // 保存distTo和edgeTo的工作区
+    private final int generation;      // 本次查询在工作区中的代数
 
 
     /**
      * 初始化
      */
     public AcyclicSP(EdgeWeightedDigraph G, int s) {
-        distTo = new double[G.V()];
-        edgeTo = new DirectedEdge[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            distTo[v] = Double.POSITIVE_INFINITY;
-        distTo[s] = 0.0;
+        this(G, s, new Topological(G), new SearchWorkspace(G.V()));
+    }
 
-        // 按照拓扑排序顺序处理无环有向图的顶点
-        Topological topological = new Topological(G);
+    /**
+     * 使用已经计算好的拓扑排序和工作区ws初始化，多次查询同一幅图时拓扑排序只需要计算一次
+     * 
+     * 结果在ws被下一次查询使用之前有效
+     */
+    public AcyclicSP(EdgeWeightedDigraph G, int s, Topological topological, SearchWorkspace ws) {
         if (!topological.hasOrder())
             throw new IllegalArgumentException("Digraph is not acyclic.");
+        validateVertex(s, G.V());
+        this.ws = ws;
+        generation = ws.reset(G.V());
+        ws.setDist(s, 0.0, null);
+
+        // 按照拓扑排序顺序处理无环有向图的顶点，s之前的顶点都不可达，跳过
+        boolean reached = false;
         for (int v : topological.order()) {
+            if (v == s) reached = true;
+            if (!reached) continue;
             for (DirectedEdge e : G.adj(v))
                 relax(e);
         }
     }
 
+    // 工作区可能比图大，所以要在使用工作区之前检查顶点
+    private static void validateVertex(int v, int V) {
+        if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
     // 松弛边e
     private void relax(DirectedEdge e) {
         int v = e.from(), w = e.to();
-        if (distTo[w] > distTo[v] + e.weight()) {
-            distTo[w] = distTo[v] + e.weight();
-            edgeTo[w] = e;
+        double dist = ws.dist(v) + e.weight();
+        if (ws.dist(w) > dist) {
+            ws.setDist(w, dist, e);
         }       
     }
 
@@ -56,14 +71,15 @@ public class AcyclicSP {
      * 返回从顶点s到v的距离，如果不存在则路径为无穷大
      */
     public double distTo(int v) {
-        return distTo[v];
+        ws.checkGeneration(generation);
+        return ws.dist(v);
     }
 
     /**
      * 是否存在从顶点s到v的路径
      */
     public boolean hasPathTo(int v) {
-        return distTo[v] < Double.POSITIVE_INFINITY;
+        return distTo(v) < Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -72,7 +88,7 @@ public class AcyclicSP {
     public Iterable<DirectedEdge> pathTo(int v) {
         if (!hasPathTo(v)) return null;
         Stack<DirectedEdge> path = new Stack<DirectedEdge>();
-        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+        for (DirectedEdge e = ws.edge(v); e != null; e = ws.edge(e.from())) {
             path.push(e);
         }
         return path;
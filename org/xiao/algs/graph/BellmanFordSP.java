@@ -2,7 +2,6 @@ package org.xiao.algs.graph;
 
 import org.xiao.algs.io.In;
 import org.xiao.algs.io.StdOut;
-import org.xiao.algs.queue.Queue;
 import org.xiao.algs.stack.Stack;
 /***
  * 
@@ -20,10 +19,9 @@ import org.xiao.algs.stack.Stack;
  *
  */
 public class BellmanFordSP {
-    private double[] distTo;               // distTo[v] = 从起点s到v的路径长度
-    private DirectedEdge[] edgeTo;         // edgeTo[v] = 从起点s到v的路径上的最后一条边
-    private boolean[] onQueue;             // onQueue[v] = 顶点v是否存在于队列中
-    private Queue<Integer> queue;          // 正在放松的顶点
+    private final SearchWorkspace ws;      // 保存distTo、edgeTo、onQueue和队列的工作区
+    private final int generation;          // 本次查询在工作区中的代数
+    private int head, size;                // ws.queue()中的循环队列，保存正在放松的顶点
     private int cost;                      // relax调用的次数
     private Iterable<DirectedEdge> cycle;  // edgeTo[]中的是否有负权重环（不存在为null）
 
@@ -31,40 +29,66 @@ public class BellmanFordSP {
      * 初始化
      */
     public BellmanFordSP(EdgeWeightedDigraph G, int s) {
-        distTo  = new double[G.V()];
-        edgeTo  = new DirectedEdge[G.V()];
-        onQueue = new boolean[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            distTo[v] = Double.POSITIVE_INFINITY;
-        distTo[s] = 0.0;
+        this(G, s, new SearchWorkspace(G.V()));
+        assert check(G, s);
+    }
+
+    /**
+     * 使用工作区ws初始化，结果在ws被下一次查询使用之前有效
+     */
+    public BellmanFordSP(EdgeWeightedDigraph G, int s, SearchWorkspace ws) {
+        validateVertex(s, G.V());
+        this.ws = ws;
+        generation = ws.reset(G.V());
+        ws.setDist(s, 0.0, null);
 
         // 运行Bellman-Ford算法
-        queue = new Queue<Integer>();
-        queue.enqueue(s);
-        onQueue[s] = true;
-        while (!queue.isEmpty() && !hasNegativeCycle()) {
-            int v = queue.dequeue();
-            onQueue[v] = false;
+        enqueue(s);
+        while (size > 0 && !hasNegativeCycle()) {
+            int v = dequeue();
             relax(G, v);
         }
+    }
+
+    // 工作区可能比图大，所以要在使用工作区之前检查顶点
+    private static void validateVertex(int v, int V) {
+        if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // 每个顶点最多同时在队列中出现一次，所以循环队列最多加倍到长度V
+    private void enqueue(int v) {
+        int[] q = ws.queue();
+        if (size == q.length) {
+            q = ws.growQueue(head, size);
+            head = 0;
+        }
+        q[(head + size) % q.length] = v;
+        size++;
+        ws.setOnQueue(v, true);
+    }
 
-        assert check(G, s);
+    private int dequeue() {
+        int[] q = ws.queue();
+        int v = q[head];
+        head = (head + 1) % q.length;
+        size--;
+        ws.setOnQueue(v, false);
+        return v;
     }
 
     // 放松顶点v
     private void relax(EdgeWeightedDigraph G, int v) {
         for (DirectedEdge e : G.adj(v)) {
             int w = e.to();
-            if (distTo[w] > distTo[v] + e.weight()) {
-                distTo[w] = distTo[v] + e.weight();
-                edgeTo[w] = e;
-                if (!onQueue[w]) {
-                    queue.enqueue(w);
-                    onQueue[w] = true;
+            double dist = ws.dist(v) + e.weight();
+            if (ws.dist(w) > dist) {
+                ws.setDist(w, dist, e);
+                if (!ws.onQueue(w)) {
+                    enqueue(w);
                 }
             }
             if (cost++ % G.V() == 0)
-                findNegativeCycle();
+                findNegativeCycle(G.V());
         }
     }
 
@@ -83,12 +107,11 @@ public class BellmanFordSP {
     }
 
     // 找到负权重环
-    private void findNegativeCycle() {
-        int V = edgeTo.length;
+    private void findNegativeCycle(int V) {
         EdgeWeightedDigraph spt = new EdgeWeightedDigraph(V);
         for (int v = 0; v < V; v++)
-            if (edgeTo[v] != null)
-                spt.addEdge(edgeTo[v]);
+            if (ws.edge(v) != null)
+                spt.addEdge(ws.edge(v));
 
         EdgeWeightedDirectedCycle finder = new EdgeWeightedDirectedCycle(spt);
         cycle = finder.cycle();
@@ -100,14 +123,16 @@ public class BellmanFordSP {
     public double distTo(int v) {
         if (hasNegativeCycle())
             throw new UnsupportedOperationException("Negative cost cycle exists");
-        return distTo[v];
+        ws.checkGeneration(generation);
+        return ws.dist(v);
     }
 
     /**
      * 是否存在从顶点s到v的路径
      */
     public boolean hasPathTo(int v) {
-        return distTo[v] < Double.POSITIVE_INFINITY;
+        ws.checkGeneration(generation);
+        return ws.dist(v) < Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -118,7 +143,7 @@ public class BellmanFordSP {
             throw new UnsupportedOperationException("Negative cost cycle exists");
         if (!hasPathTo(v)) return null;
         Stack<DirectedEdge> path = new Stack<DirectedEdge>();
-        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+        for (DirectedEdge e = ws.edge(v); e != null; e = ws.edge(e.from())) {
             path.push(e);
         }
         return path;
@@ -143,13 +168,13 @@ public class BellmanFordSP {
         else {
 
             // check that distTo[v] and edgeTo[v] are consistent
-            if (distTo[s] != 0.0 || edgeTo[s] != null) {
-                System.err.println("distanceTo[s] and edgeTo[s] inconsistent");
+            if (ws.dist(s) != 0.0 || ws.edge(s) != null) {
+                System.err.println("distTo[s] and edgeTo[s] inconsistent");
                 return false;
             }
             for (int v = 0; v < G.V(); v++) {
                 if (v == s) continue;
-                if (edgeTo[v] == null && distTo[v] != Double.POSITIVE_INFINITY) {
+                if (ws.edge(v) == null && ws.dist(v) != Double.POSITIVE_INFINITY) {
                     System.err.println("distTo[] and edgeTo[] inconsistent");
                     return false;
                 }
@@ -159,7 +184,7 @@ public class BellmanFordSP {
             for (int v = 0; v < G.V(); v++) {
                 for (DirectedEdge e : G.adj(v)) {
                     int w = e.to();
-                    if (distTo[v] + e.weight() < distTo[w]) {
+                    if (ws.dist(v) + e.weight() < ws.dist(w)) {
                         System.err.println("edge " + e + " not relaxed");
                         return false;
                     }
@@ -168,11 +193,11 @@ public class BellmanFordSP {
 
             // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
             for (int w = 0; w < G.V(); w++) {
-                if (edgeTo[w] == null) continue;
-                DirectedEdge e = edgeTo[w];
+                if (ws.edge(w) == null) continue;
+                DirectedEdge e = ws.edge(w);
                 int v = e.from();
                 if (w != e.to()) return false;
-                if (distTo[v] + e.weight() != distTo[w]) {
+                if (ws.dist(v) + e.weight() != ws.dist(w)) {
                     System.err.println("edge " + e + " on shortest path not tight");
                     return false;
                 }
@@ -0,0 +1,168 @@
+package org.xiao.algs.graph;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.IndexMinDoublePQ;
+import org.xiao.algs.queue.Queue;
+import org.xiao.algs.stack.Stack;
+
+/***
+ *
+ * 点对点最短路径的双向Dijkstra算法
+ *
+ * 同时从起点s在G中向前搜索、从终点t在反向图R中向后搜索，每次扩展优先队列较小的一侧，
+ * 记录两侧相遇得到的最短路径长度mu，当两个队列的最小键之和不小于mu时停止
+ *
+ * 两侧搜索的半径大约只有单向搜索的一半，访问的顶点通常远少于DijkstraSP
+ *
+ * 适用于边的权重非负的加权有向图
+ *
+ * @author XiaoJian
+ *
+ */
+public class BidirectionalDijkstraSP {
+	private final int s; // 起点
+	private final int t; // 终点
+	private double[] distF; // distF[v] = s到v的最短距离(正向搜索)
+	private double[] distB; // distB[v] = v到t的最短距离(反向搜索)
+	private DirectedEdge[] edgeF; // 正向搜索树中指向v的边
+	private DirectedEdge[] edgeB; // 反向搜索树中指向v的边(R中的边)
+	private IndexMinDoublePQ pqF; // 正向优先队列
+	private IndexMinDoublePQ pqB; // 反向优先队列
+	private double mu = Double.POSITIVE_INFINITY; // 目前找到的s到t的最短路径长度
+	private int meet = -1; // 最短路径上两侧搜索相遇的顶点
+
+	/**
+	 * 计算s到t的最短路径，反向图由G.reverse()生成
+	 */
+	public BidirectionalDijkstraSP(EdgeWeightedDigraph G, int s, int t) {
+		this(G, G.reverse(), s, t);
+	}
+
+	/**
+	 * 计算s到t的最短路径，R必须是G的反向图，多次查询时可以复用同一个R
+	 */
+	public BidirectionalDijkstraSP(EdgeWeightedDigraph G, EdgeWeightedDigraph R, int s, int t) {
+		if (R.V() != G.V()) throw new IllegalArgumentException("R is not the reverse of G");
+		validateVertex(s, G.V());
+		validateVertex(t, G.V());
+		this.s = s;
+		this.t = t;
+		int V = G.V();
+		distF = new double[V];
+		distB = new double[V];
+		edgeF = new DirectedEdge[V];
+		edgeB = new DirectedEdge[V];
+		for (int v = 0; v < V; v++) {
+			distF[v] = Double.POSITIVE_INFINITY;
+			distB[v] = Double.POSITIVE_INFINITY;
+		}
+		distF[s] = 0.0;
+		distB[t] = 0.0;
+		if (s == t) {
+			mu = 0.0;
+			meet = s;
+			return;
+		}
+
+		pqF = new IndexMinDoublePQ(V);
+		pqB = new IndexMinDoublePQ(V);
+		pqF.insert(s, 0.0);
+		pqB.insert(t, 0.0);
+		while (!pqF.isEmpty() && !pqB.isEmpty()) {
+			if (pqF.minKey() + pqB.minKey() >= mu) break;
+			if (pqF.size() <= pqB.size()) {
+				int v = pqF.delMin();
+				for (DirectedEdge e : G.adj(v))
+					relax(e, distF, edgeF, pqF, distB);
+			}
+			else {
+				int v = pqB.delMin();
+				for (DirectedEdge e : R.adj(v))
+					relax(e, distB, edgeB, pqB, distF);
+			}
+		}
+	}
+
+	private static void validateVertex(int v, int V) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	// 在一侧的搜索中松弛边e，并检查是否和另一侧的搜索相遇
+	private void relax(DirectedEdge e, double[] dist, DirectedEdge[] edgeTo, IndexMinDoublePQ pq, double[] other) {
+		if (e.weight() < 0)
+			throw new IllegalArgumentException("edge " + e + " has negative weight");
+		int v = e.from(), w = e.to();
+		double d = dist[v] + e.weight();
+		if (dist[w] > d) {
+			dist[w] = d;
+			edgeTo[w] = e;
+			if (pq.contains(w)) pq.decreaseKey(w, d);
+			else                pq.insert(w, d);
+		}
+		if (dist[w] + other[w] < mu) {
+			mu = dist[w] + other[w];
+			meet = w;
+		}
+	}
+
+	/**
+	 * 返回s到t的最短距离，不存在则为无穷大
+	 */
+	public double dist() {
+		return mu;
+	}
+
+	/**
+	 * 是否存在s到t的路径
+	 */
+	public boolean hasPath() {
+		return mu < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 返回s到t的最短路径，如果不存在则为null
+	 */
+	public Iterable<DirectedEdge> path() {
+		if (!hasPath()) return null;
+		Stack<DirectedEdge> forward = new Stack<DirectedEdge>();
+		for (DirectedEdge e = edgeF[meet]; e != null; e = edgeF[e.from()]) {
+			forward.push(e);
+		}
+		Queue<DirectedEdge> path = new Queue<DirectedEdge>();
+		for (DirectedEdge e : forward) {
+			path.enqueue(e);
+		}
+		// 反向图中的边x->y对应原图中的边y->x
+		for (DirectedEdge e = edgeB[meet]; e != null; e = edgeB[e.from()]) {
+			path.enqueue(new DirectedEdge(e.to(), e.from(), e.weight()));
+		}
+		return path;
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java BidirectionalDijkstraSP tinyEWD.txt 0 6
+	 * 0 to 6 (1.51)  0->2  0.26   2->7  0.34   7->3  0.39   3->6  0.52
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+		int s = Integer.parseInt(args[1]);
+		int t = Integer.parseInt(args[2]);
+
+		BidirectionalDijkstraSP sp = new BidirectionalDijkstraSP(G, s, t);
+		if (sp.hasPath()) {
+			StdOut.printf("%d to %d (%.2f)  ", sp.s, sp.t, sp.dist());
+			for (DirectedEdge e : sp.path()) {
+				StdOut.print(e + "   ");
+			}
+			StdOut.println();
+		}
+		else {
+			StdOut.printf("%d to %d         no path\n", s, t);
+		}
+	}
+
+}
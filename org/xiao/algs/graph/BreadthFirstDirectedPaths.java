@@ -2,7 +2,6 @@ package org.xiao.algs.graph;
 
 import org.xiao.algs.io.In;
 import org.xiao.algs.io.StdOut;
-import org.xiao.algs.queue.Queue;
 import org.xiao.algs.stack.Stack;
 /***
  * 
@@ -15,67 +14,114 @@ import org.xiao.algs.stack.Stack;
  */
 public class BreadthFirstDirectedPaths {
     private static final int INFINITY = Integer.MAX_VALUE;
-	private boolean[] marked; // 标记顶点
-	private int[] edgeTo; // s -> v的有向路径上的最后一个顶点
-	private int[] distTo; // s -> v的有向最短路径的长度
+	private final SearchWorkspace ws; // 保存marked、edgeTo、distTo和队列的工作区
+	private final int generation; // 本次查询在工作区中的代数
 
 	/**
 	 * 单点初始化
 	 */
     public BreadthFirstDirectedPaths(Digraph G, int s) {
-        marked = new boolean[G.V()];
-        distTo = new int[G.V()];
-        edgeTo = new int[G.V()];
-        for (int v = 0; v < G.V(); v++) distTo[v] = INFINITY;
-        bfs(G, s);
+        this(G, s, new SearchWorkspace(G.V()));
+    }
+
+	/**
+	 * 使用工作区ws单点初始化，结果在ws被下一次查询使用之前有效
+	 */
+    public BreadthFirstDirectedPaths(Digraph G, int s, SearchWorkspace ws) {
+        validateVertex(s, G.V());
+        this.ws = ws;
+        generation = ws.reset(G.V());
+        ws.setHops(s, 0, -1);
+        ws.queue()[0] = s;
+        bfs(G, 1);
     }
 
 	/**
 	 * 多点初始化
 	 */
     public BreadthFirstDirectedPaths(Digraph G, Iterable<Integer> sources) {
-        marked = new boolean[G.V()];
-        distTo = new int[G.V()];
-        edgeTo = new int[G.V()];
-        for (int v = 0; v < G.V(); v++) distTo[v] = INFINITY;
-        bfs(G, sources);
+        ws = new SearchWorkspace(G.V());
+        generation = ws.reset(G.V());
+        bfs(G, markSources(sources));
     }
 
-    // 从单点进行广度优先搜索
-    private void bfs(Digraph G, int s) {
-        Queue<Integer> q = new Queue<Integer>();
-        marked[s] = true;
-        distTo[s] = 0;
-        q.enqueue(s);
-        while (!q.isEmpty()) {
-            int v = q.dequeue();
+	/**
+	 * 在CSR有向图上单点初始化
+	 */
+    public BreadthFirstDirectedPaths(CSRDigraph G, int s) {
+        this(G, s, new SearchWorkspace(G.V()));
+    }
+
+	/**
+	 * 使用工作区ws在CSR有向图上单点初始化，结果在ws被下一次查询使用之前有效
+	 */
+    public BreadthFirstDirectedPaths(CSRDigraph G, int s, SearchWorkspace ws) {
+        validateVertex(s, G.V());
+        this.ws = ws;
+        generation = ws.reset(G.V());
+        ws.setHops(s, 0, -1);
+        ws.queue()[0] = s;
+        bfs(G, 1);
+    }
+
+	/**
+	 * 在CSR有向图上多点初始化
+	 */
+    public BreadthFirstDirectedPaths(CSRDigraph G, Iterable<Integer> sources) {
+        ws = new SearchWorkspace(G.V());
+        generation = ws.reset(G.V());
+        bfs(G, markSources(sources));
+    }
+
+    // 工作区可能比图大，所以要在使用工作区之前检查顶点
+    private static void validateVertex(int v, int V) {
+        if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // 标记所有起点并放入队列，返回起点数目
+    private int markSources(Iterable<Integer> sources) {
+        int tail = 0;
+        for (int s : sources) {
+            if (ws.hops(s) == 0) continue;
+            ws.setHops(s, 0, -1);
+            int[] q = ws.queue();
+            if (tail == q.length) q = ws.growQueue(0, tail);
+            q[tail++] = s;
+        }
+        return tail;
+    }
+
+    // 广度优先搜索，每个顶点最多入队一次，因此用工作区中的int数组作队列，不够时加倍
+    // queue[0 ~ tail-1]为已经标记的起点
+    private void bfs(Digraph G, int tail) {
+        int[] q = ws.queue();
+        int head = 0;
+        while (head < tail) {
+            int v = q[head++];
+            int d = ws.hops(v) + 1;
             for (int w : G.adj(v)) {
-                if (!marked[w]) {
-                    edgeTo[w] = v;
-                    distTo[w] = distTo[v] + 1;
-                    marked[w] = true;
-                    q.enqueue(w);
+                if (ws.hops(w) == INFINITY) {
+                    ws.setHops(w, d, v);
+                    if (tail == q.length) q = ws.growQueue(0, tail);
+                    q[tail++] = w;
                 }
             }
         }
     }
 
-    // 从多点进行广度优先搜索
-    private void bfs(Digraph G, Iterable<Integer> sources) {
-        Queue<Integer> q = new Queue<Integer>();
-        for (int s : sources) {
-            marked[s] = true;
-            distTo[s] = 0;
-            q.enqueue(s);
-        }
-        while (!q.isEmpty()) {
-            int v = q.dequeue();
-            for (int w : G.adj(v)) {
-                if (!marked[w]) {
-                    edgeTo[w] = v;
-                    distTo[w] = distTo[v] + 1;
-                    marked[w] = true;
-                    q.enqueue(w);
+    // 在CSR有向图中广度优先搜索
+    private void bfs(CSRDigraph G, int tail) {
+        int[] q = ws.queue();
+        int head = 0;
+        while (head < tail) {
+            int v = q[head++];
+            int d = ws.hops(v) + 1;
+            for (int k = G.begin(v), end = G.end(v); k < end; k++) {
+                int w = G.target(k);
+                if (ws.hops(w) == INFINITY) {
+                    ws.setHops(w, d, v);
+                    if (tail == q.length) q = ws.growQueue(0, tail);
+                    q[tail++] = w;
                 }
             }
         }
@@ -85,14 +131,15 @@ public class BreadthFirstDirectedPaths {
      * 是否存在从s到v的有向路径
      */
     public boolean hasPathTo(int v) {
-        return marked[v];
+        return distTo(v) != INFINITY;
     }
 
     /**
      * 返回从起点s到v的最短路径的长度
      */
     public int distTo(int v) {
-        return distTo[v];
+        ws.checkGeneration(generation);
+        return ws.hops(v);
     }
 
     /**
@@ -102,7 +149,7 @@ public class BreadthFirstDirectedPaths {
         if (!hasPathTo(v)) return null;
         Stack<Integer> path = new Stack<Integer>();
         int x;
-        for (x = v; distTo[x] != 0; x = edgeTo[x])
+        for (x = v; ws.hops(x) != 0; x = ws.parent(x))
             path.push(x);
         path.push(x);
         return path;
@@ -17,7 +17,6 @@ import org.xiao.algs.queue.Queue;
  *
  */
 public class CC {
-	private boolean[] marked; // 标记顶点
 	private int[] id; // id[v] = v所在的连通分量的标记符
 	private int[] size; // 每个连通分量里的顶点数目
 	private int count; // 连通分量的数目
@@ -26,25 +25,32 @@ public class CC {
 	 * 预处理构造函数
 	 */
 	public CC(Graph G) {
-		marked = new boolean[G.V()];
 		id = new int[G.V()];
 		size = new int[G.V()];
-		for (int v = 0; v < G.V(); v++) {
-			if (!marked[v]) {
-				dfs(G, v);
-				count++;
-			}
-		}
+		run(new DepthFirstTraversal(G, true));
+	}
+
+	/**
+	 * 在CSR无向图上预处理，邻接表遍历不装箱
+	 */
+	public CC(CSRGraph G) {
+		id = new int[G.V()];
+		size = new int[G.V()];
+		run(new DepthFirstTraversal(G));
 	}
 
-	// 深度优先搜索
-	private void dfs(Graph G, int v) {
-		marked[v] = true;
-		id[v] = count;
-		size[count]++;
-		for (int w : G.adj(v)) {
-			if (!marked[w]) {
-				dfs(G, w);
+	// 从每个未访问的顶点开始深度优先搜索，每次搜索访问到的顶点是一个连通分量
+	private void run(DepthFirstTraversal dfs) {
+		DepthFirstTraversal.Visitor label = new DepthFirstTraversal.Visitor() {
+			public void pre(int v) {
+				id[v] = count;
+				size[count]++;
+			}
+		};
+		for (int v = 0; v < dfs.V(); v++) {
+			if (!dfs.visited(v)) {
+				dfs.dfs(v, label);
+				count++;
 			}
 		}
 	}
@@ -99,7 +105,7 @@ public class CC {
 	 *
 	 * java CC mediumG.txt 1 components 0 1 2 3 4 5 6 7 8 9 10 ...
 	 *
-	 * java -Xss50m CC largeG.txt 1 components 0 1 2 3 4 5 6 7 8 9 10 ...
+	 * java CC largeG.txt 1 components 0 1 2 3 4 5 6 7 8 9 10 ...
 	 */
 	@SuppressWarnings("unchecked")
 	public static void main(String[] args) {
@@ -0,0 +1,235 @@
+package org.xiao.algs.graph;
+
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.util.IntIterator;
+
+/***
+ *
+ * 有向图(压缩稀疏行CSR实现，不可变)
+ *
+ * 所有顶点的邻接表依次存放在一个int数组targets中，顶点v指出的边位于targets[offsets[v]] ~
+ * targets[offsets[v+1]-1]，每条边只占用一个int，且遍历邻接表时是顺序访问内存，没有装箱
+ *
+ * 构造完成后不能再添加边，顶点v的邻接顶点顺序和对应的Digraph完全一致，因此在其上运行的算法结果也一致
+ *
+ * @author XiaoJian
+ *
+ */
+public class CSRDigraph {
+	private final int V; // 顶点数目
+	private final int E; // 边的数目
+	private final int[] offsets; // offsets[v] = 顶点v的邻接表在targets中的起始位置，长度为V+1
+	private final int[] targets; // 所有顶点的邻接表
+
+	/**
+	 * 从已有的有向图G初始化
+	 */
+	public CSRDigraph(Digraph G) {
+		this.V = G.V();
+		this.E = G.E();
+		offsets = new int[V + 1];
+		targets = new int[E];
+		int i = 0;
+		for (int v = 0; v < V; v++) {
+			offsets[v] = i;
+			for (int w : G.adj(v)) {
+				targets[i++] = w;
+			}
+		}
+		offsets[V] = i;
+	}
+
+	/**
+	 * 从输入流初始化一个有向图，格式与Digraph(In)相同
+	 */
+	public CSRDigraph(In in) {
+		int[] from;
+		int[] to;
+		try {
+			this.V = in.readInt();
+			if (V < 0) throw new IllegalArgumentException("Number of vertices in a Digraph must be nonnegative");
+			this.E = in.readInt();
+			if (E < 0) throw new IllegalArgumentException("Number of edges in a Digraph must be nonnegative");
+			from = new int[E];
+			to = new int[E];
+			for (int i = 0; i < E; i++) {
+				from[i] = in.readInt();
+				to[i] = in.readInt();
+				validateVertex(from[i]);
+				validateVertex(to[i]);
+			}
+		}
+		catch (NoSuchElementException e) {
+			throw new InputMismatchException("Invalid input format in CSRDigraph constructor");
+		}
+		offsets = new int[V + 1];
+		targets = new int[E];
+		build(from, to);
+	}
+
+	// 由边列表构造，from和to的长度为E，MappedGraph.toCSRDigraph()也使用
+	CSRDigraph(int V, int[] from, int[] to) {
+		this.V = V;
+		this.E = from.length;
+		offsets = new int[V + 1];
+		targets = new int[E];
+		build(from, to);
+	}
+
+	// 计数排序构造CSR数组，后加入的边排在前面，与Bag的迭代顺序一致
+	private void build(int[] from, int[] to) {
+		for (int i = 0; i < E; i++) {
+			offsets[from[i] + 1]++;
+		}
+		for (int v = 0; v < V; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = new int[V]; // next[v] = 顶点v下一条边的写入位置(从后往前)
+		for (int v = 0; v < V; v++) {
+			next[v] = offsets[v + 1];
+		}
+		for (int i = 0; i < E; i++) {
+			targets[--next[from[i]]] = to[i];
+		}
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	/**
+	 * 返回顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 返回边的数目
+	 */
+	public int E() {
+		return E;
+	}
+
+	/**
+	 * 返回顶点v的出度
+	 */
+	public int outdegree(int v) {
+		validateVertex(v);
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/**
+	 * 顶点v的邻接表在targets中的起始位置(包含)，配合end(v)和target(i)可以不创建迭代器遍历邻接表
+	 */
+	public int begin(int v) {
+		validateVertex(v);
+		return offsets[v];
+	}
+
+	/**
+	 * 顶点v的邻接表在targets中的结束位置(不包含)
+	 */
+	public int end(int v) {
+		validateVertex(v);
+		return offsets[v + 1];
+	}
+
+	/**
+	 * 返回targets中第i条边指向的顶点
+	 */
+	public int target(int i) {
+		return targets[i];
+	}
+
+	// 供DepthFirstTraversal直接使用内部数组，不复制
+	int[] offsets() {
+		return offsets;
+	}
+
+	int[] targets() {
+		return targets;
+	}
+
+	/**
+	 * 返回由v指出的边所连接的所有顶点
+	 */
+	public IntIterator adj(int v) {
+		validateVertex(v);
+		return new AdjIterator(offsets[v], offsets[v + 1]);
+	}
+
+	private class AdjIterator implements IntIterator {
+		private int i;
+		private final int end;
+
+		public AdjIterator(int begin, int end) {
+			this.i = begin;
+			this.end = end;
+		}
+
+		public boolean hasNext() {
+			return i < end;
+		}
+
+		public int next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return targets[i++];
+		}
+	}
+
+	/**
+	 * 返回该图的反向图，邻接顶点顺序与Digraph.reverse()一致
+	 */
+	public CSRDigraph reverse() {
+		int[] from = new int[E];
+		int[] to = new int[E];
+		int i = 0;
+		for (int v = 0; v < V; v++) {
+			for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+				from[i] = targets[k];
+				to[i] = v;
+				i++;
+			}
+		}
+		return new CSRDigraph(V, from, to);
+	}
+
+	/**
+	 * 字符串表示
+	 */
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		String NEWLINE = System.getProperty("line.separator");
+		s.append(V + " vertices, " + E + " edges " + NEWLINE);
+		for (int v = 0; v < V; v++) {
+			s.append(v + ": ");
+			for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+				s.append(targets[k] + " ");
+			}
+			s.append(NEWLINE);
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 测试
+	 *
+	 * % java CSRDigraph tinyDG.txt
+	 * 13 vertices, 22 edges
+	 * 0: 5 1
+	 * 1:
+	 * 2: 0 3
+	 * ...
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSRDigraph G = new CSRDigraph(in);
+		StdOut.println(G);
+	}
+
+}
@@ -0,0 +1,173 @@
+package org.xiao.algs.graph;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.IndexMinDoublePQ;
+import org.xiao.algs.stack.Stack;
+
+/***
+ *
+ * 在CSR加权有向图上运行的Dijkstra算法
+ *
+ * 和DijkstraSP结果相同，edgeTo[v]保存边的下标而不是DirectedEdge对象，优先队列使用IndexMinDoublePQ，
+ * 因此构造完成后松弛边的过程中不会再分配任何对象
+ *
+ * @author XiaoJian
+ *
+ */
+public class CSRDijkstraSP {
+	private double[] distTo; // distTo[v] = s到v的最短距离，不存在则为无穷大
+	private int[] edgeTo; // edgeTo[v] = s到v的最短路径上的最后一条边的下标，不存在则为-1
+	private IndexMinDoublePQ pq; // 优先队列
+	private final CSREdgeWeightedDigraph G;
+
+	/**
+	 * 初始化
+	 */
+	public CSRDijkstraSP(CSREdgeWeightedDigraph G, int s) {
+		validateVertex(s, G.V());
+		for (int k = 0; k < G.E(); k++) {
+			if (G.weight(k) < 0)
+				throw new IllegalArgumentException("edge " + G.edge(k) + " has negative weight");
+		}
+		this.G = G;
+		distTo = new double[G.V()];
+		edgeTo = new int[G.V()];
+		for (int v = 0; v < G.V(); v++) {
+			distTo[v] = Double.POSITIVE_INFINITY;
+			edgeTo[v] = -1;
+		}
+		distTo[s] = 0.0;
+
+		// 松弛技术
+		pq = new IndexMinDoublePQ(G.V());
+		pq.insert(s, distTo[s]);
+		while (!pq.isEmpty()) {
+			int v = pq.delMin();
+			for (int k = G.begin(v), end = G.end(v); k < end; k++)
+				relax(k);
+		}
+
+		// 调试
+		assert check(s);
+	}
+
+	private static void validateVertex(int v, int V) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	// 松弛第k条边
+	private void relax(int k) {
+		int v = G.from(k), w = G.to(k);
+		double dist = distTo[v] + G.weight(k);
+		if (distTo[w] > dist) {
+			distTo[w] = dist;
+			edgeTo[w] = k;
+			if (pq.contains(w)) pq.decreaseKey(w, dist);
+			else                pq.insert(w, dist);
+		}
+	}
+
+	/**
+	 * 返回从顶点s到v的距离，如果不存在则路径为无穷大
+	 */
+	public double distTo(int v) {
+		return distTo[v];
+	}
+
+	/**
+	 * 是否存在从顶点s到v的路径
+	 */
+	public boolean hasPathTo(int v) {
+		return distTo[v] < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 返回s到v的最短路径上最后一条边的下标，v为起点或不可达时返回-1
+	 */
+	public int edgeTo(int v) {
+		return edgeTo[v];
+	}
+
+	/**
+	 * 从顶点s到v的路径，如果不存在则为null
+	 */
+	public Iterable<DirectedEdge> pathTo(int v) {
+		if (!hasPathTo(v)) return null;
+		Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+		for (int k = edgeTo[v]; k != -1; k = edgeTo[G.from(k)]) {
+			path.push(G.edge(k));
+		}
+		return path;
+	}
+
+	// 调试
+	private boolean check(int s) {
+
+		// check that distTo[v] and edgeTo[v] are consistent
+		if (distTo[s] != 0.0 || edgeTo[s] != -1) {
+			System.err.println("distTo[s] and edgeTo[s] inconsistent");
+			return false;
+		}
+		for (int v = 0; v < G.V(); v++) {
+			if (v == s) continue;
+			if (edgeTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+				System.err.println("distTo[] and edgeTo[] inconsistent");
+				return false;
+			}
+		}
+
+		// check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+		for (int k = 0; k < G.E(); k++) {
+			if (distTo[G.from(k)] + G.weight(k) < distTo[G.to(k)]) {
+				System.err.println("edge " + G.edge(k) + " not relaxed");
+				return false;
+			}
+		}
+
+		// check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+		for (int w = 0; w < G.V(); w++) {
+			int k = edgeTo[w];
+			if (k == -1) continue;
+			if (w != G.to(k)) return false;
+			if (distTo[G.from(k)] + G.weight(k) != distTo[w]) {
+				System.err.println("edge " + G.edge(k) + " on shortest path not tight");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java CSRDijkstraSP tinyEWD.txt 0
+	 * 0 to 0 (0.00)
+	 * 0 to 1 (1.05)  0->4  0.38   4->5  0.35   5->1  0.32
+	 * 0 to 2 (0.26)  0->2  0.26
+	 * ...
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSREdgeWeightedDigraph G = new CSREdgeWeightedDigraph(in);
+		int s = Integer.parseInt(args[1]);
+
+		// 计算最短路径
+		CSRDijkstraSP sp = new CSRDijkstraSP(G, s);
+
+		// 打印最短路径
+		for (int t = 0; t < G.V(); t++) {
+			if (sp.hasPathTo(t)) {
+				StdOut.printf("%d to %d (%.2f)  ", s, t, sp.distTo(t));
+				for (DirectedEdge e : sp.pathTo(t)) {
+					StdOut.print(e + "   ");
+				}
+				StdOut.println();
+			}
+			else {
+				StdOut.printf("%d to %d         no path\n", s, t);
+			}
+		}
+	}
+
+}
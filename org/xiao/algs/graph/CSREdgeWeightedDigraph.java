@@ -0,0 +1,220 @@
+package org.xiao.algs.graph;
+
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+
+/***
+ *
+ * 加权有向图(压缩稀疏行CSR实现，不可变)
+ *
+ * 所有边按起点分组，依次存放在from、to、weight三个基本类型数组中，边用它在数组中的下标k表示，
+ * 顶点v指出的边的下标为offsets[v] ~ offsets[v+1]-1，不需要为每条边创建DirectedEdge对象
+ *
+ * 顶点v指出的边的顺序和对应的EdgeWeightedDigraph完全一致
+ *
+ * @author XiaoJian
+ *
+ */
+public class CSREdgeWeightedDigraph {
+	private final int V; // 顶点数目
+	private final int E; // 边的数目
+	private final int[] offsets; // offsets[v] = 顶点v指出的第一条边的下标，长度为V+1
+	private final int[] from; // from[k] = 第k条边的起点
+	private final int[] to; // to[k] = 第k条边的终点
+	private final double[] weight; // weight[k] = 第k条边的权重
+
+	/**
+	 * 从已有的加权有向图G初始化
+	 */
+	public CSREdgeWeightedDigraph(EdgeWeightedDigraph G) {
+		this.V = G.V();
+		this.E = G.E();
+		offsets = new int[V + 1];
+		from = new int[E];
+		to = new int[E];
+		weight = new double[E];
+		int k = 0;
+		for (int v = 0; v < V; v++) {
+			offsets[v] = k;
+			for (DirectedEdge e : G.adj(v)) {
+				from[k] = v;
+				to[k] = e.to();
+				weight[k] = e.weight();
+				k++;
+			}
+		}
+		offsets[V] = k;
+	}
+
+	/**
+	 * 从输入流初始化一个加权有向图，格式与EdgeWeightedDigraph(In)相同
+	 */
+	public CSREdgeWeightedDigraph(In in) {
+		int[] v0;
+		int[] w0;
+		double[] weight0;
+		try {
+			this.V = in.readInt();
+			if (V < 0) throw new IllegalArgumentException("Number of vertices in a Digraph must be nonnegative");
+			this.E = in.readInt();
+			if (E < 0) throw new IllegalArgumentException("Number of edges must be nonnegative");
+			v0 = new int[E];
+			w0 = new int[E];
+			weight0 = new double[E];
+			for (int i = 0; i < E; i++) {
+				v0[i] = in.readInt();
+				w0[i] = in.readInt();
+				validateVertex(v0[i]);
+				validateVertex(w0[i]);
+				weight0[i] = in.readDouble();
+				if (Double.isNaN(weight0[i])) throw new IllegalArgumentException("Weight is NaN");
+			}
+		}
+		catch (NoSuchElementException e) {
+			throw new InputMismatchException("Invalid input format in CSREdgeWeightedDigraph constructor");
+		}
+		offsets = new int[V + 1];
+		from = new int[E];
+		to = new int[E];
+		weight = new double[E];
+		build(v0, w0, weight0);
+	}
+
+	// 由边列表构造，v0、w0和weight0的长度为E
+	private CSREdgeWeightedDigraph(int V, int[] v0, int[] w0, double[] weight0) {
+		this.V = V;
+		this.E = v0.length;
+		offsets = new int[V + 1];
+		from = new int[E];
+		to = new int[E];
+		weight = new double[E];
+		build(v0, w0, weight0);
+	}
+
+	// 计数排序构造CSR数组，后加入的边排在前面，与Bag的迭代顺序一致
+	private void build(int[] v0, int[] w0, double[] weight0) {
+		for (int i = 0; i < E; i++) {
+			offsets[v0[i] + 1]++;
+		}
+		for (int v = 0; v < V; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = new int[V]; // next[v] = 顶点v下一条边的写入位置(从后往前)
+		for (int v = 0; v < V; v++) {
+			next[v] = offsets[v + 1];
+		}
+		for (int i = 0; i < E; i++) {
+			int k = --next[v0[i]];
+			from[k] = v0[i];
+			to[k] = w0[i];
+			weight[k] = weight0[i];
+		}
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	/**
+	 * 返回顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 返回边的数目
+	 */
+	public int E() {
+		return E;
+	}
+
+	/**
+	 * 返回顶点v的出度
+	 */
+	public int outdegree(int v) {
+		validateVertex(v);
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/**
+	 * 顶点v指出的第一条边的下标(包含)
+	 */
+	public int begin(int v) {
+		validateVertex(v);
+		return offsets[v];
+	}
+
+	/**
+	 * 顶点v指出的最后一条边的下标(不包含)
+	 */
+	public int end(int v) {
+		validateVertex(v);
+		return offsets[v + 1];
+	}
+
+	/**
+	 * 第k条边的起点
+	 */
+	public int from(int k) {
+		return from[k];
+	}
+
+	/**
+	 * 第k条边的终点
+	 */
+	public int to(int k) {
+		return to[k];
+	}
+
+	/**
+	 * 第k条边的权重
+	 */
+	public double weight(int k) {
+		return weight[k];
+	}
+
+	/**
+	 * 将第k条边包装为DirectedEdge对象，只在需要输出路径时使用
+	 */
+	public DirectedEdge edge(int k) {
+		return new DirectedEdge(from[k], to[k], weight[k]);
+	}
+
+	/**
+	 * 返回该图的反向图，第k条边v->w在反向图中变为w->v
+	 */
+	public CSREdgeWeightedDigraph reverse() {
+		return new CSREdgeWeightedDigraph(V, to, from, weight);
+	}
+
+	/**
+	 * 字符串表示
+	 */
+	public String toString() {
+		String NEWLINE = System.getProperty("line.separator");
+		StringBuilder s = new StringBuilder();
+		s.append(V + " " + E + NEWLINE);
+		for (int v = 0; v < V; v++) {
+			s.append(v + ": ");
+			for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+				s.append(edge(k) + "  ");
+			}
+			s.append(NEWLINE);
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 测试
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSREdgeWeightedDigraph G = new CSREdgeWeightedDigraph(in);
+		StdOut.println(G);
+	}
+
+}
@@ -0,0 +1,209 @@
+package org.xiao.algs.graph;
+
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.util.IntIterator;
+
+/***
+ *
+ * 无向图(压缩稀疏行CSR实现，不可变)
+ *
+ * 每条边v-w在targets中存放两次(v的邻接表中一次，w的邻接表中一次)，和Graph一样支持平行边和自环
+ *
+ * 顶点v的邻接顶点顺序和对应的Graph完全一致
+ *
+ * @author XiaoJian
+ *
+ */
+public class CSRGraph {
+	private final int V; // 顶点数目
+	private final int E; // 边的数目
+	private final int[] offsets; // offsets[v] = 顶点v的邻接表在targets中的起始位置，长度为V+1
+	private final int[] targets; // 所有顶点的邻接表，长度为2E
+
+	/**
+	 * 从已有的无向图G初始化
+	 */
+	public CSRGraph(Graph G) {
+		this.V = G.V();
+		this.E = G.E();
+		offsets = new int[V + 1];
+		targets = new int[2 * E];
+		int i = 0;
+		for (int v = 0; v < V; v++) {
+			offsets[v] = i;
+			for (int w : G.adj(v)) {
+				targets[i++] = w;
+			}
+		}
+		offsets[V] = i;
+	}
+
+	/**
+	 * 从输入流初始化一个无向图，格式与Graph(In)相同
+	 */
+	public CSRGraph(In in) {
+		int[] from;
+		int[] to;
+		try {
+			this.V = in.readInt();
+			if (V < 0)
+				throw new IllegalArgumentException(
+						"Number of vertices must be nonnegative");
+			this.E = in.readInt();
+			if (E < 0)
+				throw new IllegalArgumentException(
+						"Number of edges must be nonnegative");
+			from = new int[E];
+			to = new int[E];
+			for (int i = 0; i < E; i++) {
+				from[i] = in.readInt();
+				to[i] = in.readInt();
+				validateVertex(from[i]);
+				validateVertex(to[i]);
+			}
+		} catch (NoSuchElementException e) {
+			throw new InputMismatchException(
+					"Invalid input format in CSRGraph constructor");
+		}
+		offsets = new int[V + 1];
+		targets = new int[2 * E];
+
+		// 计数排序，后加入的边排在前面，与Bag的迭代顺序一致
+		for (int i = 0; i < E; i++) {
+			offsets[from[i] + 1]++;
+			offsets[to[i] + 1]++;
+		}
+		for (int v = 0; v < V; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = new int[V]; // next[v] = 顶点v下一条边的写入位置(从后往前)
+		for (int v = 0; v < V; v++) {
+			next[v] = offsets[v + 1];
+		}
+		for (int i = 0; i < E; i++) {
+			targets[--next[from[i]]] = to[i];
+			targets[--next[to[i]]] = from[i];
+		}
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= V)
+			throw new IndexOutOfBoundsException();
+	}
+
+	/**
+	 * 返回顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 返回边的数目
+	 */
+	public int E() {
+		return E;
+	}
+
+	/**
+	 * 返回顶点v的度数
+	 */
+	public int degree(int v) {
+		validateVertex(v);
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/**
+	 * 顶点v的邻接表在targets中的起始位置(包含)，配合end(v)和target(i)可以不创建迭代器遍历邻接表
+	 */
+	public int begin(int v) {
+		validateVertex(v);
+		return offsets[v];
+	}
+
+	/**
+	 * 顶点v的邻接表在targets中的结束位置(不包含)
+	 */
+	public int end(int v) {
+		validateVertex(v);
+		return offsets[v + 1];
+	}
+
+	/**
+	 * 返回targets中第i个位置上的邻接顶点
+	 */
+	public int target(int i) {
+		return targets[i];
+	}
+
+	// 供DepthFirstTraversal直接使用内部数组，不复制
+	int[] offsets() {
+		return offsets;
+	}
+
+	int[] targets() {
+		return targets;
+	}
+
+	/**
+	 * 返回和v相邻的所有顶点
+	 */
+	public IntIterator adj(int v) {
+		validateVertex(v);
+		return new AdjIterator(offsets[v], offsets[v + 1]);
+	}
+
+	private class AdjIterator implements IntIterator {
+		private int i;
+		private final int end;
+
+		public AdjIterator(int begin, int end) {
+			this.i = begin;
+			this.end = end;
+		}
+
+		public boolean hasNext() {
+			return i < end;
+		}
+
+		public int next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return targets[i++];
+		}
+	}
+
+	/**
+	 * 字符串表示
+	 */
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		String NEWLINE = "\n";
+		s.append(V + " vertices, " + E + " edges " + NEWLINE);
+		for (int v = 0; v < V; v++) {
+			s.append(v + ": ");
+			for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+				s.append(targets[k] + " ");
+			}
+			s.append(NEWLINE);
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 测试
+	 *
+	 * % java CSRGraph tinyG.txt 13 vertices, 13 edges 0: 6 2 1 5 1: 0 2: 0 3: 5 4
+	 * 4: 5 6 3 5: 3 4 0 6: 0 4 7: 8 8: 7 9: 11 10 12 10: 9 11: 9 12 12: 11 9
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSRGraph G = new CSRGraph(in);
+		StdOut.println(G);
+	}
+
+}
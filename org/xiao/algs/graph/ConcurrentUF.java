@@ -0,0 +1,125 @@
+package org.xiao.algs.graph;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.xiao.algs.io.StdIn;
+import org.xiao.algs.io.StdOut;
+
+/***
+ * 无锁的并发 union-find 实现，多个线程可以同时调用union、find和connected
+ *
+ * 父链接保存在AtomicIntegerArray中，只有根节点的父链接会被union修改：
+ * union用CAS把优先级低的根连接到优先级高的根，CAS失败说明根已经被其他线程连接走了，重新查找后重试；
+ * 优先级是触点索引经过一个双射打乱后的值，相当于随机的秩，不需要额外保存秩，也避免了按顺序合并时形成长链
+ *
+ * find使用路径减半：沿路径每走一步就用CAS把节点的父链接改为祖父节点，失败时说明其他线程已经改过，忽略即可
+ *
+ * @author XiaoJian
+ *
+ */
+public class ConcurrentUF {
+	private final AtomicIntegerArray id; // 父链接数组
+	private final AtomicInteger count; // 连通分量的数量
+
+	/**
+	 * 以整数标志（0到N）初始化N个触点
+	 */
+	public ConcurrentUF(int N) {
+		if (N < 0) throw new IllegalArgumentException("Number of sites must be nonnegative");
+		id = new AtomicIntegerArray(N);
+		for (int i = 0; i < N; i++)
+			id.set(i, i);
+		count = new AtomicInteger(N);
+	}
+
+	/**
+	 * 返回数量
+	 */
+	public int count() {
+		return count.get();
+	}
+
+	/**
+	 * p所在分量的标志符，其他线程同时合并时返回的是调用期间某一时刻的根
+	 */
+	public int find(int p) {
+		validate(p);
+		while (true) {
+			int q = id.get(p);
+			if (q == p) return p;
+			int r = id.get(q);
+			if (r != q) id.compareAndSet(p, q, r); // 路径减半
+			p = r;
+		}
+	}
+
+	/**
+	 * 如果p和q存在于同一个分量中则返回true
+	 */
+	public boolean connected(int p, int q) {
+		while (true) {
+			p = find(p);
+			q = find(q);
+			if (p == q) return true;
+			// p仍然是根说明两者在这一时刻不连通，否则p在查找期间被合并了，重试
+			if (id.get(p) == p) return false;
+		}
+	}
+
+	/**
+	 * 在p和q之间添加一条连接，如果p和q原本不在同一个分量中返回true
+	 */
+	public boolean union(int p, int q) {
+		while (true) {
+			int rootP = find(p);
+			int rootQ = find(q);
+			if (rootP == rootQ) return false;
+
+			// 将优先级低的根节点连接到优先级高的根节点
+			if (less(rootP, rootQ)) {
+				if (id.compareAndSet(rootP, rootP, rootQ)) break;
+			} else {
+				if (id.compareAndSet(rootQ, rootQ, rootP)) break;
+			}
+		}
+		count.decrementAndGet();
+		return true;
+	}
+
+	private void validate(int p) {
+		if (p < 0 || p >= id.length()) throw new IndexOutOfBoundsException("site " + p + " is not between 0 and " + (id.length()-1));
+	}
+
+	// 触点p的优先级是否低于q，所有触点的优先级各不相同
+	private static boolean less(int p, int q) {
+		return priority(p) < priority(q);
+	}
+
+	// 32位整数上的双射(MurmurHash3的finalizer)
+	private static int priority(int x) {
+		x ^= x >>> 16;
+		x *= 0x85ebca6b;
+		x ^= x >>> 13;
+		x *= 0xc2b2ae35;
+		x ^= x >>> 16;
+		return x;
+	}
+
+	/**
+	 * 测试
+	 * java ConcurrentUF < tinyUF.txt
+	 */
+	public static void main(String[] args) {
+		int N = StdIn.readInt();
+		ConcurrentUF uf = new ConcurrentUF(N);
+		while (!StdIn.isEmpty()) {
+			int p = StdIn.readInt();
+			int q = StdIn.readInt();
+			if (uf.union(p, q))
+				StdOut.println(p + " " + q);
+		}
+		StdOut.println(uf.count() + " components");
+	}
+
+}
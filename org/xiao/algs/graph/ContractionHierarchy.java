@@ -0,0 +1,392 @@
+package org.xiao.algs.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.IndexMinDoublePQ;
+import org.xiao.algs.queue.Queue;
+import org.xiao.algs.util.Stopwatch;
+
+/***
+ *
+ * 收缩层次(Contraction Hierarchies)，用于道路网络等大规模图上的快速点对点最短路径查询
+ *
+ * 预处理：按重要性从低到高依次"收缩"每个顶点v，对每一对仍未收缩的邻居u->v->w，
+ * 若不经过v时u到w没有不长于weight(u,v)+weight(v,w)的路径(见证路径)，就添加一条捷径u->w
+ * 收缩的顺序就是顶点的层次rank[v]，原图的边加上所有捷径构成层次图
+ *
+ * 查询：任意一条最短路径在层次图中都可以表示为先上升后下降的路径，因此只需从s沿rank升高的边向前搜索、
+ * 从t沿rank升高的边向后搜索，两侧访问的顶点都很少，见ContractionHierarchySP
+ *
+ * 每条捷径记录它替代的两条边，输出路径时可以展开为原图中的边
+ *
+ * 层次图可以用save()保存到文件，再用load()读入，不需要重复预处理
+ *
+ * 只适用于边的权重非负的加权有向图
+ *
+ * @author XiaoJian
+ *
+ */
+public class ContractionHierarchy implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final int WITNESS_SETTLE_LIMIT = 500; // 收缩时见证搜索最多确定的顶点数，超过时认为没有见证路径
+	private static final int ESTIMATE_SETTLE_LIMIT = 50; // 估计收缩优先级时见证搜索最多确定的顶点数
+
+	private final int V; // 顶点数目
+	private final int[] rank; // rank[v] = v被收缩的次序
+	private final int[] from; // 第k条边(原图的边或捷径)的起点
+	private final int[] to; // 第k条边的终点
+	private final double[] weight; // 第k条边的权重
+	private final int[] child1; // 捷径替代的第一条边(from -> 中间顶点)，原图的边为-1
+	private final int[] child2; // 捷径替代的第二条边(中间顶点 -> to)，原图的边为-1
+	private final int[] upOffsets; // 顶点v指出的上升边在upEdges中的位置为upOffsets[v] ~ upOffsets[v+1]-1
+	private final int[] upEdges; // 所有rank[from] < rank[to]的边，按起点分组
+	private final int[] downOffsets; // 指向顶点v的下降边在downEdges中的位置为downOffsets[v] ~ downOffsets[v+1]-1
+	private final int[] downEdges; // 所有rank[from] > rank[to]的边，按终点分组
+
+	/**
+	 * 对加权有向图G进行预处理
+	 */
+	public ContractionHierarchy(EdgeWeightedDigraph G) {
+		Builder b = new Builder(G);
+		b.contractAll();
+		this.V = G.V();
+		this.rank = b.rank;
+		int E = b.E;
+		from = Arrays.copyOf(b.from, E);
+		to = Arrays.copyOf(b.to, E);
+		weight = Arrays.copyOf(b.weight, E);
+		child1 = Arrays.copyOf(b.child1, E);
+		child2 = Arrays.copyOf(b.child2, E);
+
+		// 按rank把所有边分为上升边和下降边，分别构造CSR数组
+		upOffsets = new int[V + 1];
+		downOffsets = new int[V + 1];
+		int ups = 0;
+		for (int k = 0; k < E; k++) {
+			if (rank[from[k]] < rank[to[k]]) { upOffsets[from[k] + 1]++; ups++; }
+			else                             downOffsets[to[k] + 1]++;
+		}
+		for (int v = 0; v < V; v++) {
+			upOffsets[v + 1] += upOffsets[v];
+			downOffsets[v + 1] += downOffsets[v];
+		}
+		upEdges = new int[ups];
+		downEdges = new int[E - ups];
+		int[] upNext = Arrays.copyOf(upOffsets, V);
+		int[] downNext = Arrays.copyOf(downOffsets, V);
+		for (int k = 0; k < E; k++) {
+			if (rank[from[k]] < rank[to[k]]) upEdges[upNext[from[k]]++] = k;
+			else                             downEdges[downNext[to[k]]++] = k;
+		}
+	}
+
+	// 预处理过程中使用的可修改的图，边只增加不删除
+	// out[v]和in[v]只保存两端都未收缩的边，收缩v时把和v相连的边从邻居的列表中移除
+	private static class Builder {
+		private final int V;
+		private int E;
+		private int[] from, to, child1, child2;
+		private double[] weight;
+		private final IntList[] out; // out[v] = v指出的边的下标
+		private final IntList[] in; // in[v] = 指向v的边的下标
+		private final int[] contractedNeighbors; // 已收缩的邻居数目，用于让收缩均匀分布
+		private final int[] rank;
+		private final int[] neighborMark; // 更新邻居优先级时用于去重
+		private final SearchWorkspace ws;
+
+		// 收缩v时需要添加的捷径，由findShortcuts()填充
+		private int shortcuts;
+		private int[] scIn = new int[16], scOut = new int[16];
+
+		Builder(EdgeWeightedDigraph G) {
+			V = G.V();
+			int capacity = Math.max(16, G.E() * 2);
+			from = new int[capacity];
+			to = new int[capacity];
+			child1 = new int[capacity];
+			child2 = new int[capacity];
+			weight = new double[capacity];
+			out = new IntList[V];
+			in = new IntList[V];
+			for (int v = 0; v < V; v++) {
+				out[v] = new IntList();
+				in[v] = new IntList();
+			}
+			contractedNeighbors = new int[V];
+			rank = new int[V];
+			neighborMark = new int[V];
+			ws = new SearchWorkspace(V);
+			for (int v = 0; v < V; v++) {
+				for (DirectedEdge e : G.adj(v)) {
+					if (e.weight() < 0)
+						throw new IllegalArgumentException("edge " + e + " has negative weight");
+					if (e.from() == e.to()) continue; // 自环不会出现在最短路径上
+					addOrImprove(e.from(), e.to(), e.weight(), -1, -1);
+				}
+			}
+		}
+
+		// 添加边u->w，若已经存在u->w则只保留权重较小的一条
+		private void addOrImprove(int u, int w, double wt, int c1, int c2) {
+			IntList list = out[u];
+			for (int i = 0; i < list.n; i++) {
+				int k = list.a[i];
+				if (to[k] == w) {
+					if (wt < weight[k]) {
+						weight[k] = wt;
+						child1[k] = c1;
+						child2[k] = c2;
+					}
+					return;
+				}
+			}
+			if (E == from.length) {
+				int capacity = 2 * E;
+				from = Arrays.copyOf(from, capacity);
+				to = Arrays.copyOf(to, capacity);
+				child1 = Arrays.copyOf(child1, capacity);
+				child2 = Arrays.copyOf(child2, capacity);
+				weight = Arrays.copyOf(weight, capacity);
+			}
+			from[E] = u;
+			to[E] = w;
+			weight[E] = wt;
+			child1[E] = c1;
+			child2[E] = c2;
+			out[u].add(E);
+			in[w].add(E);
+			E++;
+		}
+
+		// 计算收缩v时需要的捷径，保存在scIn/scOut中(入边和出边的下标)
+		// 见证搜索最多确定settleLimit个顶点，找不到见证路径时添加捷径
+		private void findShortcuts(int v, int settleLimit) {
+			shortcuts = 0;
+			IntList ins = in[v], outs = out[v];
+			for (int i = 0; i < ins.n; i++) {
+				int ku = ins.a[i];
+				int u = from[ku];
+
+				// 见证搜索的距离上限，没有可以连接的出边时不需要搜索
+				double maxDist = -1.0;
+				for (int j = 0; j < outs.n; j++) {
+					int kw = outs.a[j];
+					if (to[kw] == u) continue;
+					maxDist = Math.max(maxDist, weight[ku] + weight[kw]);
+				}
+				if (maxDist < 0.0) continue;
+				witnessSearch(u, v, maxDist, settleLimit);
+
+				for (int j = 0; j < outs.n; j++) {
+					int kw = outs.a[j];
+					int w = to[kw];
+					if (w == u) continue;
+					if (ws.dist(w) > weight[ku] + weight[kw]) {
+						if (shortcuts == scIn.length) {
+							scIn = Arrays.copyOf(scIn, 2 * shortcuts);
+							scOut = Arrays.copyOf(scOut, 2 * shortcuts);
+						}
+						scIn[shortcuts] = ku;
+						scOut[shortcuts] = kw;
+						shortcuts++;
+					}
+				}
+			}
+		}
+
+		// 从u出发、不经过v和已收缩顶点的有限Dijkstra搜索
+		private void witnessSearch(int u, int v, double maxDist, int settleLimit) {
+			ws.reset(V);
+			IndexMinDoublePQ pq = ws.pq();
+			ws.setDist(u, 0.0, -1);
+			pq.insert(u, 0.0);
+			int settled = 0;
+			while (!pq.isEmpty()) {
+				if (pq.minKey() > maxDist || settled++ > settleLimit) break;
+				int x = pq.delMin();
+				IntList list = out[x];
+				for (int i = 0; i < list.n; i++) {
+					int k = list.a[i];
+					int y = to[k];
+					if (y == v) continue;
+					double d = ws.dist(x) + weight[k];
+					if (ws.dist(y) > d) {
+						ws.setDist(y, d, k);
+						if (pq.contains(y)) pq.decreaseKey(y, d);
+						else                pq.insert(y, d);
+					}
+				}
+			}
+		}
+
+		// 收缩v的优先级，越小越先收缩：添加的捷径数 - 删除的边数 + 已收缩的邻居数
+		// 只是估计值，见证搜索的范围比真正收缩时小
+		private double priority(int v) {
+			findShortcuts(v, ESTIMATE_SETTLE_LIMIT);
+			return shortcuts - in[v].n - out[v].n + contractedNeighbors[v];
+		}
+
+		void contractAll() {
+			IndexMinDoublePQ order = new IndexMinDoublePQ(V);
+			for (int v = 0; v < V; v++)
+				order.insert(v, priority(v));
+
+			int next = 0;
+			while (!order.isEmpty()) {
+				int v = order.delMin();
+
+				// 优先级是惰性更新的，重新计算后若不再是最小的就放回去
+				double p = priority(v);
+				if (!order.isEmpty() && p > order.minKey()) {
+					order.insert(v, p);
+					continue;
+				}
+
+				findShortcuts(v, WITNESS_SETTLE_LIMIT);
+				for (int i = 0; i < shortcuts; i++) {
+					int ku = scIn[i], kw = scOut[i];
+					addOrImprove(from[ku], to[kw], weight[ku] + weight[kw], ku, kw);
+				}
+				rank[v] = next++;
+
+				// 把v从图中移除，并更新邻居的优先级
+				for (int i = 0; i < in[v].n; i++)
+					out[from[in[v].a[i]]].remove(in[v].a[i]);
+				for (int i = 0; i < out[v].n; i++)
+					in[to[out[v].a[i]]].remove(out[v].a[i]);
+				for (int i = 0; i < in[v].n; i++)
+					touchNeighbor(from[in[v].a[i]], next, order);
+				for (int i = 0; i < out[v].n; i++)
+					touchNeighbor(to[out[v].a[i]], next, order);
+			}
+		}
+
+		// 每收缩一个顶点，邻居u的优先级只更新一次
+		private void touchNeighbor(int u, int mark, IndexMinDoublePQ order) {
+			if (neighborMark[u] == mark || !order.contains(u)) return;
+			neighborMark[u] = mark;
+			contractedNeighbors[u]++;
+			order.changeKey(u, priority(u));
+		}
+	}
+
+	// 可增长的int数组
+	private static class IntList {
+		private int[] a = new int[4];
+		private int n;
+
+		void add(int x) {
+			if (n == a.length) a = Arrays.copyOf(a, 2 * n);
+			a[n++] = x;
+		}
+
+		// 删除值为x的元素，不保持顺序
+		void remove(int x) {
+			for (int i = 0; i < n; i++) {
+				if (a[i] == x) {
+					a[i] = a[--n];
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 返回顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 返回层次图中边的数目(原图的边和捷径)
+	 */
+	public int E() {
+		return from.length;
+	}
+
+	/**
+	 * 返回顶点v的层次(被收缩的次序)
+	 */
+	public int rank(int v) {
+		return rank[v];
+	}
+
+	int upBegin(int v)   { return upOffsets[v]; }
+	int upEnd(int v)     { return upOffsets[v + 1]; }
+	int upEdge(int i)    { return upEdges[i]; }
+	int downBegin(int v) { return downOffsets[v]; }
+	int downEnd(int v)   { return downOffsets[v + 1]; }
+	int downEdge(int i)  { return downEdges[i]; }
+	int from(int k)      { return from[k]; }
+	int to(int k)        { return to[k]; }
+	double weight(int k) { return weight[k]; }
+
+	/**
+	 * 把第k条边展开为原图中的边，依次放入path
+	 */
+	void unpack(int k, Queue<DirectedEdge> path) {
+		if (child1[k] == -1) {
+			path.enqueue(new DirectedEdge(from[k], to[k], weight[k]));
+		}
+		else {
+			unpack(child1[k], path);
+			unpack(child2[k], path);
+		}
+	}
+
+	/**
+	 * 保存到文件
+	 */
+	public void save(String filename) throws IOException {
+		ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+		try {
+			out.writeObject(this);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * 从save()保存的文件读入
+	 */
+	public static ContractionHierarchy load(String filename) throws IOException {
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(filename)));
+		try {
+			return (ContractionHierarchy) in.readObject();
+		}
+		catch (ClassNotFoundException e) {
+			throw new IOException("Invalid contraction hierarchy file " + filename, e);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * 测试，预处理后把层次图保存到第二个参数指定的文件
+	 *
+	 * java ContractionHierarchy tinyEWD.txt tinyEWD.ch
+	 */
+	public static void main(String[] args) throws IOException {
+		In in = new In(args[0]);
+		EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+		Stopwatch timer = new Stopwatch();
+		ContractionHierarchy ch = new ContractionHierarchy(G);
+		StdOut.printf("%d vertices, %d edges, %d edges in hierarchy (%.2f seconds)\n",
+				G.V(), G.E(), ch.E(), timer.elapsedTime());
+		if (args.length > 1) ch.save(args[1]);
+	}
+
+}
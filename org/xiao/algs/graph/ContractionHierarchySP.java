@@ -0,0 +1,187 @@
+package org.xiao.algs.graph;
+
+import java.io.IOException;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.IndexMinDoublePQ;
+import org.xiao.algs.queue.Queue;
+import org.xiao.algs.stack.Stack;
+
+/***
+ *
+ * 在收缩层次图上的点对点最短路径查询
+ *
+ * 从s只沿上升边向前搜索，从t只沿上升边向后搜索(即原图中指向t方向的下降边)，
+ * 两侧搜索在最短路径上层次最高的顶点相遇，每一侧的最小键都不小于目前的最短距离mu时停止
+ * 
+ * 使用stall-on-demand剪枝：距离显然不是最短的顶点不再继续扩展
+ *
+ * 结果和DijkstraSP相同，path()中的捷径会展开为原图的边
+ *
+ * @author XiaoJian
+ *
+ */
+public class ContractionHierarchySP {
+	private final ContractionHierarchy ch;
+	private final SearchWorkspace forward; // 正向搜索的工作区
+	private final SearchWorkspace backward; // 反向搜索的工作区
+	private final int generationF, generationB;
+	private double mu = Double.POSITIVE_INFINITY; // s到t的最短距离
+	private int meet = -1; // 两侧搜索相遇的顶点
+
+	/**
+	 * 计算s到t的最短路径
+	 */
+	public ContractionHierarchySP(ContractionHierarchy ch, int s, int t) {
+		this(ch, s, t, new SearchWorkspace(ch.V()), new SearchWorkspace(ch.V()));
+	}
+
+	/**
+	 * 使用两个工作区计算s到t的最短路径，结果在任一工作区被下一次查询使用之前有效
+	 */
+	public ContractionHierarchySP(ContractionHierarchy ch, int s, int t, SearchWorkspace forward, SearchWorkspace backward) {
+		if (forward == backward) throw new IllegalArgumentException("forward and backward search need different workspaces");
+		validateVertex(s, ch.V());
+		validateVertex(t, ch.V());
+		this.ch = ch;
+		this.forward = forward;
+		this.backward = backward;
+		generationF = forward.reset(ch.V());
+		generationB = backward.reset(ch.V());
+
+		IndexMinDoublePQ pqF = forward.pq();
+		IndexMinDoublePQ pqB = backward.pq();
+		forward.setDist(s, 0.0, -1);
+		backward.setDist(t, 0.0, -1);
+		pqF.insert(s, 0.0);
+		pqB.insert(t, 0.0);
+		while (true) {
+			boolean activeF = !pqF.isEmpty() && pqF.minKey() < mu;
+			boolean activeB = !pqB.isEmpty() && pqB.minKey() < mu;
+			if (!activeF && !activeB) break;
+			if (activeF && (!activeB || pqF.minKey() <= pqB.minKey())) {
+				int v = pqF.delMin();
+				settle(v, forward, backward);
+				if (stalledForward(v)) continue;
+				for (int i = ch.upBegin(v), end = ch.upEnd(v); i < end; i++) {
+					int k = ch.upEdge(i);
+					relax(ch.to(k), forward.dist(v) + ch.weight(k), k, forward, pqF);
+				}
+			}
+			else {
+				int v = pqB.delMin();
+				settle(v, backward, forward);
+				if (stalledBackward(v)) continue;
+				for (int i = ch.downBegin(v), end = ch.downEnd(v); i < end; i++) {
+					int k = ch.downEdge(i);
+					relax(ch.from(k), backward.dist(v) + ch.weight(k), k, backward, pqB);
+				}
+			}
+		}
+	}
+
+	private static void validateVertex(int v, int V) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	// v在一侧确定最短距离时检查是否和另一侧相遇
+	private void settle(int v, SearchWorkspace self, SearchWorkspace other) {
+		double d = self.dist(v) + other.dist(v);
+		if (d < mu) {
+			mu = d;
+			meet = v;
+		}
+	}
+
+	// stall-on-demand：若某个层次更高的顶点u已经有更短的路径经过下降边u->v到达v，
+	// 说明s到v的最短路径不是单调上升的，v的距离不是最终结果，不需要从v继续扩展
+	private boolean stalledForward(int v) {
+		double d = forward.dist(v);
+		for (int i = ch.downBegin(v), end = ch.downEnd(v); i < end; i++) {
+			int k = ch.downEdge(i);
+			if (forward.dist(ch.from(k)) + ch.weight(k) < d) return true;
+		}
+		return false;
+	}
+
+	// 反向搜索的stall-on-demand，检查上升边v->w
+	private boolean stalledBackward(int v) {
+		double d = backward.dist(v);
+		for (int i = ch.upBegin(v), end = ch.upEnd(v); i < end; i++) {
+			int k = ch.upEdge(i);
+			if (backward.dist(ch.to(k)) + ch.weight(k) < d) return true;
+		}
+		return false;
+	}
+
+	private static void relax(int w, double d, int k, SearchWorkspace ws, IndexMinDoublePQ pq) {
+		if (ws.dist(w) > d) {
+			ws.setDist(w, d, k);
+			if (pq.contains(w)) pq.decreaseKey(w, d);
+			else                pq.insert(w, d);
+		}
+	}
+
+	/**
+	 * 返回s到t的最短距离，不存在则为无穷大
+	 */
+	public double dist() {
+		forward.checkGeneration(generationF);
+		backward.checkGeneration(generationB);
+		return mu;
+	}
+
+	/**
+	 * 是否存在s到t的路径
+	 */
+	public boolean hasPath() {
+		return dist() < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 返回s到t的最短路径(捷径已展开为原图的边)，如果不存在则为null
+	 */
+	public Iterable<DirectedEdge> path() {
+		if (!hasPath()) return null;
+		Stack<Integer> up = new Stack<Integer>();
+		for (int k = forward.edgeIndex(meet); k != -1; k = forward.edgeIndex(ch.from(k))) {
+			up.push(k);
+		}
+		Queue<DirectedEdge> path = new Queue<DirectedEdge>();
+		for (int k : up) {
+			ch.unpack(k, path);
+		}
+		for (int k = backward.edgeIndex(meet); k != -1; k = backward.edgeIndex(ch.to(k))) {
+			ch.unpack(k, path);
+		}
+		return path;
+	}
+
+	/**
+	 * 测试，第一个参数为文本格式的图或者ContractionHierarchy.save()保存的文件
+	 *
+	 * java ContractionHierarchySP tinyEWD.txt 0 6
+	 * 0 to 6 (1.51)  0->2  0.26   2->7  0.34   7->3  0.39   3->6  0.52
+	 */
+	public static void main(String[] args) throws IOException {
+		ContractionHierarchy ch;
+		if (args[0].endsWith(".ch")) ch = ContractionHierarchy.load(args[0]);
+		else                         ch = new ContractionHierarchy(new EdgeWeightedDigraph(new In(args[0])));
+		int s = Integer.parseInt(args[1]);
+		int t = Integer.parseInt(args[2]);
+
+		ContractionHierarchySP sp = new ContractionHierarchySP(ch, s, t);
+		if (sp.hasPath()) {
+			StdOut.printf("%d to %d (%.2f)  ", s, t, sp.dist());
+			for (DirectedEdge e : sp.path()) {
+				StdOut.print(e + "   ");
+			}
+			StdOut.println();
+		}
+		else {
+			StdOut.printf("%d to %d         no path\n", s, t);
+		}
+	}
+
+}
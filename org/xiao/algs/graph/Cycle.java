@@ -21,11 +21,35 @@ public class Cycle {
     public Cycle(Graph G) {
         if (hasSelfLoop(G)) return;
         if (hasParallelEdges(G)) return;
-        marked = new boolean[G.V()];
         edgeTo = new int[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v])
-                dfs(G, -1, v);
+        DepthFirstTraversal dfs = new DepthFirstTraversal(G, true);
+        DepthFirstTraversal.Visitor finder = new DepthFirstTraversal.Visitor() {
+            public void treeEdge(int v, int w, int i) {
+                edgeTo[w] = v;
+            }
+
+            // check for cycle (but disregard reverse of edge leading to v)
+            public void backEdge(int v, int w, int i) {
+                if (w == edgeTo[v]) return;
+                cycle = new Stack<Integer>();
+                for (int x = v; x != w; x = edgeTo[x]) {
+                    cycle.push(x);
+                }
+                cycle.push(w);
+                cycle.push(v);
+            }
+
+            // short circuit if cycle already found
+            public boolean done() {
+                return cycle != null;
+            }
+        };
+        for (int v = 0; v < G.V() && cycle == null; v++) {
+            if (!dfs.visited(v)) {
+                edgeTo[v] = -1;
+                dfs.dfs(v, finder);
+            }
+        }
     }
 
 
@@ -84,31 +108,6 @@ public class Cycle {
         return cycle;
     }
 
-   //深度优先搜索
-   private void dfs(Graph G, int u, int v) {
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-
-            // short circuit if cycle already found
-            if (cycle != null) return;
-
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(G, v, w);
-            }
-
-            // check for cycle (but disregard reverse of edge leading to v)
-            else if (w != u) {
-                cycle = new Stack<Integer>();
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
-                }
-                cycle.push(w);
-                cycle.push(v);
-            }
-        }
-    }
-
     /**
      * 测试
      * 
@@ -0,0 +1,271 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.stack.Stack;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Body;
+import org.xiao.algs.util.ParallelFor.IntList;
+
+/***
+ *
+ * 单起点最短路径的并行delta-stepping算法
+ *
+ * 把顶点按距离分到宽度为delta的桶中，桶i中是距离在[i*delta, (i+1)*delta)之间的顶点，从小到大依次处理每个桶：
+ * 先反复并行松弛桶中顶点的轻边(权重不超过delta)，直到桶为空(轻边可能把顶点放回当前桶)，
+ * 再并行松弛这个桶中处理过的所有顶点的重边(重边只会把顶点放到后面的桶)
+ *
+ * delta趋近于0时退化为Dijkstra算法(没有并行)，delta为无穷大时退化为Bellman-Ford算法(重复工作很多)，
+ * 一般取最大权重除以平均出度
+ *
+ * 距离保存在AtomicLongArray中，各线程用CAS更新；非负double的位模式和数值的大小顺序一致，
+ * 计算结束后沿着紧边(distTo[v] + weight == distTo[w])从s广度优先搜索得到edgeTo
+ *
+ * 只适用于边的权重非负的加权有向图，结果和DijkstraSP相同
+ *
+ * @author XiaoJian
+ *
+ */
+public class DeltaSteppingSP {
+	private static final int SEQUENTIAL_THRESHOLD = 256; // 桶中顶点少于该值时不拆分任务
+	private static final int MAX_BUCKETS = 1 << 24; // 循环桶数组的最大长度
+
+	private final CSREdgeWeightedDigraph G;
+	private final double delta; // 桶的宽度
+	private final double[] distTo; // distTo[v] = s到v的最短距离，不存在则为无穷大
+	private final int[] edgeTo; // edgeTo[v] = s到v的最短路径上的最后一条边的下标，不存在则为-1
+
+	// 计算过程中使用
+	private AtomicLongArray dist; // 距离的位模式
+	private ForkJoinPool pool;
+
+	/**
+	 * 使用公共ForkJoinPool和默认的delta初始化
+	 */
+	public DeltaSteppingSP(EdgeWeightedDigraph G, int s) {
+		this(new CSREdgeWeightedDigraph(G), s);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool和默认的delta(最大权重除以平均出度)在CSR图上初始化
+	 */
+	public DeltaSteppingSP(CSREdgeWeightedDigraph G, int s) {
+		this(G, s, defaultDelta(G), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 指定delta和线程池在CSR图上初始化
+	 */
+	public DeltaSteppingSP(CSREdgeWeightedDigraph G, int s, double delta, ForkJoinPool pool) {
+		if (!(delta > 0.0)) throw new IllegalArgumentException("delta must be positive");
+		if (s < 0 || s >= G.V()) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (G.V()-1));
+		double maxWeight = 0.0;
+		for (int k = 0; k < G.E(); k++) {
+			if (G.weight(k) < 0)
+				throw new IllegalArgumentException("edge " + G.edge(k) + " has negative weight");
+			maxWeight = Math.max(maxWeight, G.weight(k));
+		}
+		if (maxWeight / delta >= MAX_BUCKETS)
+			throw new IllegalArgumentException("delta " + delta + " is too small for max edge weight " + maxWeight);
+		this.G = G;
+		this.delta = delta;
+		this.pool = pool;
+
+		dist = new AtomicLongArray(G.V());
+		long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+		for (int v = 0; v < G.V(); v++)
+			dist.set(v, infinity);
+		dist.set(s, Double.doubleToLongBits(0.0));
+		run(s, (int) (maxWeight / delta) + 2);
+
+		distTo = new double[G.V()];
+		for (int v = 0; v < G.V(); v++)
+			distTo[v] = Double.longBitsToDouble(dist.get(v));
+		dist = null;
+		this.pool = null;
+		edgeTo = tightTree(s);
+	}
+
+	private static double defaultDelta(CSREdgeWeightedDigraph G) {
+		double maxWeight = 0.0;
+		for (int k = 0; k < G.E(); k++)
+			maxWeight = Math.max(maxWeight, G.weight(k));
+		if (maxWeight == 0.0 || G.E() == 0) return 1.0;
+		double avgDegree = Math.max(1.0, (double) G.E() / Math.max(1, G.V()));
+		return maxWeight / avgDegree;
+	}
+
+	private double dist(int v) {
+		return Double.longBitsToDouble(dist.get(v));
+	}
+
+	// 用CAS把v的距离更新为d，只有d更小时才更新，返回是否更新
+	private boolean relax(int v, double d) {
+		while (true) {
+			long cur = dist.get(v);
+			if (d >= Double.longBitsToDouble(cur)) return false;
+			if (dist.compareAndSet(v, cur, Double.doubleToLongBits(d))) return true;
+		}
+	}
+
+	// 主循环，buckets是长度为nb的循环桶数组，所有未处理的顶点都在当前桶之后的nb-1个桶中
+	private void run(int s, int nb) {
+		IntList[] buckets = new IntList[nb];
+		for (int i = 0; i < nb; i++)
+			buckets[i] = new IntList();
+		buckets[0].add(s);
+		int pending = 1; // 所有桶中的元素数(包括已经过期的重复元素)
+
+		int[] frontierMark = new int[G.V()]; // 去重：顶点在第几轮轻边松弛中被处理过
+		int[] bucketMark = new int[G.V()];   // 去重：顶点在第几个桶中被处理过
+		int round = 0;
+		int bucketRound = 0;
+		long current = 0; // 当前桶的编号
+		while (pending > 0) {
+			// 找到下一个非空的桶
+			while (buckets[(int) (current % nb)].n == 0)
+				current++;
+			bucketRound++;
+			IntList processed = new IntList(); // 这个桶中处理过的顶点，用于松弛重边
+
+			// 轻边阶段
+			IntList bucket = buckets[(int) (current % nb)];
+			while (bucket.n > 0) {
+				buckets[(int) (current % nb)] = new IntList();
+				pending -= bucket.n;
+				round++;
+				IntList frontier = new IntList();
+				for (int i = 0; i < bucket.n; i++) {
+					int v = bucket.a[i];
+					if (frontierMark[v] == round || bucketOf(dist(v)) != current) continue;
+					frontierMark[v] = round;
+					frontier.add(v);
+					if (bucketMark[v] != bucketRound) {
+						bucketMark[v] = bucketRound;
+						processed.add(v);
+					}
+				}
+				pending += relaxAll(frontier, true, buckets);
+				bucket = buckets[(int) (current % nb)];
+			}
+
+			// 重边阶段
+			pending += relaxAll(processed, false, buckets);
+			current++;
+		}
+	}
+
+	private long bucketOf(double d) {
+		return (long) (d / delta);
+	}
+
+	// 并行松弛vertices中所有顶点的轻边(light为true)或重边，把距离变小的顶点放入对应的桶，返回放入的数目
+	private int relaxAll(IntList vertices, final boolean light, IntList[] buckets) {
+		if (vertices.n == 0) return 0;
+		IntList improved = ParallelFor.forEach(pool, vertices, SEQUENTIAL_THRESHOLD, new Body() {
+			public void apply(int v, IntList out) {
+				double dv = dist(v);
+				for (int k = G.begin(v), end = G.end(v); k < end; k++) {
+					double wt = G.weight(k);
+					if ((wt <= delta) != light) continue;
+					int w = G.to(k);
+					if (relax(w, dv + wt)) out.add(w);
+				}
+			}
+		});
+		for (int i = 0; i < improved.n; i++) {
+			int w = improved.a[i];
+			buckets[(int) (bucketOf(dist(w)) % buckets.length)].add(w);
+		}
+		return improved.n;
+	}
+
+	// 沿紧边从s广度优先搜索，得到一棵最短路径树
+	private int[] tightTree(int s) {
+		int[] edgeTo = new int[G.V()];
+		Arrays.fill(edgeTo, -1);
+		boolean[] marked = new boolean[G.V()];
+		int[] queue = new int[G.V()];
+		int head = 0, tail = 0;
+		queue[tail++] = s;
+		marked[s] = true;
+		while (head < tail) {
+			int v = queue[head++];
+			for (int k = G.begin(v), end = G.end(v); k < end; k++) {
+				int w = G.to(k);
+				if (!marked[w] && distTo[v] + G.weight(k) == distTo[w]) {
+					marked[w] = true;
+					edgeTo[w] = k;
+					queue[tail++] = w;
+				}
+			}
+		}
+		return edgeTo;
+	}
+
+	/**
+	 * 返回桶的宽度
+	 */
+	public double delta() {
+		return delta;
+	}
+
+	/**
+	 * 返回从顶点s到v的距离，如果不存在则路径为无穷大
+	 */
+	public double distTo(int v) {
+		return distTo[v];
+	}
+
+	/**
+	 * 是否存在从顶点s到v的路径
+	 */
+	public boolean hasPathTo(int v) {
+		return distTo[v] < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 从顶点s到v的路径，如果不存在则为null
+	 */
+	public Iterable<DirectedEdge> pathTo(int v) {
+		if (!hasPathTo(v)) return null;
+		Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+		for (int k = edgeTo[v]; k != -1; k = edgeTo[G.from(k)]) {
+			path.push(G.edge(k));
+		}
+		return path;
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java DeltaSteppingSP tinyEWD.txt 0
+	 * 0 to 0 (0.00)
+	 * 0 to 1 (1.05)  0->4  0.38   4->5  0.35   5->1  0.32
+	 * ...
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+		int s = Integer.parseInt(args[1]);
+
+		DeltaSteppingSP sp = new DeltaSteppingSP(G, s);
+		for (int t = 0; t < G.V(); t++) {
+			if (sp.hasPathTo(t)) {
+				StdOut.printf("%d to %d (%.2f)  ", s, t, sp.distTo(t));
+				for (DirectedEdge e : sp.pathTo(t)) {
+					StdOut.print(e + "   ");
+				}
+				StdOut.println();
+			}
+			else {
+				StdOut.printf("%d to %d         no path\n", s, t);
+			}
+		}
+	}
+
+}
@@ -26,18 +26,15 @@ public class DepthFirstDirectedPaths {
         marked = new boolean[G.V()];
         edgeTo = new int[G.V()];
         this.s = s;
-        dfs(G, s);
-    }
-    
-    // 从v开始深度优先搜索
-    private void dfs(Digraph G, int v) { 
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-            if (!marked[w]) {
+        new DepthFirstTraversal(G).dfs(s, new DepthFirstTraversal.Visitor() {
+            public void pre(int v) {
+                marked[v] = true;
+            }
+
+            public void treeEdge(int v, int w, int i) {
                 edgeTo[w] = v;
-                dfs(G, w);
             }
-        }
+        });
     }
 
 	/**
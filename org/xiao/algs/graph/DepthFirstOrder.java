@@ -12,7 +12,6 @@ import org.xiao.algs.stack.Stack;
  *
  */
 public class DepthFirstOrder {
-    private boolean[] marked;          // 顶点是否被标记
     private int[] pre;                 // pre[v]    = 顶点v的前序排序号
     private int[] post;                // post[v]   = 顶点v的后序排序号
     private Queue<Integer> preorder;   // 所有顶点的前序排序
@@ -28,9 +27,7 @@ public class DepthFirstOrder {
         post   = new int[G.V()];
         postorder = new Queue<Integer>();
         preorder  = new Queue<Integer>();
-        marked    = new boolean[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
+        run(new DepthFirstTraversal(G, true));
     }
 
     /**
@@ -41,38 +38,35 @@ public class DepthFirstOrder {
         post   = new int[G.V()];
         postorder = new Queue<Integer>();
         preorder  = new Queue<Integer>();
-        marked    = new boolean[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
+        run(new DepthFirstTraversal(G, true));
     }
 
-    // 在有向图G中从v开始计算所有顶点的前序或者后序排列
-    private void dfs(Digraph G, int v) {
-        marked[v] = true;
-        pre[v] = preCounter++;
-        preorder.enqueue(v);
-        for (int w : G.adj(v)) {
-            if (!marked[w]) {
-                dfs(G, w);
-            }
-        }
-        postorder.enqueue(v);
-        post[v] = postCounter++;
+    /**
+     * 从CSR有向图初始化
+     */
+    public DepthFirstOrder(CSRDigraph G) {
+        pre    = new int[G.V()];
+        post   = new int[G.V()];
+        postorder = new Queue<Integer>();
+        preorder  = new Queue<Integer>();
+        run(new DepthFirstTraversal(G));
     }
 
-    // 在加权有向图G中从v开始计算所有顶点的前序或者后序排列
-    private void dfs(EdgeWeightedDigraph G, int v) {
-        marked[v] = true;
-        pre[v] = preCounter++;
-        preorder.enqueue(v);
-        for (DirectedEdge e : G.adj(v)) {
-            int w = e.to();
-            if (!marked[w]) {
-                dfs(G, w);
+    // 从每个未访问的顶点开始深度优先搜索，计算所有顶点的前序和后序排列
+    private void run(DepthFirstTraversal dfs) {
+        DepthFirstTraversal.Visitor order = new DepthFirstTraversal.Visitor() {
+            public void pre(int v) {
+                pre[v] = preCounter++;
+                preorder.enqueue(v);
             }
-        }
-        postorder.enqueue(v);
-        post[v] = postCounter++;
+
+            public void post(int v) {
+                postorder.enqueue(v);
+                post[v] = postCounter++;
+            }
+        };
+        for (int v = 0; v < dfs.V(); v++)
+            dfs.dfs(v, order);
     }
 
     /**
@@ -27,18 +27,15 @@ public class DepthFirstPaths {
 		this.s = s;
 		edgeTo = new int[G.V()];
 		marked = new boolean[G.V()];
-		dfs(G, s);
-	}
+		new DepthFirstTraversal(G).dfs(s, new DepthFirstTraversal.Visitor() {
+			public void pre(int v) {
+				marked[v] = true;
+			}
 
-	// 从v开始深度优先搜索
-	private void dfs(Graph G, int v) {
-		marked[v] = true;
-		for (int w : G.adj(v)) {
-			if (!marked[w]) {
+			public void treeEdge(int v, int w, int i) {
 				edgeTo[w] = v;
-				dfs(G, w);
 			}
-		}
+		});
 	}
 
 	/**
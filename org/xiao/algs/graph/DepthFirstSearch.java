@@ -25,18 +25,13 @@ public class DepthFirstSearch {
 	 */
 	public DepthFirstSearch(Graph G, int s) {
 		marked = new boolean[G.V()];
-		dfs(G, s);
-	}
-
-	// 从v开始深度优先搜索
-	private void dfs(Graph G, int v) {
-		count++;
-		marked[v] = true;
-		for (int w : G.adj(v)) {
-			if (!marked[w]) {
-				dfs(G, w);
+		DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+		dfs.dfs(s, new DepthFirstTraversal.Visitor() {
+			public void pre(int v) {
+				marked[v] = true;
 			}
-		}
+		});
+		count = dfs.count();
 	}
 
 	/**
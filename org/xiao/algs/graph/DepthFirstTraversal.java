@@ -0,0 +1,326 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+
+/***
+ *
+ * 非递归的深度优先搜索引擎
+ *
+ * DepthFirstSearch、DepthFirstPaths、DirectedDFS、DepthFirstOrder、Cycle、DirectedCycle、
+ * EdgeWeightedDirectedCycle等都使用它，不再每个顶点递归一次，很长的链也不会StackOverflowError，不需要-Xss
+ *
+ * 用显式的int栈代替递归调用栈，栈中每个顶点的pos保存它的邻接表遍历到的位置，所以访问顺序和递归实现完全相同
+ *
+ * 默认在顶点第一次被访问时才把它的邻接表追加到一个可增长的int数组中，并记录起止位置，
+ * 所以只访问一小部分顶点的搜索(DirectedDFS、DepthFirstPaths等)的时间和内存只和访问到的部分成正比；
+ * 要遍历所有顶点时(DepthFirstOrder、CC、环检测、KosarajuSharirSCC)构造时传入all = true，
+ * 按顶点顺序一次性把整个图的邻接表复制为CSR格式，顺序读取邻接表更快；CSR图直接使用原数组，不复制
+ *
+ * 搜索过程通过Visitor回调：第一次访问顶点(pre)、沿树边前进(treeEdge)、
+ * 遇到指向栈中顶点的边(backEdge)、顶点的邻接表遍历完(post)，Visitor.done()返回true时立即停止
+ *
+ * 对于无向图，每条边在两个方向上各出现一次，指向父顶点的那条边也会作为backEdge报告
+ *
+ * @author XiaoJian
+ *
+ */
+public class DepthFirstTraversal {
+	private static final byte WHITE = 0, GRAY = 1, BLACK = 2; // 未访问、在栈中、已完成
+	private static final int INIT_CAPACITY = 16; // 邻接表缓冲区和栈的初始大小
+
+	private final int V; // 顶点数目
+	private final Graph graph; // 按需读取邻接表的无向图，其他情况为null
+	private final Digraph digraph; // 按需读取邻接表的有向图，其他情况为null
+	private final EdgeWeightedDigraph weighted; // 按需读取邻接表的加权有向图，其他情况为null
+	private int[] offsets; // 整个图已经是CSR格式时offsets[v] = 顶点v的邻接表在targets中的起始位置，否则为null
+	private int[] targets; // 邻接表
+	private DirectedEdge[] edges; // 加权有向图中targets[i]对应的边，其他图为null
+	private int size; // targets中已经使用的长度
+	private final byte[] state; // 顶点的状态
+	private int[] stack = new int[INIT_CAPACITY]; // 代替递归的调用栈
+	private int[] pos = new int[INIT_CAPACITY]; // pos[k] = 栈中第k个顶点的邻接表下一个要检查的位置
+	private int[] end = new int[INIT_CAPACITY]; // end[k] = 栈中第k个顶点的邻接表在targets中的结束位置
+	private int count; // 已经访问的顶点数目
+
+	/**
+	 * 遍历无向图，按需读取邻接表
+	 */
+	public DepthFirstTraversal(Graph G) {
+		this(G, false);
+	}
+
+	/**
+	 * 遍历无向图，all为true时预先复制整个图的邻接表
+	 */
+	public DepthFirstTraversal(Graph G, boolean all) {
+		this(G.V(), G, null, null, all ? 2 * G.E() : -1);
+	}
+
+	/**
+	 * 遍历有向图，按需读取邻接表
+	 */
+	public DepthFirstTraversal(Digraph G) {
+		this(G, false);
+	}
+
+	/**
+	 * 遍历有向图，all为true时预先复制整个图的邻接表
+	 */
+	public DepthFirstTraversal(Digraph G, boolean all) {
+		this(G.V(), null, G, null, all ? G.E() : -1);
+	}
+
+	/**
+	 * 遍历加权有向图，按需读取邻接表，edge(i)返回第i条边
+	 */
+	public DepthFirstTraversal(EdgeWeightedDigraph G) {
+		this(G, false);
+	}
+
+	/**
+	 * 遍历加权有向图，all为true时预先复制整个图的邻接表，edge(i)返回第i条边
+	 */
+	public DepthFirstTraversal(EdgeWeightedDigraph G, boolean all) {
+		this(G.V(), null, null, G, all ? G.E() : -1);
+	}
+
+	/**
+	 * 遍历CSR有向图，直接使用G的邻接数组，边的下标和G相同
+	 */
+	public DepthFirstTraversal(CSRDigraph G) {
+		this(G.V(), G.offsets(), G.targets());
+	}
+
+	/**
+	 * 遍历CSR无向图，直接使用G的邻接数组，边的下标和G相同
+	 */
+	public DepthFirstTraversal(CSRGraph G) {
+		this(G.V(), G.offsets(), G.targets());
+	}
+
+	// 遍历邻接表实现的图，E >= 0时(E为邻接表的总长度)预先按顶点顺序复制所有邻接表
+	private DepthFirstTraversal(int V, Graph graph, Digraph digraph, EdgeWeightedDigraph weighted, int E) {
+		this.V = V;
+		this.graph = graph;
+		this.digraph = digraph;
+		this.weighted = weighted;
+		int capacity = E >= 0 ? E : INIT_CAPACITY;
+		targets = new int[capacity];
+		if (weighted != null) edges = new DirectedEdge[capacity];
+		state = new byte[V];
+		if (E >= 0) {
+			int[] offsets = new int[V + 1];
+			for (int v = 0; v < V; v++) {
+				offsets[v] = size;
+				load(v);
+			}
+			offsets[V] = size;
+			this.offsets = offsets;
+		}
+	}
+
+	// 遍历CSR图
+	private DepthFirstTraversal(int V, int[] offsets, int[] targets) {
+		this.V = V;
+		this.graph = null;
+		this.digraph = null;
+		this.weighted = null;
+		this.offsets = offsets;
+		this.targets = targets;
+		state = new byte[V];
+	}
+
+	/**
+	 * 搜索过程中的回调，默认什么都不做
+	 */
+	public abstract static class Visitor {
+		/**
+		 * 第一次访问顶点v
+		 */
+		public void pre(int v) { }
+
+		/**
+		 * 沿第i条边v->w访问未访问过的顶点w，在pre(w)之前调用
+		 */
+		public void treeEdge(int v, int w, int i) { }
+
+		/**
+		 * 第i条边v->w指向仍在栈中的顶点w(w是v的祖先或者v本身)
+		 */
+		public void backEdge(int v, int w, int i) { }
+
+		/**
+		 * 顶点v的邻接表已经遍历完
+		 */
+		public void post(int v) { }
+
+		/**
+		 * 返回true时停止搜索
+		 */
+		public boolean done() {
+			return false;
+		}
+	}
+
+	/**
+	 * 从s开始深度优先搜索所有未访问过的顶点，s已经访问过时什么都不做
+	 */
+	public void dfs(int s, Visitor visitor) {
+		validateVertex(s);
+		if (state[s] != WHITE) return;
+		int top = 0;
+		push(top++, s, visitor);
+		while (top > 0) {
+			if (visitor.done()) {
+				// 提前结束，栈中的顶点视为已完成
+				while (top > 0) state[stack[--top]] = BLACK;
+				return;
+			}
+			int k = top - 1;
+			int v = stack[k];
+			if (pos[k] < end[k]) {
+				int i = pos[k]++;
+				int w = targets[i];
+				if (state[w] == WHITE) {
+					visitor.treeEdge(v, w, i);
+					push(top++, w, visitor);
+				}
+				else if (state[w] == GRAY) {
+					visitor.backEdge(v, w, i);
+				}
+			}
+			else {
+				top--;
+				state[v] = BLACK;
+				visitor.post(v);
+			}
+		}
+	}
+
+	// 第一次访问顶点v，放入栈中第k个位置
+	private void push(int k, int v, Visitor visitor) {
+		if (k == stack.length) {
+			stack = Arrays.copyOf(stack, 2 * k);
+			pos = Arrays.copyOf(pos, 2 * k);
+			end = Arrays.copyOf(end, 2 * k);
+		}
+		state[v] = GRAY;
+		stack[k] = v;
+		if (offsets != null) {
+			pos[k] = offsets[v];
+			end[k] = offsets[v + 1];
+		}
+		else {
+			pos[k] = size;
+			load(v);
+			end[k] = size;
+		}
+		count++;
+		visitor.pre(v);
+	}
+
+	// 把顶点v的邻接表追加到targets的末尾
+	private void load(int v) {
+		if (graph != null) {
+			for (int w : graph.adj(v)) {
+				append(w);
+			}
+		}
+		else if (digraph != null) {
+			for (int w : digraph.adj(v)) {
+				append(w);
+			}
+		}
+		else {
+			for (DirectedEdge e : weighted.adj(v)) {
+				append(e.to());
+				edges[size - 1] = e;
+			}
+		}
+	}
+
+	private void append(int w) {
+		if (size == targets.length) {
+			targets = Arrays.copyOf(targets, 2 * size);
+			if (edges != null) edges = Arrays.copyOf(edges, 2 * size);
+		}
+		targets[size++] = w;
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	/**
+	 * v是否已经访问过
+	 */
+	public boolean visited(int v) {
+		return state[v] != WHITE;
+	}
+
+	/**
+	 * 已经访问过的顶点数目
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * 顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 加权有向图中的第i条边
+	 */
+	public DirectedEdge edge(int i) {
+		if (edges == null) throw new UnsupportedOperationException("not an edge-weighted digraph");
+		return edges[i];
+	}
+
+	/**
+	 * 测试，打印有向图的前序和后序，然后遍历一条很长的路径(不需要-Xss)
+	 *
+	 * java DepthFirstTraversal tinyDG.txt
+	 * pre:  0 5 4 3 2 1 6 9 11 12 10 8 7
+	 * post: 2 3 4 5 1 0 12 11 10 9 8 6 7
+	 * 1000000 vertices on a path visited
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		Digraph G = new Digraph(in);
+		DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+		final StringBuilder pre = new StringBuilder("pre: ");
+		final StringBuilder post = new StringBuilder("post:");
+		Visitor visitor = new Visitor() {
+			public void pre(int v) {
+				pre.append(' ').append(v);
+			}
+
+			public void post(int v) {
+				post.append(' ').append(v);
+			}
+		};
+		for (int v = 0; v < G.V(); v++) {
+			dfs.dfs(v, visitor);
+		}
+		StdOut.println(pre);
+		StdOut.println(post);
+
+		// 一条很长的路径
+		int V = 1000000;
+		Digraph path = new Digraph(V);
+		for (int v = 0; v + 1 < V; v++) {
+			path.addEdge(v, v + 1);
+		}
+		DepthFirstTraversal longDfs = new DepthFirstTraversal(path);
+		longDfs.dfs(0, new Visitor() { });
+		StdOut.println(longDfs.count() + " vertices on a path visited");
+	}
+
+}
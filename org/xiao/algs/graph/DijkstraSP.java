@@ -2,7 +2,7 @@ package org.xiao.algs.graph;
 
 import org.xiao.algs.io.In;
 import org.xiao.algs.io.StdOut;
-import org.xiao.algs.queue.IndexMinPQ;
+import org.xiao.algs.queue.IndexMinDoublePQ;
 import org.xiao.algs.stack.Stack;
 /***
  * 
@@ -18,46 +18,86 @@ import org.xiao.algs.stack.Stack;
  *
  */
 public class DijkstraSP {
-    private double[] distTo;          // distTo[v] = s到v的最短距离，不存在则为无穷大
-    private DirectedEdge[] edgeTo;    // edgeTo[v] = s到v的最短路径上的最后一条边
-    private IndexMinPQ<Double> pq;    // 有向队列
+    private final SearchWorkspace ws;  // 保存distTo、edgeTo和优先队列的工作区
+    private final int generation;      // 本次查询在工作区中的代数
 
     /**
      * 初始化
      */
     public DijkstraSP(EdgeWeightedDigraph G, int s) {
+        validateVertex(s, G.V());
         for (DirectedEdge e : G.edges()) {
             if (e.weight() < 0)
                 throw new IllegalArgumentException("edge " + e + " has negative weight");
         }
+        ws = new SearchWorkspace(G.V());
+        generation = ws.reset(G.V());
+        dijkstra(G, s, -1);
 
-        distTo = new double[G.V()];
-        edgeTo = new DirectedEdge[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            distTo[v] = Double.POSITIVE_INFINITY;
-        distTo[s] = 0.0;
+        // 调试
+        assert check(G, s);
+    }
+
+    /**
+     * 点对点初始化，终点t出队(最短路径确定)后立即停止
+     * 
+     * 只有t和在t之前出队的顶点的distTo()和pathTo()是最终结果，其余顶点的结果只是上界
+     */
+    public DijkstraSP(EdgeWeightedDigraph G, int s, int t) {
+        this(G, s, t, new SearchWorkspace(G.V()));
+    }
+
+    /**
+     * 使用工作区ws初始化，结果在ws被下一次查询使用之前有效
+     */
+    public DijkstraSP(EdgeWeightedDigraph G, int s, SearchWorkspace ws) {
+        validateVertex(s, G.V());
+        this.ws = ws;
+        generation = ws.reset(G.V());
+        dijkstra(G, s, -1);
+    }
 
-        // 松弛技术
-        pq = new IndexMinPQ<Double>(G.V());
-        pq.insert(s, distTo[s]);
+    /**
+     * 使用工作区ws进行点对点初始化，结果在ws被下一次查询使用之前有效
+     */
+    public DijkstraSP(EdgeWeightedDigraph G, int s, int t, SearchWorkspace ws) {
+        validateVertex(s, G.V());
+        validateVertex(t, G.V());
+        this.ws = ws;
+        generation = ws.reset(G.V());
+        dijkstra(G, s, t);
+    }
+
+    // 工作区可能比图大，所以要在使用工作区之前检查顶点
+    private static void validateVertex(int v, int V) {
+        if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // 松弛技术，t出队时提前结束(t为-1时计算所有顶点)
+    // 只检查访问到的边的权重，避免每次查询都遍历整幅图
+    private void dijkstra(EdgeWeightedDigraph G, int s, int t) {
+        IndexMinDoublePQ pq = ws.pq();
+        ws.setDist(s, 0.0, null);
+        pq.insert(s, 0.0);
         while (!pq.isEmpty()) {
             int v = pq.delMin();
-            for (DirectedEdge e : G.adj(v))
-                relax(e);
+            if (v == t) break;
+            for (DirectedEdge e : G.adj(v)) {
+                if (e.weight() < 0)
+                    throw new IllegalArgumentException("edge " + e + " has negative weight");
+                relax(e, pq);
+            }
         }
-
-        // 调试
-        assert check(G, s);
     }
 
     // 松弛边
-    private void relax(DirectedEdge e) {
+    private void relax(DirectedEdge e, IndexMinDoublePQ pq) {
         int v = e.from(), w = e.to();
-        if (distTo[w] > distTo[v] + e.weight()) {
-            distTo[w] = distTo[v] + e.weight();
-            edgeTo[w] = e;
-            if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
-            else                pq.insert(w, distTo[w]);
+        double dist = ws.dist(v) + e.weight();
+        if (ws.dist(w) > dist) {
+            ws.setDist(w, dist, e);
+            if (pq.contains(w)) pq.decreaseKey(w, dist);
+            else                pq.insert(w, dist);
         }
     }
 
@@ -65,14 +105,15 @@ public class DijkstraSP {
      * 返回从顶点s到v的距离，如果不存在则路径为无穷大
      */
     public double distTo(int v) {
-        return distTo[v];
+        ws.checkGeneration(generation);
+        return ws.dist(v);
     }
 
     /**
      * 是否存在从顶点s到v的路径
      */
     public boolean hasPathTo(int v) {
-        return distTo[v] < Double.POSITIVE_INFINITY;
+        return distTo(v) < Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -81,7 +122,7 @@ public class DijkstraSP {
     public Iterable<DirectedEdge> pathTo(int v) {
         if (!hasPathTo(v)) return null;
         Stack<DirectedEdge> path = new Stack<DirectedEdge>();
-        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+        for (DirectedEdge e = ws.edge(v); e != null; e = ws.edge(e.from())) {
             path.push(e);
         }
         return path;
@@ -100,13 +141,13 @@ public class DijkstraSP {
         }
 
         // check that distTo[v] and edgeTo[v] are consistent
-        if (distTo[s] != 0.0 || edgeTo[s] != null) {
+        if (ws.dist(s) != 0.0 || ws.edge(s) != null) {
             System.err.println("distTo[s] and edgeTo[s] inconsistent");
             return false;
         }
         for (int v = 0; v < G.V(); v++) {
             if (v == s) continue;
-            if (edgeTo[v] == null && distTo[v] != Double.POSITIVE_INFINITY) {
+            if (ws.edge(v) == null && ws.dist(v) != Double.POSITIVE_INFINITY) {
                 System.err.println("distTo[] and edgeTo[] inconsistent");
                 return false;
             }
@@ -116,7 +157,7 @@ public class DijkstraSP {
         for (int v = 0; v < G.V(); v++) {
             for (DirectedEdge e : G.adj(v)) {
                 int w = e.to();
-                if (distTo[v] + e.weight() < distTo[w]) {
+                if (ws.dist(v) + e.weight() < ws.dist(w)) {
                     System.err.println("edge " + e + " not relaxed");
                     return false;
                 }
@@ -125,11 +166,11 @@ public class DijkstraSP {
 
         // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
         for (int w = 0; w < G.V(); w++) {
-            if (edgeTo[w] == null) continue;
-            DirectedEdge e = edgeTo[w];
+            if (ws.edge(w) == null) continue;
+            DirectedEdge e = ws.edge(w);
             int v = e.from();
             if (w != e.to()) return false;
-            if (distTo[v] + e.weight() != distTo[w]) {
+            if (ws.dist(v) + e.weight() != ws.dist(w)) {
                 System.err.println("edge " + e + " on shortest path not tight");
                 return false;
             }
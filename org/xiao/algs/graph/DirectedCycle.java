@@ -11,39 +11,22 @@ import org.xiao.algs.stack.Stack;
  *
  */
 public class DirectedCycle {
-    private boolean[] marked;        // 顶点是否被标记
     private int[] edgeTo;            // 从起点到一个顶点的已知路径上的最后一个顶点
-    private boolean[] onStack;       // 有向环中的所有顶点
-    private Stack<Integer> cycle;    // 递归调用的栈上的所有顶点
+    private Stack<Integer> cycle;    // 深度优先搜索的栈上的所有顶点
 
     /**
      * 初始化
      */
     public DirectedCycle(Digraph G) {
-        marked  = new boolean[G.V()];
-        onStack = new boolean[G.V()];
         edgeTo  = new int[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
-    }
-
-    // 深度优先搜索
-    private void dfs(Digraph G, int v) {
-        onStack[v] = true;
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-
-            // short circuit if directed cycle found
-            if (cycle != null) return;
-
-            //found new vertex, so recur
-            else if (!marked[w]) {
+        DepthFirstTraversal dfs = new DepthFirstTraversal(G, true);
+        DepthFirstTraversal.Visitor finder = new DepthFirstTraversal.Visitor() {
+            public void treeEdge(int v, int w, int i) {
                 edgeTo[w] = v;
-                dfs(G, w);
             }
 
             // trace back directed cycle
-            else if (onStack[w]) {
+            public void backEdge(int v, int w, int i) {
                 cycle = new Stack<Integer>();
                 for (int x = v; x != w; x = edgeTo[x]) {
                     cycle.push(x);
@@ -51,9 +34,14 @@ public class DirectedCycle {
                 cycle.push(w);
                 cycle.push(v);
             }
-        }
 
-        onStack[v] = false;
+            // short circuit if directed cycle found
+            public boolean done() {
+                return cycle != null;
+            }
+        };
+        for (int v = 0; v < G.V() && cycle == null; v++)
+            dfs.dfs(v, finder);
     }
 
     /**
@@ -22,7 +22,9 @@ public class DirectedDFS {
      */
     public DirectedDFS(Digraph G, int s) {
         marked = new boolean[G.V()];
-        dfs(G, s);
+        DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+        dfs.dfs(s, new Marker());
+        count = dfs.count();
     }
 
     /**
@@ -30,17 +32,18 @@ public class DirectedDFS {
      */
     public DirectedDFS(Digraph G, Iterable<Integer> sources) {
         marked = new boolean[G.V()];
+        DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+        Marker marker = new Marker();
         for (int v : sources) {
-            if (!marked[v]) dfs(G, v);
+            dfs.dfs(v, marker);
         }
+        count = dfs.count();
     }
 
-    //深度优先搜索
-    private void dfs(Digraph G, int v) { 
-        count++;
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-            if (!marked[w]) dfs(G, w);
+    // 标记访问到的顶点
+    private class Marker extends DepthFirstTraversal.Visitor {
+        public void pre(int v) {
+            marked[v] = true;
         }
     }
 
@@ -0,0 +1,319 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.stack.Stack;
+
+/***
+ *
+ * 动态拓扑排序(Pearce-Kelly算法)
+ *
+ * Topological每次都要重新检测环并计算逆后序，逐条添加边时代价是O(E(V+E))
+ *
+ * 这里维护每个顶点在拓扑排序中的位置ord[v]，添加边v->w时：
+ * 若ord[v] < ord[w]，顺序仍然有效，什么都不用做；
+ * 否则只在位置ord[w] ~ ord[v]之间调整：从w正向搜索位置不超过ord[v]的顶点(遇到v说明会形成环)，
+ * 从v反向搜索位置不小于ord[w]的顶点，把反向搜索到的顶点整体移到正向搜索到的顶点之前，只使用它们原来占用的位置
+ *
+ * 会形成环的边不会被加入，addEdge返回false，cycle()返回这个环，拓扑排序仍然有效
+ *
+ * 搜索使用显式的int栈，不递归
+ *
+ * @author XiaoJian
+ *
+ */
+public class DynamicTopological {
+	private final int V; // 顶点数目
+	private int E; // 边的数目
+	private int[][] out, in; // 出边和入边的邻接表
+	private int[] outdegree, indegree;
+	private final int[] ord; // ord[v] = 顶点v在拓扑排序中的位置
+	private final int[] vertexAt; // vertexAt[i] = 拓扑排序中第i个顶点
+	private Stack<Integer> cycle; // 最近一次被拒绝的边形成的环
+
+	// 搜索时使用
+	private final int[] mark; // mark[v] == stamp时v已经被本次搜索访问
+	private int stamp;
+	private final int[] parent; // 正向搜索树中v的父顶点
+	private final int[] stack;
+	private int[] forward, backward; // 本次正向、反向搜索访问到的顶点
+	private int nf, nb;
+
+	/**
+	 * 用V个顶点初始化(不包含边)，初始的拓扑排序为0, 1, ..., V-1
+	 */
+	public DynamicTopological(int V) {
+		if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
+		this.V = V;
+		out = new int[V][];
+		in = new int[V][];
+		outdegree = new int[V];
+		indegree = new int[V];
+		ord = new int[V];
+		vertexAt = new int[V];
+		for (int v = 0; v < V; v++) {
+			ord[v] = v;
+			vertexAt[v] = v;
+		}
+		mark = new int[V];
+		parent = new int[V];
+		stack = new int[V];
+		forward = new int[16];
+		backward = new int[16];
+	}
+
+	/**
+	 * 从有向无环图G初始化，G中有环时抛出IllegalArgumentException
+	 */
+	public DynamicTopological(Digraph G) {
+		this(G.V());
+		Topological topological = new Topological(G);
+		if (!topological.hasOrder()) throw new IllegalArgumentException("Digraph has a directed cycle");
+		int i = 0;
+		for (int v : topological.order()) {
+			ord[v] = i;
+			vertexAt[i++] = v;
+		}
+		for (int v = 0; v < G.V(); v++) {
+			for (int w : G.adj(v)) {
+				link(v, w);
+			}
+		}
+		assert check();
+	}
+
+	// 把边v->w加入邻接表
+	private void link(int v, int w) {
+		if (out[v] == null) out[v] = new int[2];
+		else if (outdegree[v] == out[v].length) out[v] = Arrays.copyOf(out[v], 2 * outdegree[v]);
+		out[v][outdegree[v]++] = w;
+		if (in[w] == null) in[w] = new int[2];
+		else if (indegree[w] == in[w].length) in[w] = Arrays.copyOf(in[w], 2 * indegree[w]);
+		in[w][indegree[w]++] = v;
+		E++;
+	}
+
+	/**
+	 * 添加边v->w并更新拓扑排序；如果这条边会形成有向环则不添加并返回false，环可以通过cycle()得到
+	 */
+	public boolean addEdge(int v, int w) {
+		validateVertex(v);
+		validateVertex(w);
+		if (v == w) {
+			cycle = new Stack<Integer>();
+			cycle.push(v);
+			cycle.push(v);
+			return false;
+		}
+		int lb = ord[w], ub = ord[v];
+		if (lb < ub) {
+			nextStamp();
+			nf = 0;
+			if (!searchForward(w, v, ub)) {
+				traceCycle(v, w);
+				return false;
+			}
+			nb = 0;
+			searchBackward(v, lb);
+			reorder();
+		}
+		link(v, w);
+		cycle = null;
+		assert check();
+		return true;
+	}
+
+	private void nextStamp() {
+		if (stamp == Integer.MAX_VALUE) {
+			Arrays.fill(mark, 0);
+			stamp = 0;
+		}
+		stamp++;
+	}
+
+	// 从w沿出边搜索位置不超过ub的顶点，遇到target时返回false
+	private boolean searchForward(int w, int target, int ub) {
+		int top = 0;
+		mark[w] = stamp;
+		parent[w] = -1;
+		stack[top++] = w;
+		forward = add(forward, nf++, w);
+		while (top > 0) {
+			int x = stack[--top];
+			for (int i = 0; i < outdegree[x]; i++) {
+				int y = out[x][i];
+				if (y == target) {
+					parent[y] = x;
+					return false;
+				}
+				if (mark[y] != stamp && ord[y] < ub) {
+					mark[y] = stamp;
+					parent[y] = x;
+					stack[top++] = y;
+					forward = add(forward, nf++, y);
+				}
+			}
+		}
+		return true;
+	}
+
+	// 从v沿入边搜索位置不小于lb的顶点，和正向搜索的顶点不相交(否则已经形成环)
+	private void searchBackward(int v, int lb) {
+		int top = 0;
+		mark[v] = stamp;
+		stack[top++] = v;
+		backward = add(backward, nb++, v);
+		while (top > 0) {
+			int x = stack[--top];
+			for (int i = 0; i < indegree[x]; i++) {
+				int y = in[x][i];
+				if (mark[y] != stamp && ord[y] > lb) {
+					mark[y] = stamp;
+					stack[top++] = y;
+					backward = add(backward, nb++, y);
+				}
+			}
+		}
+	}
+
+	private static int[] add(int[] a, int i, int x) {
+		if (i == a.length) a = Arrays.copyOf(a, 2 * i);
+		a[i] = x;
+		return a;
+	}
+
+	// 反向搜索到的顶点按原来的相对顺序排在前面，正向搜索到的顶点排在后面，只使用这些顶点原来占用的位置
+	private void reorder() {
+		sortByOrd(backward, nb);
+		sortByOrd(forward, nf);
+		int[] slots = new int[nb + nf];
+		for (int i = 0; i < nb; i++) slots[i] = ord[backward[i]];
+		for (int i = 0; i < nf; i++) slots[nb + i] = ord[forward[i]];
+		Arrays.sort(slots);
+		for (int i = 0; i < nb; i++) place(backward[i], slots[i]);
+		for (int i = 0; i < nf; i++) place(forward[i], slots[nb + i]);
+	}
+
+	private void place(int v, int i) {
+		ord[v] = i;
+		vertexAt[i] = v;
+	}
+
+	// 按位置排序a[0 ~ n-1]：把(位置, 顶点)编码为long后排序
+	private void sortByOrd(int[] a, int n) {
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) keys[i] = ((long) ord[a[i]] << 32) | a[i];
+		Arrays.sort(keys);
+		for (int i = 0; i < n; i++) a[i] = (int) keys[i];
+	}
+
+	// 正向搜索从w到达了v，环为v->w->...->v
+	private void traceCycle(int v, int w) {
+		cycle = new Stack<Integer>();
+		cycle.push(v);
+		for (int x = parent[v]; x != w; x = parent[x]) {
+			cycle.push(x);
+		}
+		cycle.push(w);
+		cycle.push(v);
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	/**
+	 * 返回顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 返回边的数目
+	 */
+	public int E() {
+		return E;
+	}
+
+	/**
+	 * 顶点v在拓扑排序中的位置(0 ~ V-1)
+	 */
+	public int rank(int v) {
+		validateVertex(v);
+		return ord[v];
+	}
+
+	/**
+	 * 返回拓扑有序的所有顶点
+	 */
+	public Iterable<Integer> order() {
+		Integer[] order = new Integer[V];
+		for (int i = 0; i < V; i++) order[i] = vertexAt[i];
+		return Arrays.asList(order);
+	}
+
+	/**
+	 * 最近一次addEdge被拒绝时形成的环(起点和终点相同)，最近一次成功添加时为null
+	 */
+	public Iterable<Integer> cycle() {
+		return cycle;
+	}
+
+	// 调试
+	private boolean check() {
+		for (int i = 0; i < V; i++) {
+			if (ord[vertexAt[i]] != i) {
+				System.err.println("ord and vertexAt inconsistent");
+				return false;
+			}
+		}
+		for (int v = 0; v < V; v++) {
+			for (int i = 0; i < outdegree[v]; i++) {
+				int w = out[v][i];
+				if (ord[v] >= ord[w]) {
+					System.err.println("edge " + v + "->" + w + " violates topological order");
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 测试，逐条添加文件中的边，打印会形成环而被拒绝的边和最终的拓扑排序
+	 *
+	 * java DynamicTopological tinyDG.txt
+	 *  rejected 3->2: 3 2 3
+	 *  rejected 9->11: 9 11 12 9
+	 *  rejected 10->12: 10 12 9 10
+	 *  rejected 8->6: 8 6 8
+	 *  rejected 5->4: 5 4 3 5
+	 *  order: 7 11 6 4 2 0 3 5 8 1 12 9 10
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		int V = in.readInt();
+		int E = in.readInt();
+		DynamicTopological topological = new DynamicTopological(V);
+		for (int i = 0; i < E; i++) {
+			int v = in.readInt();
+			int w = in.readInt();
+			if (!topological.addEdge(v, w)) {
+				StdOut.print("rejected " + v + "->" + w + ": ");
+				for (int x : topological.cycle()) {
+					StdOut.print(x + " ");
+				}
+				StdOut.println();
+			}
+		}
+		StdOut.print("order: ");
+		for (int v : topological.order()) {
+			StdOut.print(v + " ");
+		}
+		StdOut.println();
+	}
+
+}
@@ -135,6 +135,19 @@ public class EdgeWeightedDigraph {
         return adj[v].size();
     }
 
+    /**
+     * 返回该图的反向图，边v->w在反向图中为w->v，权重不变
+     */
+    public EdgeWeightedDigraph reverse() {
+        EdgeWeightedDigraph R = new EdgeWeightedDigraph(V);
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : adj(v)) {
+                R.addEdge(new DirectedEdge(e.to(), e.from(), e.weight()));
+            }
+        }
+        return R;
+    }
+
     /**
      * 字符串表示
      */
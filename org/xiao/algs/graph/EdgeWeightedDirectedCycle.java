@@ -11,43 +11,23 @@ import org.xiao.algs.util.StdRandom;
  *
  */
 public class EdgeWeightedDirectedCycle {
-    private boolean[] marked;             // 顶点是否被标记
     private DirectedEdge[] edgeTo;        // 从起点到一个顶点的已知路径上的最后一条边
-    private boolean[] onStack;            // 有向环中的所有顶点
-    private Stack<DirectedEdge> cycle;    // 递归调用的栈上的所有边
+    private Stack<DirectedEdge> cycle;    // 深度优先搜索的栈上的所有边
 
     /**
      * 初始化
      */
     public EdgeWeightedDirectedCycle(EdgeWeightedDigraph G) {
-        marked  = new boolean[G.V()];
-        onStack = new boolean[G.V()];
         edgeTo  = new DirectedEdge[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
-
-        // check that digraph has a cycle
-        assert check(G);
-    }
-
-    // 深度优先搜索
-    private void dfs(EdgeWeightedDigraph G, int v) {
-        onStack[v] = true;
-        marked[v] = true;
-        for (DirectedEdge e : G.adj(v)) {
-            int w = e.to();
-
-            // short circuit if directed cycle found
-            if (cycle != null) return;
-
-            //found new vertex, so recur
-            else if (!marked[w]) {
-                edgeTo[w] = e;
-                dfs(G, w);
+        final DepthFirstTraversal dfs = new DepthFirstTraversal(G, true);
+        DepthFirstTraversal.Visitor finder = new DepthFirstTraversal.Visitor() {
+            public void treeEdge(int v, int w, int i) {
+                edgeTo[w] = dfs.edge(i);
             }
 
             // trace back directed cycle
-            else if (onStack[w]) {
+            public void backEdge(int v, int w, int i) {
+                DirectedEdge e = dfs.edge(i);
                 cycle = new Stack<DirectedEdge>();
                 while (e.from() != w) {
                     cycle.push(e);
@@ -55,9 +35,17 @@ public class EdgeWeightedDirectedCycle {
                 }
                 cycle.push(e);
             }
-        }
 
-        onStack[v] = false;
+            // short circuit if directed cycle found
+            public boolean done() {
+                return cycle != null;
+            }
+        };
+        for (int v = 0; v < G.V() && cycle == null; v++)
+            dfs.dfs(v, finder);
+
+        // check that digraph has a cycle
+        assert check(G);
     }
 
     /**
@@ -14,7 +14,6 @@ import org.xiao.algs.queue.Queue;
  *
  */
 public class KosarajuSharirSCC {
-    private boolean[] marked;     // 已经访问过的顶点
     private int[] id;             // 强连通分量的标记符
     private int count;            // 强连通分量的数量
 
@@ -27,23 +26,37 @@ public class KosarajuSharirSCC {
         DepthFirstOrder dfs = new DepthFirstOrder(G.reverse());
 
         // 得到深度优先搜索的逆后序
-        marked = new boolean[G.V()];
         id = new int[G.V()];
-        for (int v : dfs.reversePost()) {
-            if (!marked[v]) {
-                dfs(G, v);
-                count++;
-            }
-        }
+        run(new DepthFirstTraversal(G, true), dfs.reversePost());
 
     }
 
-    // 深度优先搜索
-    private void dfs(Digraph G, int v) { 
-        marked[v] = true;
-        id[v] = count;
-        for (int w : G.adj(v)) {
-            if (!marked[w]) dfs(G, w);
+    /**
+     * 在CSR有向图上预处理，邻接表遍历不装箱
+     */
+    public KosarajuSharirSCC(CSRDigraph G) {
+
+        // 在反向图中进行深度优先搜索
+        DepthFirstOrder dfs = new DepthFirstOrder(G.reverse());
+
+        // 得到深度优先搜索的逆后序
+        id = new int[G.V()];
+        run(new DepthFirstTraversal(G), dfs.reversePost());
+
+    }
+
+    // 按order的顺序从每个未访问的顶点开始深度优先搜索，每次搜索访问到的顶点是一个强连通分量
+    private void run(DepthFirstTraversal search, Iterable<Integer> order) {
+        DepthFirstTraversal.Visitor label = new DepthFirstTraversal.Visitor() {
+            public void pre(int v) {
+                id[v] = count;
+            }
+        };
+        for (int v : order) {
+            if (!search.visited(v)) {
+                search.dfs(v, label);
+                count++;
+            }
         }
     }
 
@@ -93,7 +106,7 @@ public class KosarajuSharirSCC {
 	 *  0 
 	 *  10 
 	 *
-	 *  java -Xss50m KosarajuSharirSCC mediumDG.txt 
+	 *  java KosarajuSharirSCC largeDG.txt 
 	 *  25 components
      */
     @SuppressWarnings("unchecked")
@@ -0,0 +1,84 @@
+package org.xiao.algs.graph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/***
+ *
+ * 映射到文件中的一段基本类型数组(小端序)，下标使用long，可以超过2^31个元素
+ *
+ * 文件被分成若干个不超过2^30字节的映射，元素大小(4或8字节)整除2^30，所以一个元素不会跨越两段映射；
+ * 按绝对位置读写，不同线程可以同时写入不同的元素
+ *
+ * @author XiaoJian
+ *
+ */
+final class MappedArray {
+	private static final int SEGMENT_SHIFT = 30; // 每段映射2^30字节
+	private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+
+	private final MappedByteBuffer[] buffers;
+
+	/**
+	 * 映射通道中从position开始的size字节，映射在关闭通道后仍然有效
+	 */
+	MappedArray(FileChannel channel, FileChannel.MapMode mode, long position, long size) throws IOException {
+		int n = (int) ((size + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT);
+		buffers = new MappedByteBuffer[n];
+		for (int i = 0; i < n; i++) {
+			long begin = (long) i << SEGMENT_SHIFT;
+			buffers[i] = channel.map(mode, position + begin, Math.min(SEGMENT_BYTES, size - begin));
+			buffers[i].order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	int getInt(long i) {
+		long b = i << 2;
+		return buffers[(int) (b >>> SEGMENT_SHIFT)].getInt((int) (b & (SEGMENT_BYTES - 1)));
+	}
+
+	long getLong(long i) {
+		long b = i << 3;
+		return buffers[(int) (b >>> SEGMENT_SHIFT)].getLong((int) (b & (SEGMENT_BYTES - 1)));
+	}
+
+	float getFloat(long i) {
+		long b = i << 2;
+		return buffers[(int) (b >>> SEGMENT_SHIFT)].getFloat((int) (b & (SEGMENT_BYTES - 1)));
+	}
+
+	double getDouble(long i) {
+		long b = i << 3;
+		return buffers[(int) (b >>> SEGMENT_SHIFT)].getDouble((int) (b & (SEGMENT_BYTES - 1)));
+	}
+
+	void putInt(long i, int x) {
+		long b = i << 2;
+		buffers[(int) (b >>> SEGMENT_SHIFT)].putInt((int) (b & (SEGMENT_BYTES - 1)), x);
+	}
+
+	void putLong(long i, long x) {
+		long b = i << 3;
+		buffers[(int) (b >>> SEGMENT_SHIFT)].putLong((int) (b & (SEGMENT_BYTES - 1)), x);
+	}
+
+	void putFloat(long i, float x) {
+		long b = i << 2;
+		buffers[(int) (b >>> SEGMENT_SHIFT)].putFloat((int) (b & (SEGMENT_BYTES - 1)), x);
+	}
+
+	void putDouble(long i, double x) {
+		long b = i << 3;
+		buffers[(int) (b >>> SEGMENT_SHIFT)].putDouble((int) (b & (SEGMENT_BYTES - 1)), x);
+	}
+
+	/**
+	 * 把修改写回文件
+	 */
+	void force() {
+		for (MappedByteBuffer buffer : buffers)
+			buffer.force();
+	}
+}
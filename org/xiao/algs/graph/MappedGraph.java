@@ -0,0 +1,371 @@
+package org.xiao.algs.graph;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.util.IntIterator;
+
+/***
+ *
+ * 内存映射的二进制CSR图文件(不可变)
+ *
+ * 文件格式(小端序)：
+ * 头部32字节：魔数"CSRG"(int)、版本(int)、标志(int，DIRECTED = 1，WEIGHTED = 2)、顶点数V(int)、边数E(long)、邻接表项数M(long)
+ * offsets：V+1个long，顶点v的邻接表项为M中的第offsets[v] ~ offsets[v+1]-1项
+ * targets：M个int，补齐到8字节
+ * weights：M个double(只有加权图才有)
+ *
+ * 有向图M = E，无向图每条边在两个顶点的邻接表中各出现一次，M = 2E；
+ * 邻接表的顺序和从同一个文本文件构造的Digraph、Graph、EdgeWeightedDigraph、EdgeWeightedGraph完全一致
+ *
+ * 加载时用FileChannel.map把文件映射到内存，不读取、不解析，数据不占用堆空间，由操作系统按需换入，
+ * 所以启动几乎不需要时间，也可以遍历比堆大的图；每段映射最多2^30字节，下标使用long，支持超过2^31条边
+ *
+ * convert()把文本格式的图转换为二进制格式：第一遍统计每个顶点的度数写入offsets，
+ * 第二遍直接把每条边写到映射的输出文件中的位置上，堆中只需要一个长度为V+1的long数组
+ *
+ * @author XiaoJian
+ *
+ */
+public class MappedGraph {
+	public static final int DIRECTED = 1; // 有向图
+	public static final int WEIGHTED = 2; // 加权图
+
+	private static final int MAGIC = 0x43535247; // "CSRG"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 32;
+
+	private final int V; // 顶点数目
+	private final long E; // 边的数目
+	private final long M; // 邻接表项数
+	private final int flags;
+	private final MappedArray offsets; // offsets[v] = 顶点v的邻接表的起始位置，长度为V+1
+	private final MappedArray targets; // 所有顶点的邻接表
+	private final MappedArray weights; // 每个邻接表项的权重，无权图为null
+
+	/**
+	 * 映射二进制图文件
+	 */
+	public MappedGraph(String file) {
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			FileChannel channel = raf.getChannel();
+			if (channel.size() < HEADER_BYTES) throw new IllegalArgumentException(file + " is not a binary graph file");
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != MAGIC) throw new IllegalArgumentException(file + " is not a binary graph file");
+			if (header.getInt(4) != VERSION) throw new IllegalArgumentException("unsupported version " + header.getInt(4));
+			flags = header.getInt(8);
+			V = header.getInt(12);
+			E = header.getLong(16);
+			M = header.getLong(24);
+			if (V < 0 || E < 0 || M != (isDirected() ? E : 2 * E))
+				throw new IllegalArgumentException(file + " has an invalid header");
+			if (channel.size() < fileSize(V, M, isWeighted()))
+				throw new IllegalArgumentException(file + " is truncated");
+
+			long position = HEADER_BYTES;
+			offsets = new MappedArray(channel, FileChannel.MapMode.READ_ONLY, position, 8L * (V + 1));
+			position += 8L * (V + 1);
+			targets = new MappedArray(channel, FileChannel.MapMode.READ_ONLY, position, 4L * M);
+			position += align(4L * M);
+			weights = isWeighted() ? new MappedArray(channel, FileChannel.MapMode.READ_ONLY, position, 8L * M) : null;
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Could not open " + file, e);
+		}
+		finally {
+			close(raf);
+		}
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	private static long fileSize(int V, long M, boolean weighted) {
+		return HEADER_BYTES + 8L * (V + 1) + align(4L * M) + (weighted ? 8L * M : 0);
+	}
+
+	private static void close(RandomAccessFile raf) {
+		if (raf == null) return;
+		try {
+			raf.close();
+		}
+		catch (IOException e) { }
+	}
+
+	/**
+	 * 把文本格式的图文件转换为二进制格式，flags为DIRECTED、WEIGHTED的组合，
+	 * 文本格式与Graph(In)、Digraph(In)、EdgeWeightedGraph(In)、EdgeWeightedDigraph(In)相同
+	 */
+	public static void convert(String textFile, String binaryFile, int flags) {
+		boolean directed = (flags & DIRECTED) != 0;
+		boolean weighted = (flags & WEIGHTED) != 0;
+
+		// 第一遍：统计每个顶点的邻接表项数
+		In in = open(textFile);
+		int V;
+		long E;
+		long[] next;
+		try {
+			V = in.readInt();
+			if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
+			E = in.readLong();
+			if (E < 0) throw new IllegalArgumentException("Number of edges must be nonnegative");
+			next = new long[V + 1];
+			for (long i = 0; i < E; i++) {
+				int v = readVertex(in, V);
+				int w = readVertex(in, V);
+				if (weighted) in.readDouble();
+				next[v + 1]++;
+				if (!directed) next[w + 1]++;
+			}
+		}
+		catch (NoSuchElementException e) {
+			throw new InputMismatchException("Invalid input format in MappedGraph.convert");
+		}
+		finally {
+			in.close();
+		}
+		for (int v = 0; v < V; v++) {
+			next[v + 1] += next[v];
+		}
+		long M = directed ? E : 2 * E;
+
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(binaryFile, "rw");
+			raf.write(new byte[HEADER_BYTES]); // 覆盖已有文件的头部
+			raf.setLength(fileSize(V, M, weighted));
+			FileChannel channel = raf.getChannel();
+
+			long position = HEADER_BYTES;
+			MappedArray offsets = new MappedArray(channel, FileChannel.MapMode.READ_WRITE, position, 8L * (V + 1));
+			position += 8L * (V + 1);
+			MappedArray targets = new MappedArray(channel, FileChannel.MapMode.READ_WRITE, position, 4L * M);
+			position += align(4L * M);
+			MappedArray weights = weighted ? new MappedArray(channel, FileChannel.MapMode.READ_WRITE, position, 8L * M) : null;
+
+			// next[v]改为顶点v下一条边的写入位置(从后往前)，后加入的边排在前面，与Bag的迭代顺序一致
+			for (int v = 0; v <= V; v++) {
+				offsets.putLong(v, next[v]);
+			}
+			for (int v = 0; v < V; v++) {
+				next[v] = next[v + 1];
+			}
+
+			// 第二遍：把每条边写到它的位置上
+			in = open(textFile);
+			try {
+				in.readInt();
+				in.readLong();
+				for (long i = 0; i < E; i++) {
+					int v = in.readInt();
+					int w = in.readInt();
+					double weight = weighted ? in.readDouble() : 0.0;
+					if (weighted && Double.isNaN(weight)) throw new IllegalArgumentException("Weight is NaN");
+					long k = --next[v];
+					targets.putInt(k, w);
+					if (weighted) weights.putDouble(k, weight);
+					if (!directed) {
+						k = --next[w];
+						targets.putInt(k, v);
+						if (weighted) weights.putDouble(k, weight);
+					}
+				}
+			}
+			finally {
+				in.close();
+			}
+			offsets.force();
+			targets.force();
+			if (weighted) weights.force();
+
+			// 最后写头部，中途失败时文件不会被当作有效的二进制图
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, flags & (DIRECTED | WEIGHTED)).putInt(12, V);
+			header.putLong(16, E).putLong(24, M);
+			header.force();
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Could not write " + binaryFile, e);
+		}
+		finally {
+			close(raf);
+		}
+	}
+
+	private static In open(String textFile) {
+		In in = In.fast(textFile);
+		if (!in.exists()) throw new IllegalArgumentException("Could not open " + textFile);
+		return in;
+	}
+
+	private static int readVertex(In in, int V) {
+		int v = in.readInt();
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+		return v;
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= V) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (V-1));
+	}
+
+	/**
+	 * 返回顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 返回边的数目
+	 */
+	public long E() {
+		return E;
+	}
+
+	/**
+	 * 是有向图吗
+	 */
+	public boolean isDirected() {
+		return (flags & DIRECTED) != 0;
+	}
+
+	/**
+	 * 是加权图吗
+	 */
+	public boolean isWeighted() {
+		return (flags & WEIGHTED) != 0;
+	}
+
+	/**
+	 * 返回顶点v的邻接表项数(有向图中为出度)
+	 */
+	public int degree(int v) {
+		validateVertex(v);
+		return (int) (offsets.getLong(v + 1) - offsets.getLong(v));
+	}
+
+	/**
+	 * 顶点v的邻接表的起始位置(包含)，配合end(v)、target(i)和weight(i)可以不创建迭代器遍历邻接表
+	 */
+	public long begin(int v) {
+		validateVertex(v);
+		return offsets.getLong(v);
+	}
+
+	/**
+	 * 顶点v的邻接表的结束位置(不包含)
+	 */
+	public long end(int v) {
+		validateVertex(v);
+		return offsets.getLong(v + 1);
+	}
+
+	/**
+	 * 返回第i个邻接表项指向的顶点
+	 */
+	public int target(long i) {
+		return targets.getInt(i);
+	}
+
+	/**
+	 * 返回第i个邻接表项的权重
+	 */
+	public double weight(long i) {
+		if (weights == null) throw new UnsupportedOperationException("not a weighted graph");
+		return weights.getDouble(i);
+	}
+
+	/**
+	 * 返回和v相邻的所有顶点
+	 */
+	public IntIterator adj(int v) {
+		return new AdjIterator(begin(v), end(v));
+	}
+
+	private class AdjIterator implements IntIterator {
+		private long i;
+		private final long end;
+
+		public AdjIterator(long begin, long end) {
+			this.i = begin;
+			this.end = end;
+		}
+
+		public boolean hasNext() {
+			return i < end;
+		}
+
+		public int next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return targets.getInt(i++);
+		}
+	}
+
+	/**
+	 * 复制到堆中的CSRDigraph，只适用于不加权的有向图
+	 */
+	public CSRDigraph toCSRDigraph() {
+		if (!isDirected() || isWeighted()) throw new UnsupportedOperationException("not an unweighted digraph");
+		if (M > Integer.MAX_VALUE) throw new UnsupportedOperationException("too many edges for CSRDigraph");
+		int[] from = new int[(int) M];
+		int[] to = new int[(int) M];
+		// CSRDigraph的构造函数把后面的边排在前面，所以倒序给出每个顶点的邻接表
+		int i = 0;
+		for (int v = 0; v < V; v++) {
+			for (long k = end(v) - 1; k >= begin(v); k--) {
+				from[i] = v;
+				to[i++] = targets.getInt(k);
+			}
+		}
+		return new CSRDigraph(V, from, to);
+	}
+
+	/**
+	 * 字符串表示
+	 */
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		String NEWLINE = System.getProperty("line.separator");
+		s.append(V + " vertices, " + E + " edges " + NEWLINE);
+		for (int v = 0; v < V; v++) {
+			s.append(v + ": ");
+			for (long k = begin(v); k < end(v); k++) {
+				s.append(target(k));
+				if (isWeighted()) s.append(String.format("(%.2f)", weight(k)));
+				s.append(" ");
+			}
+			s.append(NEWLINE);
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 测试，把文本格式的有向图转换为二进制格式，然后映射并打印
+	 *
+	 * java MappedGraph tinyDG.txt tinyDG.bin
+	 * 13 vertices, 22 edges
+	 * 0: 5 1
+	 * 1:
+	 * 2: 0 3
+	 * ...
+	 */
+	public static void main(String[] args) {
+		MappedGraph.convert(args[0], args[1], DIRECTED);
+		MappedGraph G = new MappedGraph(args[1]);
+		StdOut.println(G);
+	}
+
+}
@@ -0,0 +1,171 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.stack.Stack;
+import org.xiao.algs.util.ParallelFor;
+
+/***
+ *
+ * 无环加权有向图中最长路径的并行算法(按拓扑分层)
+ *
+ * AcyclicLP按一条拓扑排序依次松弛每个顶点的出边，这里按TopologicalLevels的层依次处理，
+ * 同一层中的顶点并行地拉取自己的入边：distTo[w] = max(distTo[v] + weight(v->w))，
+ * 指向w的顶点都在更低的层，已经计算完毕，每个顶点只由一个线程写入，不需要同步
+ *
+ * 起点s所在的层及之前的层中除s以外的顶点都不可达，直接从下一层开始
+ *
+ * distTo和AcyclicLP完全相同，最长路径长度相同时pathTo选择的边可能不同；
+ * 适合宽而浅的图(例如流水线调度中计算关键路径)，层数越少、每层的顶点越多，并行度越高
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelAcyclicLP {
+	private final CSREdgeWeightedDigraph R; // 反向图
+	private final double[] distTo; // distTo[v] = 从起点s到v的最长路径长度
+	private final int[] edgeTo; // edgeTo[v] = 从起点s到v的最长路径上的最后一条边在R中的下标，不存在为-1
+
+	/**
+	 * 使用公共ForkJoinPool初始化
+	 */
+	public ParallelAcyclicLP(EdgeWeightedDigraph G, int s) {
+		this(new CSREdgeWeightedDigraph(G), s, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool在CSR图上初始化
+	 */
+	public ParallelAcyclicLP(CSREdgeWeightedDigraph G, int s, ForkJoinPool pool) {
+		this(new TopologicalLevels(G, pool), s, pool);
+	}
+
+	/**
+	 * 使用已经计算好的拓扑分层初始化，多次查询同一幅图时分层只需要计算一次
+	 */
+	public ParallelAcyclicLP(TopologicalLevels levels, int s, ForkJoinPool pool) {
+		if (!levels.hasOrder())
+			throw new IllegalArgumentException("Digraph is not acyclic.");
+		R = levels.reverse();
+		int V = R.V();
+		if (s < 0 || s >= V) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (V-1));
+		distTo = new double[V];
+		edgeTo = new int[V];
+		Arrays.fill(distTo, Double.NEGATIVE_INFINITY);
+		Arrays.fill(edgeTo, -1);
+		distTo[s] = 0.0;
+
+		// 逐层并行计算，同一层的顶点互不影响
+		int[] order = levels.orderArray();
+		ParallelFor.Body pull = new ParallelFor.Body() {
+			public void apply(int w, ParallelFor.IntList out) {
+				double best = Double.NEGATIVE_INFINITY;
+				int bestEdge = -1;
+				for (int k = R.begin(w), end = R.end(w); k < end; k++) {
+					double d = distTo[R.to(k)] + R.weight(k);
+					if (d > best) {
+						best = d;
+						bestEdge = k;
+					}
+				}
+				distTo[w] = best;
+				edgeTo[w] = bestEdge;
+			}
+		};
+		for (int i = levels.level(s) + 1; i < levels.levels(); i++) {
+			ParallelFor.forEach(pool, order, levels.begin(i), levels.end(i), TopologicalLevels.SEQUENTIAL_THRESHOLD, pull);
+		}
+
+		assert check(levels.graph(), s);
+	}
+
+	/**
+	 * 返回从顶点s到v的距离，如果不存在则为负无穷大
+	 */
+	public double distTo(int v) {
+		return distTo[v];
+	}
+
+	/**
+	 * 是否存在从顶点s到v的路径
+	 */
+	public boolean hasPathTo(int v) {
+		return distTo[v] > Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * 返回从顶点s到v的最长路径，不存在则为null
+	 */
+	public Iterable<DirectedEdge> pathTo(int v) {
+		if (!hasPathTo(v)) return null;
+		Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+		for (int k = edgeTo[v]; k != -1; k = edgeTo[R.to(k)]) {
+			path.push(new DirectedEdge(R.to(k), R.from(k), R.weight(k)));
+		}
+		return path;
+	}
+
+	// 调试
+	private boolean check(CSREdgeWeightedDigraph G, int s) {
+
+		// check that all edges e = v->w satisfy distTo[w] >= distTo[v] + e.weight()
+		for (int k = 0; k < G.E(); k++) {
+			if (distTo[G.from(k)] + G.weight(k) > distTo[G.to(k)]) {
+				System.err.println("edge " + G.edge(k) + " not relaxed");
+				return false;
+			}
+		}
+
+		// check that all edges e = v->w on longest path tree satisfy distTo[w] == distTo[v] + e.weight()
+		if (distTo[s] != 0.0 || edgeTo[s] != -1) {
+			System.err.println("distTo[s] and edgeTo[s] inconsistent");
+			return false;
+		}
+		for (int w = 0; w < G.V(); w++) {
+			int k = edgeTo[w];
+			if (k == -1) continue;
+			if (distTo[R.to(k)] + R.weight(k) != distTo[w]) {
+				System.err.println("edge " + R.to(k) + "->" + w + " on longest path not tight");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *  测试
+	 *
+	 *  java ParallelAcyclicLP tinyEWDAG.txt 5
+	 *  5 to 0 (2.44)  5->1  0.32   1->3  0.29   3->6  0.52   6->4  0.93   4->0  0.38
+	 *  5 to 1 (0.32)  5->1  0.32
+	 *  5 to 2 (2.77)  5->1  0.32   1->3  0.29   3->6  0.52   6->4  0.93   4->7  0.37   7->2  0.34
+	 *  5 to 3 (0.61)  5->1  0.32   1->3  0.29
+	 *  5 to 4 (2.06)  5->1  0.32   1->3  0.29   3->6  0.52   6->4  0.93
+	 *  5 to 5 (0.00)
+	 *  5 to 6 (1.13)  5->1  0.32   1->3  0.29   3->6  0.52
+	 *  5 to 7 (2.43)  5->1  0.32   1->3  0.29   3->6  0.52   6->4  0.93   4->7  0.37
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		int s = Integer.parseInt(args[1]);
+		EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+
+		ParallelAcyclicLP lp = new ParallelAcyclicLP(G, s);
+		for (int v = 0; v < G.V(); v++) {
+			if (lp.hasPathTo(v)) {
+				StdOut.printf("%d to %d (%.2f)  ", s, v, lp.distTo(v));
+				for (DirectedEdge e : lp.pathTo(v)) {
+					StdOut.print(e + "   ");
+				}
+				StdOut.println();
+			}
+			else {
+				StdOut.printf("%d to %d         no path\n", s, v);
+			}
+		}
+	}
+
+}
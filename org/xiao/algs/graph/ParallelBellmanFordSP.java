@@ -0,0 +1,321 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.stack.Stack;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Body;
+import org.xiao.algs.util.ParallelFor.IntList;
+
+/***
+ *
+ * 最短路径的并行Bellman-Ford算法
+ *
+ * 按轮进行，每一轮中并行地为每个活跃顶点w计算min(distTo[u] + weight(u->w))，读的是上一轮的distTo，
+ * 所以每个顶点只由一个线程写入，不需要同步；只有上一轮距离变小的顶点指向的顶点才是活跃的
+ *
+ * 某一轮没有顶点的距离变小时立即结束，没有负权重环时最多V-1轮
+ *
+ * 负权重环的检测是增量的：每一轮结束后只从距离变小的顶点出发沿edgeTo向上走，
+ * edgeTo构成的子图中出现环就说明存在负权重环，每一轮总共最多访问V个顶点，
+ * 不需要像BellmanFordSP那样重新构造一幅EdgeWeightedDigraph并运行EdgeWeightedDirectedCycle
+ *
+ * 结果和BellmanFordSP相同(最短路径长度相同时选择的边可能不同)
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelBellmanFordSP {
+	private static final int SEQUENTIAL_THRESHOLD = 1024; // 顶点少于该值时不拆分任务
+
+	private final CSREdgeWeightedDigraph G; // 原图
+	private final CSREdgeWeightedDigraph R; // 反向图，R中的边w->u对应原图中的边u->w
+	private final double[] distTo; // distTo[v] = 从起点s到v的路径长度
+	private final int[] edgeTo; // edgeTo[v] = 从起点s到v的路径上的最后一条边在R中的下标，不存在为-1
+	private Iterable<DirectedEdge> cycle; // 负权重环(不存在为null)
+	private int rounds; // 执行的轮数
+
+	// 计算过程中使用
+	private double[] nextDist; // 本轮计算出的新距离
+	private int[] nextEdge; // 本轮计算出的新edgeTo
+	private AtomicIntegerArray activeMark; // 顶点在第几轮被标记为活跃
+	private int[] walkMark; // 检测环时顶点被第几次向上行走访问过
+	private int walkCounter;
+
+	/**
+	 * 使用公共ForkJoinPool初始化
+	 */
+	public ParallelBellmanFordSP(EdgeWeightedDigraph G, int s) {
+		this(new CSREdgeWeightedDigraph(G), s, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool在CSR图上初始化
+	 */
+	public ParallelBellmanFordSP(CSREdgeWeightedDigraph G, int s, ForkJoinPool pool) {
+		this(G, G.reverse(), s, pool);
+	}
+
+	/**
+	 * 使用预先计算好的反向图R = G.reverse()初始化，多次查询同一幅图时可以复用R
+	 */
+	public ParallelBellmanFordSP(CSREdgeWeightedDigraph G, CSREdgeWeightedDigraph R, int s, ForkJoinPool pool) {
+		if (R.V() != G.V() || R.E() != G.E())
+			throw new IllegalArgumentException("reverse graph does not match");
+		if (s < 0 || s >= G.V()) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (G.V()-1));
+		this.G = G;
+		this.R = R;
+		int V = G.V();
+		distTo = new double[V];
+		edgeTo = new int[V];
+		Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+		Arrays.fill(edgeTo, -1);
+		distTo[s] = 0.0;
+		nextDist = new double[V];
+		nextEdge = new int[V];
+		activeMark = new AtomicIntegerArray(V);
+		walkMark = new int[V];
+
+		IntList changed = new IntList();
+		changed.add(s);
+		IntList active = ParallelFor.forEach(pool, changed, SEQUENTIAL_THRESHOLD, new MarkNeighbors(1));
+		while (active.n > 0) {
+			rounds++;
+
+			// 并行计算新距离，然后提交距离变小的顶点
+			changed = ParallelFor.forEach(pool, active, SEQUENTIAL_THRESHOLD, new Pull());
+			for (int i = 0; i < changed.n; i++) {
+				int w = changed.a[i];
+				distTo[w] = nextDist[w];
+				edgeTo[w] = nextEdge[w];
+			}
+
+			// 增量检测负权重环
+			cycle = findCycle(changed);
+			if (cycle != null) break;
+
+			active = ParallelFor.forEach(pool, changed, SEQUENTIAL_THRESHOLD, new MarkNeighbors(rounds + 1));
+		}
+		nextDist = null;
+		nextEdge = null;
+		activeMark = null;
+		walkMark = null;
+
+		assert check(s);
+	}
+
+	// 为活跃顶点w计算新距离，距离变小时输出w
+	private class Pull extends Body {
+		public void apply(int w, IntList out) {
+			double best = distTo[w];
+			int bestEdge = -1;
+			for (int k = R.begin(w), end = R.end(w); k < end; k++) {
+				double d = distTo[R.to(k)] + R.weight(k);
+				if (d < best) {
+					best = d;
+					bestEdge = k;
+				}
+			}
+			if (bestEdge != -1) {
+				nextDist[w] = best;
+				nextEdge[w] = bestEdge;
+				out.add(w);
+			}
+		}
+	}
+
+	// 把距离变小的顶点v指向的顶点标记为下一轮的活跃顶点，每个顶点只输出一次
+	private class MarkNeighbors extends Body {
+		private final int round;
+
+		MarkNeighbors(int round) {
+			this.round = round;
+		}
+
+		public void apply(int v, IntList out) {
+			for (int k = G.begin(v), end = G.end(v); k < end; k++) {
+				int w = G.to(k);
+				int old = activeMark.get(w);
+				if (old != round && activeMark.compareAndSet(w, old, round))
+					out.add(w);
+			}
+		}
+	}
+
+	// 顶点v在edgeTo中的父顶点
+	private int parent(int v) {
+		return edgeTo[v] == -1 ? -1 : R.to(edgeTo[v]);
+	}
+
+	// 从本轮距离变小的顶点出发沿edgeTo向上走，遇到本次行走已经访问过的顶点说明找到了环，
+	// 遇到本轮其他行走访问过的顶点则停止(那次行走已经检查过后面的部分)
+	// edgeTo中新出现的环一定经过本轮距离变小的顶点，所以这样能找到edgeTo中的所有环
+	private Iterable<DirectedEdge> findCycle(IntList changed) {
+		if (walkCounter > Integer.MAX_VALUE - changed.n - 1) {
+			Arrays.fill(walkMark, 0);
+			walkCounter = 0;
+		}
+		int base = walkCounter;
+		for (int i = 0; i < changed.n; i++) {
+			int id = ++walkCounter;
+			int x = changed.a[i];
+			while (x != -1) {
+				if (walkMark[x] == id) return cycleThrough(x);
+				if (walkMark[x] > base) break;
+				walkMark[x] = id;
+				x = parent(x);
+			}
+		}
+		return null;
+	}
+
+	// x在edgeTo构成的环上，按顺序返回环上的边
+	private Iterable<DirectedEdge> cycleThrough(int x) {
+		Stack<DirectedEdge> cycle = new Stack<DirectedEdge>();
+		int v = x;
+		do {
+			int k = edgeTo[v];
+			cycle.push(new DirectedEdge(R.to(k), R.from(k), R.weight(k)));
+			v = R.to(k);
+		} while (v != x);
+		return cycle;
+	}
+
+	/**
+	 * 是否存在负权重的环
+	 */
+	public boolean hasNegativeCycle() {
+		return cycle != null;
+	}
+
+	/**
+	 * 返回负权重环，若无返回null
+	 */
+	public Iterable<DirectedEdge> negativeCycle() {
+		return cycle;
+	}
+
+	/**
+	 * 返回执行的轮数
+	 */
+	public int rounds() {
+		return rounds;
+	}
+
+	/**
+	 * 返回从顶点s到v的距离，如果不存在则路径为无穷大
+	 */
+	public double distTo(int v) {
+		if (hasNegativeCycle())
+			throw new UnsupportedOperationException("Negative cost cycle exists");
+		return distTo[v];
+	}
+
+	/**
+	 * 是否存在从顶点s到v的路径
+	 */
+	public boolean hasPathTo(int v) {
+		return distTo[v] < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 返回从顶点s到v的最短路径，如果不存在则为null
+	 */
+	public Iterable<DirectedEdge> pathTo(int v) {
+		if (hasNegativeCycle())
+			throw new UnsupportedOperationException("Negative cost cycle exists");
+		if (!hasPathTo(v)) return null;
+		Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+		for (int k = edgeTo[v]; k != -1; k = edgeTo[R.to(k)]) {
+			path.push(new DirectedEdge(R.to(k), R.from(k), R.weight(k)));
+		}
+		return path;
+	}
+
+	// 调试
+	private boolean check(int s) {
+
+		// 是否存在负权重环
+		if (hasNegativeCycle()) {
+			double weight = 0.0;
+			for (DirectedEdge e : negativeCycle()) {
+				weight += e.weight();
+			}
+			if (weight >= 0.0) {
+				System.err.println("error: weight of negative cycle = " + weight);
+				return false;
+			}
+			return true;
+		}
+
+		// check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+		for (int k = 0; k < G.E(); k++) {
+			if (distTo[G.from(k)] + G.weight(k) < distTo[G.to(k)]) {
+				System.err.println("edge " + G.edge(k) + " not relaxed");
+				return false;
+			}
+		}
+
+		// check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+		if (distTo[s] != 0.0 || edgeTo[s] != -1) {
+			System.err.println("distTo[s] and edgeTo[s] inconsistent");
+			return false;
+		}
+		for (int w = 0; w < G.V(); w++) {
+			int k = edgeTo[w];
+			if (k == -1) continue;
+			if (distTo[R.to(k)] + R.weight(k) != distTo[w]) {
+				System.err.println("edge " + R.to(k) + "->" + w + " on shortest path not tight");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java ParallelBellmanFordSP tinyEWDn.txt 0
+	 * 0 to 0 ( 0.00)
+	 * 0 to 1 ( 0.93)  0->2  0.26   2->7  0.34   7->3  0.39   3->6  0.52   6->4 -1.25   4->5  0.35   5->1  0.32
+	 * ...
+	 *
+	 * java ParallelBellmanFordSP tinyEWDnc.txt 0
+	 * 5->4 -0.66
+	 * 4->5  0.35
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		int s = Integer.parseInt(args[1]);
+		EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+
+		ParallelBellmanFordSP sp = new ParallelBellmanFordSP(G, s);
+
+		// 打印负权重环
+		if (sp.hasNegativeCycle()) {
+			for (DirectedEdge e : sp.negativeCycle())
+				StdOut.println(e);
+		}
+
+		// 打印最短路径
+		else {
+			for (int v = 0; v < G.V(); v++) {
+				if (sp.hasPathTo(v)) {
+					StdOut.printf("%d to %d (%5.2f)  ", s, v, sp.distTo(v));
+					for (DirectedEdge e : sp.pathTo(v)) {
+						StdOut.print(e + "   ");
+					}
+					StdOut.println();
+				}
+				else {
+					StdOut.printf("%d to %d           no path\n", s, v);
+				}
+			}
+		}
+	}
+
+}
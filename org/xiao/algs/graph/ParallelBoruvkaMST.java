@@ -0,0 +1,260 @@
+package org.xiao.algs.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.Queue;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Task;
+
+/***
+ *
+ * 最小生成树的并行Boruvka算法实现
+ *
+ * PrimMST、KruskalMST、ParallelBoruvkaMST
+ *
+ * 每一轮并行地为每个连通分量找到连接它和其他分量的权重最小的边，把这些边加入最小生成树并合并分量，
+ * 然后并行删除两端已经在同一个分量中的边；每一轮分量数至少减半，最多logV轮
+ *
+ * 边保存在基本类型数组中，不需要像KruskalMST那样把所有Edge放入MinPQ；
+ * 分量的合并使用ConcurrentUF，多个线程可以同时合并
+ *
+ * 权重相同的边按下标排序，保证各分量选出的边不会构成环；空间和E成正比，时间和ElogV成正比
+ *
+ * 输入是一幅加权无向图，不连通时得到最小生成森林
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelBoruvkaMST {
+	private static final int SEQUENTIAL_THRESHOLD = 4096; // 元素少于该值时不拆分任务
+	private static final int BLOCK = 4096; // 并行过滤边时每一块的大小
+
+	private double weight; // 权重
+	private Queue<Edge> mst = new Queue<Edge>(); // 最小生成树的边
+
+	// 计算过程中使用
+	private Edge[] edges; // 所有的边
+	private int[] v, w; // 第k条边的两个顶点
+	private double[] wt; // 第k条边的权重
+	private int[] comp; // 本轮中顶点所在分量的根
+	private AtomicIntegerArray cheapest; // 以顶点为根的分量权重最小的横切边，没有为-1
+	private int[] added; // 本轮以顶点为根的分量加入最小生成树的边，没有为-1
+	private ConcurrentUF uf;
+	private int[] active, next; // 两端不在同一个分量中的边
+	private int n; // active中边的数目
+	private int[] counts; // 每一块中保留的边数，计算前缀和之后是每一块在next中的起始位置
+
+	/**
+	 * 使用公共ForkJoinPool初始化
+	 */
+	public ParallelBoruvkaMST(EdgeWeightedGraph G) {
+		this(G, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool初始化
+	 */
+	public ParallelBoruvkaMST(EdgeWeightedGraph G, ForkJoinPool pool) {
+		int V = G.V();
+		int E = 0;
+		edges = new Edge[G.E()];
+		for (Edge e : G.edges()) {
+			edges[E++] = e;
+		}
+		v = new int[E];
+		w = new int[E];
+		wt = new double[E];
+		active = new int[E];
+		for (int k = 0; k < E; k++) {
+			v[k] = edges[k].either();
+			w[k] = edges[k].other(v[k]);
+			wt[k] = edges[k].weight();
+			active[k] = k;
+		}
+		n = E;
+		next = new int[E];
+		comp = new int[V];
+		cheapest = new AtomicIntegerArray(V);
+		added = new int[V];
+		uf = new ConcurrentUF(V);
+
+		while (n > 0 && mst.size() < V - 1) {
+			// 计算每个顶点所在的分量，删除两端在同一个分量中的边
+			ParallelFor.forEach(pool, 0, V, SEQUENTIAL_THRESHOLD, findComponent);
+			int blocks = (n + BLOCK - 1) / BLOCK;
+			counts = new int[blocks + 1];
+			ParallelFor.forEach(pool, blocks, countBlock);
+			for (int b = 0; b < blocks; b++) {
+				counts[b + 1] += counts[b];
+			}
+			ParallelFor.forEach(pool, blocks, compactBlock);
+			int[] t = active; active = next; next = t;
+			n = counts[blocks];
+			if (n == 0) break;
+
+			// 为每个分量找到权重最小的横切边并合并
+			ParallelFor.forEach(pool, 0, n, SEQUENTIAL_THRESHOLD, offerEdge);
+			ParallelFor.forEach(pool, 0, V, SEQUENTIAL_THRESHOLD, mergeComponent);
+			for (int r = 0; r < V; r++) {
+				if (added[r] != -1) {
+					mst.enqueue(edges[added[r]]);
+					weight += wt[added[r]];
+				}
+			}
+		}
+		edges = null; v = null; w = null; wt = null;
+		comp = null; cheapest = null; added = null; uf = null;
+		active = null; next = null; counts = null;
+
+		// 调试
+		assert check(G);
+	}
+
+	// 边a是否比边b小：先比较权重，权重相同时比较下标
+	private boolean less(int a, int b) {
+		return wt[a] < wt[b] || (wt[a] == wt[b] && a < b);
+	}
+
+	// 如果边k比分量r当前的最小横切边小，用CAS替换
+	private void offer(int r, int k) {
+		while (true) {
+			int cur = cheapest.get(r);
+			if (cur != -1 && !less(k, cur)) return;
+			if (cheapest.compareAndSet(r, cur, k)) return;
+		}
+	}
+
+	// 求出顶点x所在分量的根，清空x的最小横切边
+	private final Task findComponent = new Task() {
+		public void run(int x) {
+			comp[x] = uf.find(x);
+			cheapest.set(x, -1);
+		}
+	};
+
+	// 统计active中第b块保留的边数
+	private final Task countBlock = new Task() {
+		public void run(int b) {
+			int c = 0;
+			for (int i = b * BLOCK, end = Math.min(n, i + BLOCK); i < end; i++) {
+				int k = active[i];
+				if (comp[v[k]] != comp[w[k]]) c++;
+			}
+			counts[b + 1] = c;
+		}
+	};
+
+	// 把active中第b块保留的边复制到next中从counts[b]开始的位置
+	private final Task compactBlock = new Task() {
+		public void run(int b) {
+			int j = counts[b];
+			for (int i = b * BLOCK, end = Math.min(n, i + BLOCK); i < end; i++) {
+				int k = active[i];
+				if (comp[v[k]] != comp[w[k]]) next[j++] = k;
+			}
+		}
+	};
+
+	// 把active中第i条边提供给两端的分量
+	private final Task offerEdge = new Task() {
+		public void run(int i) {
+			int k = active[i];
+			offer(comp[v[k]], k);
+			offer(comp[w[k]], k);
+		}
+	};
+
+	// 用以r为根的分量的最小横切边合并分量
+	// 两个分量可能选中同一条边，只有真正完成合并的一方把它加入最小生成树
+	private final Task mergeComponent = new Task() {
+		public void run(int r) {
+			int k = comp[r] == r ? cheapest.get(r) : -1;
+			added[r] = k != -1 && uf.union(v[k], w[k]) ? k : -1;
+		}
+	};
+
+	/**
+	 * 返回最小生成树的所有边
+	 */
+	public Iterable<Edge> edges() {
+		return mst;
+	}
+
+	/**
+	 * 返回最小生成树的权重
+	 */
+	public double weight() {
+		return weight;
+	}
+
+	// 调试
+	private boolean check(EdgeWeightedGraph G) {
+
+		// 检测所有权重
+		double total = 0.0;
+		for (Edge e : edges()) {
+			total += e.weight();
+		}
+		double EPSILON = 1E-12;
+		if (Math.abs(total - weight()) > EPSILON) {
+			System.err.printf("Weight of edges does not equal weight(): %f vs. %f\n", total, weight());
+			return false;
+		}
+
+		// 检测是否是无环图
+		WeightedQuickUnionUF uf = new WeightedQuickUnionUF(G.V());
+		for (Edge e : edges()) {
+			int v = e.either(), w = e.other(v);
+			if (uf.connected(v, w)) {
+				System.err.println("Not a forest");
+				return false;
+			}
+			uf.union(v, w);
+		}
+
+		// 检测是否是生成森林
+		for (Edge e : G.edges()) {
+			int v = e.either(), w = e.other(v);
+			if (!uf.connected(v, w)) {
+				System.err.println("Not a spanning forest");
+				return false;
+			}
+		}
+
+		// 检测权重是否和KruskalMST相同
+		double expected = new KruskalMST(G).weight();
+		if (Math.abs(expected - weight()) > EPSILON * Math.max(1.0, Math.abs(expected))) {
+			System.err.printf("Weight of MST does not equal KruskalMST: %f vs. %f\n", weight(), expected);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java ParallelBoruvkaMST tinyEWG.txt
+	 * 0-7 0.16000
+	 * 1-7 0.19000
+	 * 2-3 0.17000
+	 * 4-5 0.35000
+	 * 5-7 0.28000
+	 * 6-2 0.40000
+	 * 0-2 0.26000
+	 * 1.81000
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+		ParallelBoruvkaMST mst = new ParallelBoruvkaMST(G);
+		for (Edge e : mst.edges()) {
+			StdOut.println(e);
+		}
+		StdOut.printf("%.5f\n", mst.weight());
+	}
+
+}
@@ -0,0 +1,319 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.stack.Stack;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Body;
+import org.xiao.algs.util.ParallelFor.IntList;
+import org.xiao.algs.util.ParallelFor.Task;
+
+/***
+ *
+ * CSR图上按层同步的并行广度优先搜索(direction-optimizing BFS)
+ *
+ * 每一层有两种扩展方式：
+ * 自顶向下(top-down)：并行遍历当前层每个顶点的出边，用CAS在位图中标记未访问的邻居，适合当前层很小的时候；
+ * 自底向上(bottom-up)：并行遍历每个未访问的顶点的入边，只要找到一个在当前层中的邻居就停止，适合当前层很大的时候，
+ * 每个顶点只由处理它所在那一段的线程写入，不需要CAS
+ *
+ * 当前层的出边数超过未访问顶点的出边数的1/ALPHA时改为自底向上，当前层的顶点数少于V/BETA时改回自顶向下
+ *
+ * 已访问的顶点用位图表示；支持多个起点，distTo和pathTo和BreadthFirstDirectedPaths的含义相同，
+ * 最短距离相同，但最短路径不唯一时选择的父顶点可能不同
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelBreadthFirstPaths {
+	private static final int INFINITY = Integer.MAX_VALUE;
+	private static final int SEQUENTIAL_THRESHOLD = 4096; // 顶点少于该值时不拆分任务，是64的倍数
+	private static final int ALPHA = 14;
+	private static final int BETA = 24;
+
+	private final int[] distTo; // distTo[v] = 最近的起点到v的最短路径的长度
+	private final int[] edgeTo; // edgeTo[v] = 最短路径上v的前一个顶点，起点为-1
+
+	// 计算过程中使用
+	private final int V;
+	private int[] outOffsets, outTargets; // 出边
+	private int[] inOffsets, inTargets; // 入边
+	private AtomicLongArray visited; // 已访问的顶点的位图
+	private long[] frontierBits, nextBits; // 自底向上时当前层和下一层的位图
+	private int level; // 当前层到起点的距离
+
+	/**
+	 * 在CSR有向图上从s开始搜索
+	 */
+	public ParallelBreadthFirstPaths(CSRDigraph G, int s) {
+		this(G, Arrays.asList(s), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 在CSR有向图上从sources中的所有顶点开始搜索
+	 */
+	public ParallelBreadthFirstPaths(CSRDigraph G, Iterable<Integer> sources) {
+		this(G, sources, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 在CSR有向图上使用线程池pool从sources中的所有顶点开始搜索
+	 */
+	public ParallelBreadthFirstPaths(CSRDigraph G, Iterable<Integer> sources, ForkJoinPool pool) {
+		this(G, G.reverse(), sources, pool);
+	}
+
+	/**
+	 * 使用预先计算好的反向图R = G.reverse()搜索，多次查询同一幅图时可以复用R
+	 */
+	public ParallelBreadthFirstPaths(CSRDigraph G, CSRDigraph R, Iterable<Integer> sources, ForkJoinPool pool) {
+		this(G.V(), G.offsets(), G.targets(), R, sources, pool);
+	}
+
+	/**
+	 * 在CSR无向图上从s开始搜索
+	 */
+	public ParallelBreadthFirstPaths(CSRGraph G, int s) {
+		this(G, Arrays.asList(s), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 在CSR无向图上从sources中的所有顶点开始搜索
+	 */
+	public ParallelBreadthFirstPaths(CSRGraph G, Iterable<Integer> sources) {
+		this(G, sources, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 在CSR无向图上使用线程池pool从sources中的所有顶点开始搜索，无向图的入边就是出边
+	 */
+	public ParallelBreadthFirstPaths(CSRGraph G, Iterable<Integer> sources, ForkJoinPool pool) {
+		this(G.V(), G.offsets(), G.targets(), null, sources, pool);
+	}
+
+	private ParallelBreadthFirstPaths(int V, int[] offsets, int[] targets, CSRDigraph reverse,
+			Iterable<Integer> sources, ForkJoinPool pool) {
+		if (reverse != null && (reverse.V() != V || reverse.E() != targets.length))
+			throw new IllegalArgumentException("reverse graph does not match");
+		this.V = V;
+		outOffsets = offsets;
+		outTargets = targets;
+		inOffsets = reverse == null ? offsets : reverse.offsets();
+		inTargets = reverse == null ? targets : reverse.targets();
+		distTo = new int[V];
+		edgeTo = new int[V];
+		Arrays.fill(distTo, INFINITY);
+		Arrays.fill(edgeTo, -1);
+		visited = new AtomicLongArray(words(V));
+
+		// 标记所有起点
+		IntList frontier = new IntList();
+		for (int s : sources) {
+			if (s < 0 || s >= V) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (V-1));
+			if (distTo[s] == 0) continue;
+			distTo[s] = 0;
+			setVisited(s);
+			frontier.add(s);
+		}
+
+		long unexplored = outTargets.length; // 未访问顶点的出边数(估计值)
+		long frontierEdges = outDegrees(frontier);
+		int frontierSize = frontier.n;
+		boolean bottomUp = false;
+		while (frontierSize > 0) {
+			unexplored -= frontierEdges;
+			if (!bottomUp && frontierEdges > unexplored / ALPHA) {
+				bottomUp = true;
+				frontierBits = toBits(frontier);
+			}
+			else if (bottomUp && frontierSize < V / BETA) {
+				bottomUp = false;
+				frontier = toList(frontierBits);
+			}
+
+			if (bottomUp) {
+				nextBits = new long[words(V)];
+				ParallelFor.forEach(pool, (V + SEQUENTIAL_THRESHOLD - 1) / SEQUENTIAL_THRESHOLD, bottomUpStep);
+				frontierBits = nextBits;
+				nextBits = null;
+				frontierSize = 0;
+				frontierEdges = 0;
+				for (int i = 0; i < frontierBits.length; i++) {
+					long word = frontierBits[i];
+					frontierSize += Long.bitCount(word);
+					while (word != 0) {
+						int v = (i << 6) + Long.numberOfTrailingZeros(word);
+						frontierEdges += outOffsets[v + 1] - outOffsets[v];
+						word &= word - 1;
+					}
+				}
+			}
+			else {
+				frontier = ParallelFor.forEach(pool, frontier, SEQUENTIAL_THRESHOLD, topDownStep);
+				frontierSize = frontier.n;
+				frontierEdges = outDegrees(frontier);
+			}
+			level++;
+		}
+
+		outOffsets = null;
+		outTargets = null;
+		inOffsets = null;
+		inTargets = null;
+		visited = null;
+		frontierBits = null;
+	}
+
+	private static int words(int V) {
+		return (V + 63) >>> 6;
+	}
+
+	private boolean isVisited(int v) {
+		return (visited.get(v >>> 6) & (1L << v)) != 0;
+	}
+
+	// 设置v的访问标记，v已经被其他线程标记时返回false
+	private boolean setVisited(int v) {
+		int i = v >>> 6;
+		long bit = 1L << v;
+		while (true) {
+			long word = visited.get(i);
+			if ((word & bit) != 0) return false;
+			if (visited.compareAndSet(i, word, word | bit)) return true;
+		}
+	}
+
+	private long outDegrees(IntList vertices) {
+		long sum = 0;
+		for (int i = 0; i < vertices.n; i++) {
+			int v = vertices.a[i];
+			sum += outOffsets[v + 1] - outOffsets[v];
+		}
+		return sum;
+	}
+
+	private long[] toBits(IntList vertices) {
+		long[] bits = new long[words(V)];
+		for (int i = 0; i < vertices.n; i++) {
+			int v = vertices.a[i];
+			bits[v >>> 6] |= 1L << v;
+		}
+		return bits;
+	}
+
+	private static IntList toList(long[] bits) {
+		IntList list = new IntList();
+		for (int i = 0; i < bits.length; i++) {
+			long word = bits[i];
+			while (word != 0) {
+				list.add((i << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+		return list;
+	}
+
+	// 自顶向下：扩展当前层的顶点v的出边，用CAS标记未访问的邻居w并输出到下一层
+	private final Body topDownStep = new Body() {
+		public void apply(int v, IntList out) {
+			int d = level + 1;
+			for (int k = outOffsets[v], end = outOffsets[v + 1]; k < end; k++) {
+				int w = outTargets[k];
+				if (!isVisited(w) && setVisited(w)) {
+					distTo[w] = d;
+					edgeTo[w] = v;
+					out.add(w);
+				}
+			}
+		}
+	};
+
+	// 自底向上：为第b段顶点中每个未访问的顶点寻找在当前层中的入边邻居
+	// 每段是固定的SEQUENTIAL_THRESHOLD个顶点，起点是64的倍数，nextBits的每个字只由一个线程写入，所以不能像topDownStep那样任意二分
+	private final Task bottomUpStep = new Task() {
+		public void run(int b) {
+			int d = level + 1;
+			int lo = b * SEQUENTIAL_THRESHOLD;
+			int hi = Math.min(lo + SEQUENTIAL_THRESHOLD, V);
+			for (int w = lo; w < hi; w++) {
+				if (isVisited(w)) continue;
+				for (int k = inOffsets[w], end = inOffsets[w + 1]; k < end; k++) {
+					int v = inTargets[k];
+					if ((frontierBits[v >>> 6] & (1L << v)) != 0) {
+						setVisited(w);
+						distTo[w] = d;
+						edgeTo[w] = v;
+						nextBits[w >>> 6] |= 1L << w;
+						break;
+					}
+				}
+			}
+		}
+	};
+
+	/**
+	 * 是否存在从起点到v的路径
+	 */
+	public boolean hasPathTo(int v) {
+		return distTo[v] != INFINITY;
+	}
+
+	/**
+	 * 返回从最近的起点到v的最短路径的长度，不存在为Integer.MAX_VALUE
+	 */
+	public int distTo(int v) {
+		return distTo[v];
+	}
+
+	/**
+	 * 返回从最近的起点到v的最短路径，若不存在返回null
+	 */
+	public Iterable<Integer> pathTo(int v) {
+		if (!hasPathTo(v)) return null;
+		Stack<Integer> path = new Stack<Integer>();
+		int x;
+		for (x = v; distTo[x] != 0; x = edgeTo[x])
+			path.push(x);
+		path.push(x);
+		return path;
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java ParallelBreadthFirstPaths tinyDG.txt 3
+	 *  3 to 0 (2):  3->2->0
+	 *  3 to 1 (3):  3->2->0->1
+	 *  3 to 2 (1):  3->2
+	 *  3 to 3 (0):  3
+	 *  3 to 4 (2):  3->5->4
+	 *  3 to 5 (1):  3->5
+	 *  3 to 6 (-):  not connected
+	 *  ...
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSRDigraph G = new CSRDigraph(in);
+		int s = Integer.parseInt(args[1]);
+		ParallelBreadthFirstPaths bfs = new ParallelBreadthFirstPaths(G, s);
+
+		for (int v = 0; v < G.V(); v++) {
+			if (bfs.hasPathTo(v)) {
+				StdOut.printf("%d to %d (%d):  ", s, v, bfs.distTo(v));
+				for (int x : bfs.pathTo(v)) {
+					if (x == s) StdOut.print(x);
+					else        StdOut.print("->" + x);
+				}
+				StdOut.println();
+			}
+			else {
+				StdOut.printf("%d to %d (-):  not connected\n", s, v);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.Queue;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Task;
+
+/***
+ *
+ * 并行计算无向图中的所有连通分量
+ *
+ * 把顶点分成若干段，每个线程对自己那一段顶点的每条边v-w(w > v)调用ConcurrentUF.union，
+ * 然后并行地为每个顶点找到根，最后按顶点顺序给每个根编号
+ *
+ * 不使用递归，不会像CC那样在很深的图上栈溢出；id(v)的编号和CC相同(按分量中最小的顶点排序)
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelCC {
+	private static final int SEQUENTIAL_THRESHOLD = 4096; // 顶点少于该值时不拆分任务
+
+	private final int[] id; // id[v] = v所在的连通分量的标记符
+	private final int[] size; // 每个连通分量里的顶点数目
+	private int count; // 连通分量的数目
+
+	/**
+	 * 使用公共ForkJoinPool初始化
+	 */
+	public ParallelCC(Graph G) {
+		this(new CSRGraph(G), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool在CSR无向图上初始化
+	 */
+	public ParallelCC(final CSRGraph G, ForkJoinPool pool) {
+		final ConcurrentUF uf = new ConcurrentUF(G.V());
+		id = new int[G.V()];
+
+		// 合并每条边的两个顶点，然后求出每个顶点的根(暂时保存在id中)
+		ParallelFor.forEach(pool, 0, G.V(), SEQUENTIAL_THRESHOLD, new Task() {
+			public void run(int v) {
+				for (int i = G.begin(v), end = G.end(v); i < end; i++) {
+					int w = G.target(i);
+					if (w > v) uf.union(v, w);
+				}
+			}
+		});
+		ParallelFor.forEach(pool, 0, G.V(), SEQUENTIAL_THRESHOLD, new Task() {
+			public void run(int v) {
+				id[v] = uf.find(v);
+			}
+		});
+
+		// 按顶点顺序编号
+		int[] label = new int[G.V()];
+		Arrays.fill(label, -1);
+		size = new int[uf.count()];
+		for (int v = 0; v < G.V(); v++) {
+			int root = id[v];
+			if (label[root] == -1) label[root] = count++;
+			id[v] = label[root];
+			size[id[v]]++;
+		}
+	}
+
+	/**
+	 * v所在的连通分量的标记符(0 ~ count-1)
+	 */
+	public int id(int v) {
+		return id[v];
+	}
+
+	/**
+	 * v所在的连通分量的顶点数
+	 */
+	public int size(int v) {
+		return size[id[v]];
+	}
+
+	/**
+	 * 返回连通分量的数目
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * v和w连通吗
+	 */
+	public boolean connected(int v, int w) {
+		return id(v) == id(w);
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java ParallelCC tinyG.txt
+	 * 3 components
+	 * 0 1 2 3 4 5 6
+	 * 7 8
+	 * 9 10 11 12
+	 *
+	 * java ParallelCC largeG.txt
+	 * 1 components
+	 */
+	@SuppressWarnings("unchecked")
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		Graph G = new Graph(in);
+		ParallelCC cc = new ParallelCC(G);
+
+		// 连通分量的数目
+		int M = cc.count();
+		StdOut.println(M + " components");
+
+		// 计算每个连通分量里面的顶点
+		Queue<Integer>[] components = (Queue<Integer>[]) new Queue[M];
+		for (int i = 0; i < M; i++) {
+			components[i] = new Queue<Integer>();
+		}
+		for (int v = 0; v < G.V(); v++) {
+			components[cc.id(v)].enqueue(v);
+		}
+
+		// 打印结果
+		for (int i = 0; i < M; i++) {
+			for (int v : components[i]) {
+				StdOut.print(v + " ");
+			}
+			StdOut.println();
+		}
+	}
+}
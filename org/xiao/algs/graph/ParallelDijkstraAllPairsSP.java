@@ -0,0 +1,268 @@
+package org.xiao.algs.graph;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.IndexMinDoublePQ;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Task;
+
+/***
+ *
+ * 并行计算多个起点最短路径的Dijkstra算法
+ *
+ * 和DijkstraAllPairsSP相比：
+ * 各个起点的Dijkstra在ForkJoinPool中并行执行，每个任务只分配一份distTo数组和优先队列并在它负责的起点之间复用；
+ * 距离保存在一个按行存放的稠密矩阵中(double或float)，不保留每个起点的edgeTo数组和DijkstraSP对象；
+ * 可以只计算一部分起点
+ *
+ * 堆中的矩阵是一个数组，最多Integer.MAX_VALUE个元素(全部起点时V不超过46340)；
+ * 更大的矩阵可以映射到文件中，按2^30字节分段映射，下标使用long，只受磁盘空间的限制
+ *
+ * 需要路径时，path(s, t)会对起点s重新运行一次CSRDijkstraSP
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelDijkstraAllPairsSP {
+	private static final int CHUNKS_PER_THREAD = 4; // 每个线程平均分到的任务数，用于负载均衡
+
+	private final CSREdgeWeightedDigraph G;
+	private final int V;
+	private final int[] sources; // 计算了最短路径的起点
+	private final int[] row; // row[s] = 起点s在距离矩阵中的行号，没有计算的起点为-1
+	private final double[] dist; // 距离矩阵(double)，dist[row * V + t]
+	private final float[] distf; // 距离矩阵(float)
+	private final MappedArray mapped; // 映射到文件的距离矩阵，只使用dist、distf和mapped之一
+	private final boolean compact; // 距离是否用float保存
+
+	/**
+	 * 使用公共ForkJoinPool计算所有顶点之间的最短距离
+	 */
+	public ParallelDijkstraAllPairsSP(CSREdgeWeightedDigraph G) {
+		this(G, allVertices(G.V()), false, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用公共ForkJoinPool只计算sources中的起点到所有顶点的最短距离
+	 */
+	public ParallelDijkstraAllPairsSP(CSREdgeWeightedDigraph G, int[] sources) {
+		this(G, sources, false, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 计算sources中的起点到所有顶点的最短距离
+	 *
+	 * @param compact
+	 *            为true时距离矩阵使用float保存，内存减半，距离会损失精度
+	 * @param pool
+	 *            执行各个起点的线程池
+	 */
+	public ParallelDijkstraAllPairsSP(CSREdgeWeightedDigraph G, int[] sources, boolean compact, ForkJoinPool pool) {
+		this(G, sources, compact, null, pool);
+	}
+
+	/**
+	 * 计算sources中的起点到所有顶点的最短距离
+	 *
+	 * @param compact
+	 *            为true时距离矩阵使用float保存，内存减半，距离会损失精度
+	 * @param matrixFile
+	 *            为null时距离矩阵保存在堆中，否则映射到文件matrixFile(已有的文件会被覆盖，计算结束后保留)
+	 * @param pool
+	 *            执行各个起点的线程池
+	 */
+	public ParallelDijkstraAllPairsSP(CSREdgeWeightedDigraph G, int[] sources, boolean compact, String matrixFile,
+			ForkJoinPool pool) {
+		for (int k = 0; k < G.E(); k++) {
+			if (G.weight(k) < 0)
+				throw new IllegalArgumentException("edge " + G.edge(k) + " has negative weight");
+		}
+		this.G = G;
+		this.V = G.V();
+		this.sources = sources.clone();
+		this.row = new int[V];
+		for (int v = 0; v < V; v++)
+			row[v] = -1;
+		for (int i = 0; i < this.sources.length; i++) {
+			int s = this.sources[i];
+			if (s < 0 || s >= V) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (V-1));
+			if (row[s] != -1) throw new IllegalArgumentException("duplicate source " + s);
+			row[s] = i;
+		}
+
+		this.compact = compact;
+		long size = (long) this.sources.length * V;
+		if (matrixFile != null) {
+			dist = null;
+			distf = null;
+			mapped = map(matrixFile, size * (compact ? 4 : 8));
+		}
+		else if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("distance matrix too large for the heap: " + this.sources.length + " x " + V
+					+ ", use a matrix file");
+		}
+		else if (compact) {
+			dist = null;
+			distf = new float[(int) size];
+			mapped = null;
+		}
+		else {
+			dist = new double[(int) size];
+			distf = null;
+			mapped = null;
+		}
+
+		// 把起点分成若干块，每一块分配一份distTo数组和优先队列
+		final int[] all = this.sources;
+		final int n = all.length;
+		final int chunks = Math.min(n, pool.getParallelism() * CHUNKS_PER_THREAD);
+		ParallelFor.forEach(pool, chunks, new Task() {
+			public void run(int b) {
+				double[] distTo = new double[V];
+				IndexMinDoublePQ pq = new IndexMinDoublePQ(V);
+				for (int i = (int) ((long) n * b / chunks), end = (int) ((long) n * (b + 1) / chunks); i < end; i++) {
+					dijkstra(all[i], distTo, pq);
+					store(i, distTo);
+				}
+			}
+		});
+	}
+
+	// 创建大小为bytes字节的文件并映射到内存，映射在关闭文件后仍然有效
+	private static MappedArray map(String file, long bytes) {
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "rw");
+			raf.setLength(bytes);
+			return new MappedArray(raf.getChannel(), FileChannel.MapMode.READ_WRITE, 0, bytes);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Could not map " + file, e);
+		}
+		finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				}
+				catch (IOException e) { }
+			}
+		}
+	}
+
+	private static int[] allVertices(int V) {
+		int[] a = new int[V];
+		for (int v = 0; v < V; v++)
+			a[v] = v;
+		return a;
+	}
+
+	// 从s开始的Dijkstra，只计算距离，pq在运行结束时为空，可以直接复用
+	private void dijkstra(int s, double[] distTo, IndexMinDoublePQ pq) {
+		for (int v = 0; v < V; v++)
+			distTo[v] = Double.POSITIVE_INFINITY;
+		distTo[s] = 0.0;
+		pq.insert(s, 0.0);
+		while (!pq.isEmpty()) {
+			int v = pq.delMin();
+			for (int k = G.begin(v), end = G.end(v); k < end; k++) {
+				int w = G.to(k);
+				double d = distTo[v] + G.weight(k);
+				if (distTo[w] > d) {
+					distTo[w] = d;
+					if (pq.contains(w)) pq.decreaseKey(w, d);
+					else                pq.insert(w, d);
+				}
+			}
+		}
+	}
+
+	// 把第i个起点的结果写入距离矩阵的第i行
+	private void store(int i, double[] distTo) {
+		long base = (long) i * V;
+		if (dist != null) {
+			System.arraycopy(distTo, 0, dist, (int) base, V);
+		}
+		else if (distf != null) {
+			for (int v = 0; v < V; v++)
+				distf[(int) base + v] = (float) distTo[v];
+		}
+		else if (compact) {
+			for (int v = 0; v < V; v++)
+				mapped.putFloat(base + v, (float) distTo[v]);
+		}
+		else {
+			for (int v = 0; v < V; v++)
+				mapped.putDouble(base + v, distTo[v]);
+		}
+	}
+
+	private int rowOf(int s) {
+		if (s < 0 || s >= V) throw new IndexOutOfBoundsException("vertex " + s + " is not between 0 and " + (V-1));
+		if (row[s] == -1) throw new IllegalArgumentException("source " + s + " was not computed");
+		return row[s];
+	}
+
+	/**
+	 * 返回计算了最短路径的起点
+	 */
+	public int[] sources() {
+		return sources.clone();
+	}
+
+	/**
+	 * 返回s到t的最短路径，需要对s重新运行一次Dijkstra
+	 */
+	public Iterable<DirectedEdge> path(int s, int t) {
+		rowOf(s);
+		return new CSRDijkstraSP(G, s).pathTo(t);
+	}
+
+	/**
+	 * s到t是否有一条路径
+	 */
+	public boolean hasPath(int s, int t) {
+		return dist(s, t) < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * 返回s到t之间最短路径的距离
+	 */
+	public double dist(int s, int t) {
+		if (t < 0 || t >= V) throw new IndexOutOfBoundsException("vertex " + t + " is not between 0 and " + (V-1));
+		long index = (long) rowOf(s) * V + t;
+		if (dist != null)  return dist[(int) index];
+		if (distf != null) return distf[(int) index];
+		return compact ? mapped.getFloat(index) : mapped.getDouble(index);
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java ParallelDijkstraAllPairsSP tinyEWD.txt
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSREdgeWeightedDigraph G = new CSREdgeWeightedDigraph(in);
+		ParallelDijkstraAllPairsSP spt = new ParallelDijkstraAllPairsSP(G);
+
+		StdOut.printf("     ");
+		for (int v = 0; v < G.V(); v++) {
+			StdOut.printf("%6d ", v);
+		}
+		StdOut.println();
+		for (int v = 0; v < G.V(); v++) {
+			StdOut.printf("%3d: ", v);
+			for (int w = 0; w < G.V(); w++) {
+				if (spt.hasPath(v, w)) StdOut.printf("%6.2f ", spt.dist(v, w));
+				else                   StdOut.printf("   Inf ");
+			}
+			StdOut.println();
+		}
+	}
+
+}
@@ -0,0 +1,330 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.queue.Queue;
+import org.xiao.algs.stack.Stack;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Body;
+import org.xiao.algs.util.ParallelFor.IntList;
+
+/***
+ *
+ * 并行计算有向图强连通分量的forward-backward算法
+ *
+ * 先并行地反复删除入度或出度为0的顶点(trim)，它们各自是一个强连通分量；
+ * 然后对剩下的顶点集合选一个顶点pivot，求出从pivot可达的顶点FW和可达pivot的顶点BW，
+ * FW∩BW就是pivot所在的强连通分量，FW-BW、BW-FW和其余顶点中不会有跨越的强连通分量，分别作为三个子问题并行处理
+ *
+ * 每个子问题中的顶点有相同的颜色，搜索只沿着同色的顶点进行，子问题较大时按层并行搜索，
+ * 较小时使用非递归的Tarjan算法；全程没有递归的深度优先搜索，不会像KosarajuSharirSCC那样在很深的图上栈溢出
+ *
+ * id(v)的编号按分量中最小的顶点排序，和KosarajuSharirSCC的编号不同，但得到的分量相同
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelSCC {
+	private static final int SEQUENTIAL_THRESHOLD = 4096; // 顶点少于该值时不拆分任务或使用Tarjan算法
+	private static final int DONE = -1; // 已经确定所在强连通分量的顶点的颜色
+
+	private final int[] id; // 强连通分量的标记符
+	private int count; // 强连通分量的数量
+
+	// 计算过程中使用
+	private CSRDigraph G, R; // 原图和反向图
+	private ForkJoinPool pool;
+	private AtomicIntegerArray color; // 顶点所在子问题的颜色
+	private AtomicInteger nextColor;
+	private int[] rep; // rep[v] = v所在的强连通分量的代表顶点
+	private int[] index, low, pos; // Tarjan算法使用，各子问题的顶点不相交，可以共用
+	private boolean[] onStack;
+
+	/**
+	 * 使用公共ForkJoinPool初始化
+	 */
+	public ParallelSCC(Digraph G) {
+		this(new CSRDigraph(G), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool在CSR有向图上初始化
+	 */
+	public ParallelSCC(CSRDigraph G, ForkJoinPool pool) {
+		int V = G.V();
+		this.G = G;
+		this.R = G.reverse();
+		this.pool = pool;
+		color = new AtomicIntegerArray(V);
+		nextColor = new AtomicInteger(1);
+		rep = new int[V];
+		index = new int[V];
+		low = new int[V];
+		pos = new int[V];
+		onStack = new boolean[V];
+		Arrays.fill(index, -1);
+
+		// 删除入度或出度为0的顶点，剩下的顶点颜色为0
+		trim();
+		IntList rest = new IntList();
+		for (int v = 0; v < V; v++) {
+			if (color.get(v) == 0) rest.add(v);
+		}
+		if (rest.n > 0) pool.invoke(new Split(rest, 0));
+
+		// 按代表顶点编号
+		id = new int[V];
+		int[] label = new int[V];
+		Arrays.fill(label, -1);
+		for (int v = 0; v < V; v++) {
+			int r = rep[v];
+			if (label[r] == -1) label[r] = count++;
+			id[v] = label[r];
+		}
+
+		this.G = null;
+		this.R = null;
+		this.pool = null;
+		color = null;
+		rep = null;
+		index = null;
+		low = null;
+		pos = null;
+		onStack = null;
+	}
+
+	// 顶点v单独成为一个强连通分量，返回是否由本线程删除
+	private boolean remove(int v, int from) {
+		if (!color.compareAndSet(v, from, DONE)) return false;
+		rep[v] = v;
+		return true;
+	}
+
+	// 按层并行删除入度或出度为0的顶点，删除顶点后更新它的邻居的度数
+	private void trim() {
+		final AtomicIntegerArray indegree = new AtomicIntegerArray(G.V());
+		final AtomicIntegerArray outdegree = new AtomicIntegerArray(G.V());
+		IntList frontier = new IntList();
+		for (int v = 0; v < G.V(); v++) {
+			indegree.set(v, R.outdegree(v));
+			outdegree.set(v, G.outdegree(v));
+			if ((R.outdegree(v) == 0 || G.outdegree(v) == 0) && remove(v, 0))
+				frontier.add(v);
+		}
+		while (frontier.n > 0) {
+			frontier = ParallelFor.forEach(pool, frontier, SEQUENTIAL_THRESHOLD, new Body() {
+				public void apply(int v, IntList out) {
+					for (int i = G.begin(v), end = G.end(v); i < end; i++) {
+						int w = G.target(i);
+						if (indegree.decrementAndGet(w) == 0 && remove(w, 0)) out.add(w);
+					}
+					for (int i = R.begin(v), end = R.end(v); i < end; i++) {
+						int u = R.target(i);
+						if (outdegree.decrementAndGet(u) == 0 && remove(u, 0)) out.add(u);
+					}
+				}
+			});
+		}
+	}
+
+	// 处理颜色为c的一个子问题
+	private class Split extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private IntList vertices;
+		private int c;
+
+		Split(IntList vertices, int c) {
+			this.vertices = vertices;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			// 其余顶点组成的子问题在本任务中循环处理，另外两个子问题fork给新的任务，和其余顶点同时处理，最后一起join
+			Stack<Split> forked = new Stack<Split>();
+			while (vertices.n > 0) {
+				if (vertices.n < SEQUENTIAL_THRESHOLD) {
+					tarjan(vertices, c);
+					break;
+				}
+				int pivot = vertices.a[0];
+				final int cf = nextColor.getAndIncrement();
+				final int cb = nextColor.getAndIncrement();
+				final int cs = nextColor.getAndIncrement();
+				final int c = this.c;
+
+				// 正向搜索：把从pivot可达的顶点的颜色改为cf
+				color.set(pivot, cf);
+				IntList frontier = new IntList();
+				frontier.add(pivot);
+				while (frontier.n > 0) {
+					frontier = ParallelFor.forEach(pool, frontier, SEQUENTIAL_THRESHOLD, new Body() {
+						public void apply(int v, IntList out) {
+							for (int i = G.begin(v), end = G.end(v); i < end; i++) {
+								int w = G.target(i);
+								if (color.get(w) == c && color.compareAndSet(w, c, cf)) out.add(w);
+							}
+						}
+					});
+				}
+
+				// 反向搜索：可达pivot的顶点中颜色为cf的属于pivot的强连通分量，颜色为c的改为cb
+				color.set(pivot, cs);
+				frontier = new IntList();
+				frontier.add(pivot);
+				while (frontier.n > 0) {
+					frontier = ParallelFor.forEach(pool, frontier, SEQUENTIAL_THRESHOLD, new Body() {
+						public void apply(int v, IntList out) {
+							for (int i = R.begin(v), end = R.end(v); i < end; i++) {
+								int u = R.target(i);
+								int cu = color.get(u);
+								if (cu == cf && color.compareAndSet(u, cf, cs)) out.add(u);
+								else if (cu == c && color.compareAndSet(u, c, cb)) out.add(u);
+							}
+						}
+					});
+				}
+
+				// 按颜色划分顶点
+				IntList fw = new IntList(), bw = new IntList(), rest = new IntList();
+				for (int i = 0; i < vertices.n; i++) {
+					int v = vertices.a[i];
+					int cv = color.get(v);
+					if      (cv == cf) fw.add(v);
+					else if (cv == cb) bw.add(v);
+					else if (cv == c)  rest.add(v);
+					else {
+						color.set(v, DONE);
+						rep[v] = pivot;
+					}
+				}
+				vertices = rest;
+				if (fw.n > 0) fork(forked, new Split(fw, cf));
+				if (bw.n > 0) fork(forked, new Split(bw, cb));
+			}
+			for (Split task : forked)
+				task.join();
+		}
+
+		private void fork(Stack<Split> forked, Split task) {
+			task.fork();
+			forked.push(task);
+		}
+	}
+
+	// 在颜色为c的顶点上运行非递归的Tarjan算法
+	private void tarjan(IntList vertices, int c) {
+		int n = vertices.n;
+		int[] stack = new int[n]; // Tarjan算法的顶点栈
+		int[] call = new int[n]; // 代替递归的调用栈
+		int sp = 0, cp = 0, pre = 0;
+		for (int i = 0; i < n; i++) {
+			int s = vertices.a[i];
+			if (index[s] != -1) continue;
+			index[s] = low[s] = pre++;
+			pos[s] = G.begin(s);
+			stack[sp++] = s;
+			onStack[s] = true;
+			call[cp++] = s;
+			while (cp > 0) {
+				int v = call[cp - 1];
+				if (pos[v] < G.end(v)) {
+					int w = G.target(pos[v]++);
+					if (color.get(w) != c) continue;
+					if (index[w] == -1) {
+						index[w] = low[w] = pre++;
+						pos[w] = G.begin(w);
+						stack[sp++] = w;
+						onStack[w] = true;
+						call[cp++] = w;
+					}
+					else if (onStack[w] && index[w] < low[v]) low[v] = index[w];
+					continue;
+				}
+				cp--;
+				if (cp > 0) {
+					int u = call[cp - 1];
+					if (low[v] < low[u]) low[u] = low[v];
+				}
+				if (low[v] == index[v]) {
+					int w;
+					do {
+						w = stack[--sp];
+						onStack[w] = false;
+						rep[w] = v;
+					} while (w != v);
+				}
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			color.set(vertices.a[i], DONE);
+		}
+	}
+
+	/**
+	 * 图中强连通分量的总数
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * v和w是强连通的吗
+	 */
+	public boolean stronglyConnected(int v, int w) {
+		return id[v] == id[w];
+	}
+
+	/**
+	 * v所在的强连通分量的标记符
+	 */
+	public int id(int v) {
+		return id[v];
+	}
+
+	/**
+	 * 测试
+	 *
+	 * java ParallelSCC tinyDG.txt
+	 * 5 components
+	 * 0 2 3 4 5
+	 * 1
+	 * 6 8
+	 * 7
+	 * 9 10 11 12
+	 */
+	@SuppressWarnings("unchecked")
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		Digraph G = new Digraph(in);
+		ParallelSCC scc = new ParallelSCC(G);
+
+		// 连通分量数
+		int M = scc.count();
+		StdOut.println(M + " components");
+
+		// 计算每个强连通分量的顶点数
+		Queue<Integer>[] components = (Queue<Integer>[]) new Queue[M];
+		for (int i = 0; i < M; i++) {
+			components[i] = new Queue<Integer>();
+		}
+		for (int v = 0; v < G.V(); v++) {
+			components[scc.id(v)].enqueue(v);
+		}
+
+		// 打印结果
+		for (int i = 0; i < M; i++) {
+			for (int v : components[i]) {
+				StdOut.print(v + " ");
+			}
+			StdOut.println();
+		}
+	}
+
+}
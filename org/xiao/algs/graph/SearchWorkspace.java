@@ -0,0 +1,202 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+
+import org.xiao.algs.queue.IndexMinDoublePQ;
+
+/***
+ *
+ * 最短路径和广度优先搜索的可复用工作区
+ *
+ * DijkstraSP、BellmanFordSP、AcyclicSP和BreadthFirstDirectedPaths每次构造都要分配并初始化长度为V的
+ * distTo、edgeTo、marked数组和优先队列，查询次数很多时这部分开销是主要成本
+ *
+ * 工作区把这些数组保存下来供多次查询复用，每个顶点带一个时间戳stamp[v]，每次查询开始时只把当前代数generation加一，
+ * stamp[v]不等于generation的顶点视为未访问(距离为无穷大)，因此重置的时间和本次查询访问到的顶点数成正比，而不是和V成正比
+ *
+ * 使用工作区构造的查询结果只在该工作区被下一次查询使用之前有效，之后再访问会抛出IllegalStateException
+ *
+ * 所有数组都在第一次使用时才分配(和pq()一样)，例如DijkstraSP只分配dist和edge，
+ * BreadthFirstDirectedPaths只分配parent、hops和queue；新分配的数组填充为未访问时的值，所以本次查询中已经访问过的顶点仍然正确；
+ * 第一次查询时所有数组都是新的，不需要stamp，第二次查询开始时才创建stamp，
+ * 所以只查询一次的DijkstraSP(G, s)等默认构造函数不会比单独分配distTo、edgeTo等数组更多
+ *
+ * 工作区不是线程安全的，多线程时每个线程使用自己的工作区，可以通过forCurrentThread(V)获得
+ *
+ * @author XiaoJian
+ *
+ */
+public class SearchWorkspace {
+	private static final ThreadLocal<SearchWorkspace> POOL = new ThreadLocal<SearchWorkspace>();
+	private static final int INIT_QUEUE = 16; // 队列的初始大小
+
+	private final int V; // 顶点数目
+	private int generation; // 当前查询的代数
+	private int[] stamp; // stamp[v] == generation时下面各数组中v的值有效，第一次查询时为null(所有值都有效)
+	private double[] dist; // 带权距离，第一次使用时创建
+	private DirectedEdge[] edge; // 最短路径树中指向v的边，第一次使用时创建
+	private int[] parent; // 广度优先搜索树中v的父顶点，或者最短路径树中指向v的边的下标，第一次使用时创建
+	private int[] hops; // 广度优先搜索中起点到v的边数，第一次使用时创建
+	private boolean[] onQueue; // v是否在队列中，第一次使用时创建
+	private int[] queue; // int队列，每个顶点最多同时入队一次，所以长度不超过V，第一次使用时创建，不够时加倍
+	private IndexMinDoublePQ pq; // 优先队列，第一次使用时创建
+
+	/**
+	 * 创建可以用于V个顶点的图的工作区
+	 */
+	public SearchWorkspace(int V) {
+		if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
+		this.V = V;
+	}
+
+	/**
+	 * 返回当前线程的工作区，顶点数不足V时重新创建一个
+	 */
+	public static SearchWorkspace forCurrentThread(int V) {
+		SearchWorkspace ws = POOL.get();
+		if (ws == null || ws.V < V) {
+			ws = new SearchWorkspace(V);
+			POOL.set(ws);
+		}
+		return ws;
+	}
+
+	/**
+	 * 工作区可以支持的顶点数目
+	 */
+	public int V() {
+		return V;
+	}
+
+	/**
+	 * 开始一次新的查询，之前查询的结果全部失效，返回本次查询的代数
+	 */
+	int reset(int V) {
+		if (V > this.V) throw new IllegalArgumentException("workspace supports " + this.V + " vertices, graph has " + V);
+		if (stamp == null) {
+			if (generation > 0) stamp = new int[this.V];
+		}
+		else if (generation == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			generation = 0;
+		}
+		generation++;
+		if (pq != null) pq.clear();
+		return generation;
+	}
+
+	/**
+	 * 本次查询的结果是否仍然有效
+	 */
+	void checkGeneration(int generation) {
+		if (generation != this.generation)
+			throw new IllegalStateException("search workspace has been reused by another query");
+	}
+
+	// 本次查询中第一次访问v时初始化v在已经创建的数组中的状态
+	private void touch(int v) {
+		if (stamp != null && stamp[v] != generation) {
+			stamp[v] = generation;
+			if (dist != null) dist[v] = Double.POSITIVE_INFINITY;
+			if (edge != null) edge[v] = null;
+			if (parent != null) parent[v] = -1;
+			if (hops != null) hops[v] = Integer.MAX_VALUE;
+			if (onQueue != null) onQueue[v] = false;
+		}
+	}
+
+	// v在本次查询中的值是否有效
+	private boolean current(int v) {
+		return stamp == null || stamp[v] == generation;
+	}
+
+	double dist(int v) {
+		return current(v) && dist != null ? dist[v] : Double.POSITIVE_INFINITY;
+	}
+
+	DirectedEdge edge(int v) {
+		return current(v) && edge != null ? edge[v] : null;
+	}
+
+	void setDist(int v, double d, DirectedEdge e) {
+		if (dist == null) createDist();
+		if (edge == null) edge = new DirectedEdge[V];
+		touch(v);
+		dist[v] = d;
+		edge[v] = e;
+	}
+
+	int edgeIndex(int v) {
+		return current(v) && parent != null ? parent[v] : -1;
+	}
+
+	// 用于按下标保存边的图(CSR图、收缩层次图)，边的下标保存在parent中
+	void setDist(int v, double d, int k) {
+		if (dist == null) createDist();
+		if (parent == null) createParent();
+		touch(v);
+		dist[v] = d;
+		parent[v] = k;
+	}
+
+	int hops(int v) {
+		return current(v) && hops != null ? hops[v] : Integer.MAX_VALUE;
+	}
+
+	int parent(int v) {
+		return current(v) && parent != null ? parent[v] : -1;
+	}
+
+	void setHops(int v, int h, int p) {
+		if (hops == null) {
+			hops = new int[V];
+			Arrays.fill(hops, Integer.MAX_VALUE);
+		}
+		if (parent == null) createParent();
+		touch(v);
+		hops[v] = h;
+		parent[v] = p;
+	}
+
+	boolean onQueue(int v) {
+		return current(v) && onQueue != null && onQueue[v];
+	}
+
+	void setOnQueue(int v, boolean b) {
+		if (onQueue == null) onQueue = new boolean[V];
+		touch(v);
+		onQueue[v] = b;
+	}
+
+	// 新创建的数组中所有顶点都是未访问时的值
+	private void createDist() {
+		dist = new double[V];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+	}
+
+	private void createParent() {
+		parent = new int[V];
+		Arrays.fill(parent, -1);
+	}
+
+	int[] queue() {
+		if (queue == null) queue = new int[Math.min(V, INIT_QUEUE)];
+		return queue;
+	}
+
+	// 队列已满时，把循环队列queue[head..]中的size个元素按顺序移到长度加倍(不超过V)的新数组的开头，返回新数组
+	int[] growQueue(int head, int size) {
+		int[] a = new int[(int) Math.min(V, 2L * queue.length)];
+		int n = Math.min(size, queue.length - head);
+		System.arraycopy(queue, head, a, 0, n);
+		System.arraycopy(queue, 0, a, n, size - n);
+		queue = a;
+		return a;
+	}
+
+	IndexMinDoublePQ pq() {
+		if (pq == null) pq = new IndexMinDoublePQ(V);
+		return pq;
+	}
+
+}
@@ -0,0 +1,187 @@
+package org.xiao.algs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Body;
+import org.xiao.algs.util.ParallelFor.IntList;
+
+/***
+ *
+ * 无环加权有向图的拓扑分层(并行Kahn算法)
+ *
+ * 入度为0的顶点在第0层，其余顶点所在的层 = 所有指向它的顶点所在的层的最大值 + 1，
+ * 所以每条边v->w都满足level(v) < level(w)，同一层的顶点之间没有边，可以并行处理
+ *
+ * 每一层并行地遍历当前层顶点的出边，用AtomicIntegerArray把终点的入度减1，减到0的顶点属于下一层
+ *
+ * 同时保存反向图，ParallelAcyclicSP和ParallelAcyclicLP按层拉取(pull)每个顶点的入边，
+ * 多次查询同一幅图时分层和反向图只需要计算一次
+ *
+ * @author XiaoJian
+ *
+ */
+public class TopologicalLevels {
+	static final int SEQUENTIAL_THRESHOLD = 1024; // 顶点少于该值时不拆分任务，ParallelAcyclicSP和ParallelAcyclicLP按层计算时也使用
+
+	private final CSREdgeWeightedDigraph G; // 原图
+	private final CSREdgeWeightedDigraph R; // 反向图
+	private final int[] level; // level[v] = 顶点v所在的层，在环上或者环之后的顶点为-1
+	private final int[] order; // 按层排列的顶点，同一层中的顺序不确定
+	private final int[] levelStart; // 第i层的顶点为order[levelStart[i] ~ levelStart[i+1]-1]
+	private final int levels; // 层数
+	private final int count; // 已经分层的顶点数，小于V说明有环
+
+	/**
+	 * 使用公共ForkJoinPool初始化
+	 */
+	public TopologicalLevels(EdgeWeightedDigraph G) {
+		this(new CSREdgeWeightedDigraph(G), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool在CSR图上初始化
+	 */
+	public TopologicalLevels(final CSREdgeWeightedDigraph G, ForkJoinPool pool) {
+		this.G = G;
+		this.R = G.reverse();
+		int V = G.V();
+		level = new int[V];
+		order = new int[V];
+		Arrays.fill(level, -1);
+		final AtomicIntegerArray indegree = new AtomicIntegerArray(V);
+
+		// 第0层：入度为0的顶点
+		IntList current = new IntList();
+		for (int v = 0; v < V; v++) {
+			int d = R.outdegree(v);
+			indegree.set(v, d);
+			if (d == 0) current.add(v);
+		}
+
+		IntList starts = new IntList();
+		int n = 0;
+		while (current.n > 0) {
+			int depth = starts.n;
+			starts.add(n);
+			for (int i = 0; i < current.n; i++) {
+				int v = current.a[i];
+				level[v] = depth;
+				order[n++] = v;
+			}
+
+			// 入度减到0的顶点属于下一层
+			current = ParallelFor.forEach(pool, current.a, 0, current.n, SEQUENTIAL_THRESHOLD, new Body() {
+				public void apply(int v, IntList out) {
+					for (int k = G.begin(v), end = G.end(v); k < end; k++) {
+						int w = G.to(k);
+						if (indegree.decrementAndGet(w) == 0) out.add(w);
+					}
+				}
+			});
+		}
+		starts.add(n);
+		levelStart = Arrays.copyOf(starts.a, starts.n);
+		levels = starts.n - 1;
+		count = n;
+	}
+
+	// 原图
+	CSREdgeWeightedDigraph graph() {
+		return G;
+	}
+
+	// 反向图，R中的第k条边w->v对应原图中的边v->w
+	CSREdgeWeightedDigraph reverse() {
+		return R;
+	}
+
+	// 按层排列的顶点
+	int[] orderArray() {
+		return order;
+	}
+
+	private void validateVertex(int v) {
+		if (v < 0 || v >= G.V()) throw new IndexOutOfBoundsException("vertex " + v + " is not between 0 and " + (G.V()-1));
+	}
+
+	/**
+	 * 图是无环的吗
+	 */
+	public boolean hasOrder() {
+		return count == G.V();
+	}
+
+	/**
+	 * 返回层数
+	 */
+	public int levels() {
+		return levels;
+	}
+
+	/**
+	 * 顶点v所在的层，v在环上或者可以从环到达时返回-1
+	 */
+	public int level(int v) {
+		validateVertex(v);
+		return level[v];
+	}
+
+	/**
+	 * 第i层的第一个顶点在order中的位置(包含)
+	 */
+	public int begin(int i) {
+		return levelStart[i];
+	}
+
+	/**
+	 * 第i层的最后一个顶点在order中的位置(不包含)
+	 */
+	public int end(int i) {
+		return levelStart[i + 1];
+	}
+
+	/**
+	 * 返回拓扑有序的所有顶点(按层排列)，有环时返回null
+	 */
+	public Iterable<Integer> order() {
+		if (!hasOrder()) return null;
+		Integer[] vertices = new Integer[order.length];
+		for (int i = 0; i < order.length; i++) vertices[i] = order[i];
+		return Arrays.asList(vertices);
+	}
+
+	/**
+	 * 测试，打印每一层的顶点
+	 *
+	 * java TopologicalLevels tinyEWDAG.txt
+	 *  level 0: 5
+	 *  level 1: 1
+	 *  level 2: 3
+	 *  level 3: 6
+	 *  level 4: 4
+	 *  level 5: 0 7
+	 *  level 6: 2
+	 */
+	public static void main(String[] args) {
+		In in = new In(args[0]);
+		CSREdgeWeightedDigraph G = new CSREdgeWeightedDigraph(in);
+		TopologicalLevels levels = new TopologicalLevels(G, ForkJoinPool.commonPool());
+		if (!levels.hasOrder()) {
+			StdOut.println("Digraph is not acyclic.");
+			return;
+		}
+		for (int i = 0; i < levels.levels(); i++) {
+			StdOut.print("level " + i + ":");
+			for (int j = levels.begin(i); j < levels.end(i); j++) {
+				StdOut.print(" " + levels.order[j]);
+			}
+			StdOut.println();
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package org.xiao.algs.graph;
+
+import org.xiao.algs.io.StdIn;
+import org.xiao.algs.io.StdOut;
+
+/***
+ * 使用路径压缩的加权 quick-union 算法实现（均摊复杂度接近常数）
+ *
+ * 和WeightedQuickUnionUF相同，但find时把路径上的所有节点直接连接到根节点，之后的查找只需要一步
+ *
+ * @author XiaoJian
+ *
+ */
+public class WeightedQuickUnionPathCompressionUF {
+	private int[] id; // 父链接数组（由触点索引组成）
+	private int[] sz; // 由触点索引的各个根节点所对应的分量的大小
+	private int count; // 连通分量的数量
+
+	/**
+	 * 以整数标志（0到N）初始化N个触点
+	 */
+	public WeightedQuickUnionPathCompressionUF(int N) {
+		if (N < 0) throw new IllegalArgumentException("Number of sites must be nonnegative");
+		count = N;
+		id = new int[N];
+		sz = new int[N];
+		for (int i = 0; i < N; i++) {
+			id[i] = i;
+			sz[i] = 1;
+		}
+	}
+
+	/**
+	 * 返回数量
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * p所在分量的标志符
+	 */
+	public int find(int p) {
+		if (p < 0 || p >= id.length) throw new IndexOutOfBoundsException("site " + p + " is not between 0 and " + (id.length-1));
+		// 找到根节点
+		int root = p;
+		while (root != id[root])
+			root = id[root];
+		// 把路径上的节点都连接到根节点
+		while (p != root) {
+			int next = id[p];
+			id[p] = root;
+			p = next;
+		}
+		return root;
+	}
+
+	/**
+	 * 如果p和q存在于同一个分量重则返回true
+	 */
+	public boolean connected(int p, int q) {
+		return find(p) == find(q);
+	}
+
+	/**
+	 * 在p和q之间添加一条连接
+	 */
+	public void union(int p, int q) {
+		int rootP = find(p);
+		int rootQ = find(q);
+		if (rootP == rootQ)
+			return;
+
+		// 将小树的根节点连接到大树的根节点
+		if (sz[rootP] < sz[rootQ]) {
+			id[rootP] = rootQ;
+			sz[rootQ] += sz[rootP];
+		} else {
+			id[rootQ] = rootP;
+			sz[rootP] += sz[rootQ];
+		}
+		count--;
+	}
+
+	/**
+	 * 测试
+	 * java WeightedQuickUnionPathCompressionUF < tinyUF.txt
+	 */
+	public static void main(String[] args) {
+		int N = StdIn.readInt();
+		WeightedQuickUnionPathCompressionUF uf = new WeightedQuickUnionPathCompressionUF(N);
+		while (!StdIn.isEmpty()) {
+			int p = StdIn.readInt();
+			int q = StdIn.readInt();
+			if (uf.connected(p, q))
+				continue;
+			uf.union(p, q);
+			StdOut.println(p + " " + q);
+		}
+		StdOut.println(uf.count() + " components");
+	}
+
+}
@@ -0,0 +1,395 @@
+package org.xiao.algs.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/***
+ *
+ * In的快速模式使用的词法分析器，不使用Scanner和正则表达式
+ *
+ * 从通道或者ByteBuffer中按块读取字节到byte数组，readInt、readLong、readDouble直接从字节解析，
+ * 不创建中间的String；只有readString、readLine等本来就要返回String的方法才解码字符串
+ *
+ * 分隔符是ASCII空白字符(和Character.isWhitespace相同)，文本按UTF-8解码；
+ * 数字格式错误时抛出InputMismatchException，和Scanner一样不消耗这个词
+ *
+ * readDouble在有效数字不超过15位、十进制指数的绝对值不超过22时直接用一次乘法或除法得到正确舍入的结果，
+ * 其他情况(很长的小数、NaN、Infinity等)交给Double.parseDouble
+ *
+ * @author XiaoJian
+ *
+ */
+final class ByteScanner {
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final ReadableByteChannel channel; // 从通道读取，否则为null
+	private final ByteBuffer source; // 从ByteBuffer读取，否则为null
+	private byte[] buf = new byte[BUFFER_SIZE];
+	private int pos; // 下一个要读取的字节
+	private int limit; // buf中有效字节的结束位置
+	private int mark = -1; // 正在读取的词的起始位置，填充缓冲区时保留从mark开始的字节
+	private boolean eof;
+	private char pending; // readChar读到补充平面的字符时，下一次返回的低位代理
+
+	ByteScanner(ReadableByteChannel channel) {
+		this.channel = channel;
+		this.source = null;
+	}
+
+	ByteScanner(ByteBuffer source) {
+		this.channel = null;
+		this.source = source;
+	}
+
+	// 读入下一块，保留正在读取的词；没有更多输入时返回false
+	private boolean fill() {
+		if (eof) return false;
+		int keep = 0;
+		if (mark >= 0) {
+			keep = limit - mark;
+			if (keep == buf.length) buf = Arrays.copyOf(buf, 2 * buf.length);
+			System.arraycopy(buf, mark, buf, 0, keep);
+			mark = 0;
+		}
+		pos = keep;
+		limit = keep;
+		int n;
+		if (channel != null) {
+			try {
+				ByteBuffer target = ByteBuffer.wrap(buf, keep, buf.length - keep);
+				do {
+					n = channel.read(target);
+				} while (n == 0);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not read input", e);
+			}
+		}
+		else {
+			n = Math.min(source.remaining(), buf.length - keep);
+			if (n == 0) n = -1;
+			else        source.get(buf, keep, n);
+		}
+		if (n < 0) {
+			eof = true;
+			return false;
+		}
+		limit += n;
+		return true;
+	}
+
+	private static boolean isWhitespace(int b) {
+		return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+	}
+
+	// 跳过空白字符，没有更多输入时返回false
+	private boolean skipWhitespace() {
+		while (true) {
+			if (pos == limit && !fill()) return false;
+			if (!isWhitespace(buf[pos])) return true;
+			pos++;
+		}
+	}
+
+	// 当前位置是词的结尾吗
+	private boolean atDelimiter() {
+		return (pos == limit && !fill()) || isWhitespace(buf[pos]);
+	}
+
+	// 读到词的结尾，返回从mark开始的词，保留mark
+	private String scanToken() {
+		while (!atDelimiter()) pos++;
+		return new String(buf, mark, pos - mark, UTF8);
+	}
+
+	// 读到词的结尾，返回从mark开始的词，然后清除mark
+	private String finishToken() {
+		String token = scanToken();
+		mark = -1;
+		return token;
+	}
+
+	// 和Scanner一样不消耗无法解析的词，回到它的开头，下一次读取仍然从这个词开始
+	private InputMismatchException mismatch() {
+		String token = scanToken();
+		pos = mark;
+		mark = -1;
+		return new InputMismatchException("invalid token: " + token);
+	}
+
+	boolean isEmpty() {
+		return pending == 0 && !skipWhitespace();
+	}
+
+	boolean hasNextLine() {
+		return pending != 0 || pos < limit || fill();
+	}
+
+	String readString() {
+		if (!skipWhitespace()) throw new NoSuchElementException();
+		mark = pos;
+		return finishToken();
+	}
+
+	long readLong() {
+		return readLong(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	int readInt() {
+		return (int) readLong(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	short readShort() {
+		return (short) readLong(Short.MIN_VALUE, Short.MAX_VALUE);
+	}
+
+	byte readByte() {
+		return (byte) readLong(Byte.MIN_VALUE, Byte.MAX_VALUE);
+	}
+
+	// 读取一个在[min, max]范围内的整数，按负数累加，所以min可以是Long.MIN_VALUE
+	private long readLong(long min, long max) {
+		if (!skipWhitespace()) throw new NoSuchElementException();
+		mark = pos;
+		boolean negative = false;
+		byte b = buf[pos];
+		if (b == '-' || b == '+') {
+			negative = b == '-';
+			pos++;
+		}
+		long bound = negative ? min : -max;
+		long multmin = bound / 10;
+		long x = 0;
+		int digits = 0;
+		while (!atDelimiter()) {
+			int d = buf[pos] - '0';
+			if (d < 0 || d > 9 || x < multmin) throw mismatch();
+			x *= 10;
+			if (x < bound + d) throw mismatch();
+			x -= d;
+			pos++;
+			digits++;
+		}
+		if (digits == 0) throw mismatch();
+		mark = -1;
+		return negative ? x : -x;
+	}
+
+	double readDouble() {
+		if (!skipWhitespace()) throw new NoSuchElementException();
+		mark = pos;
+		boolean negative = false;
+		byte b = buf[pos];
+		if (b == '-' || b == '+') {
+			negative = b == '-';
+			pos++;
+		}
+
+		// 尾数的有效数字和小数点后的位数
+		long m = 0;
+		int significant = 0, digits = 0, scale = 0;
+		boolean point = false;
+		while (!atDelimiter()) {
+			b = buf[pos];
+			if (b >= '0' && b <= '9') {
+				if (m != 0 || b != '0') {
+					if (significant < 18) m = 10 * m + (b - '0');
+					significant++;
+				}
+				if (point) scale++;
+				digits++;
+			}
+			else if (b == '.' && !point) point = true;
+			else break;
+			pos++;
+		}
+
+		// 指数
+		int exponent = 0;
+		if (digits > 0 && !atDelimiter() && (buf[pos] == 'e' || buf[pos] == 'E')) {
+			pos++;
+			boolean negativeExponent = false;
+			if (!atDelimiter() && (buf[pos] == '-' || buf[pos] == '+')) {
+				negativeExponent = buf[pos] == '-';
+				pos++;
+			}
+			int expDigits = 0;
+			while (!atDelimiter() && buf[pos] >= '0' && buf[pos] <= '9') {
+				if (exponent < 100000) exponent = 10 * exponent + (buf[pos] - '0');
+				pos++;
+				expDigits++;
+			}
+			if (expDigits == 0) return slowDouble();
+			if (negativeExponent) exponent = -exponent;
+		}
+		if (digits == 0 || !atDelimiter()) return slowDouble();
+
+		int e = exponent - scale;
+		if (significant <= 15 && e >= -22 && e <= 22) {
+			double x = m;
+			if (e >= 0) x *= POWERS_OF_TEN[e];
+			else        x /= POWERS_OF_TEN[-e];
+			mark = -1;
+			return negative ? -x : x;
+		}
+		return slowDouble();
+	}
+
+	// 交给Double.parseDouble解析从mark开始的词
+	private double slowDouble() {
+		double x;
+		try {
+			x = Double.parseDouble(scanToken());
+		}
+		catch (NumberFormatException e) {
+			throw mismatch();
+		}
+		mark = -1;
+		return x;
+	}
+
+	float readFloat() {
+		if (!skipWhitespace()) throw new NoSuchElementException();
+		mark = pos;
+		float x;
+		try {
+			x = Float.parseFloat(scanToken());
+		}
+		catch (NumberFormatException e) {
+			throw mismatch();
+		}
+		mark = -1;
+		return x;
+	}
+
+	// 读取一行，不包含行尾的\n、\r\n或\r；没有更多输入时返回null
+	String readLine() {
+		if (!hasNextLine()) return null;
+		String prefix = "";
+		if (pending != 0) {
+			prefix = String.valueOf(pending);
+			pending = 0;
+		}
+		mark = pos;
+		while (true) {
+			if (pos == limit && !fill()) break;
+			byte b = buf[pos];
+			if (b == '\n' || b == '\r') break;
+			pos++;
+		}
+		String line = prefix + new String(buf, mark, pos - mark, UTF8);
+		mark = -1;
+		if (pos < limit) {
+			if (buf[pos++] == '\r' && (pos < limit || fill()) && buf[pos] == '\n') pos++;
+		}
+		return line;
+	}
+
+	// 按UTF-8解码下一个字符
+	char readChar() {
+		if (pending != 0) {
+			char c = pending;
+			pending = 0;
+			return c;
+		}
+		if (pos == limit && !fill()) throw new NoSuchElementException();
+		int b = buf[pos++] & 0xFF;
+		if (b < 0x80) return (char) b;
+		int n = b >= 0xF0 ? 3 : b >= 0xE0 ? 2 : 1;
+		int c = b & (0x3F >> n);
+		for (int i = 0; i < n; i++) {
+			if (pos == limit && !fill()) throw new InputMismatchException("truncated UTF-8 sequence");
+			c = (c << 6) | (buf[pos++] & 0x3F);
+		}
+		if (c < Character.MIN_SUPPLEMENTARY_CODE_POINT) return (char) c;
+		pending = Character.lowSurrogate(c);
+		return Character.highSurrogate(c);
+	}
+
+	String readAll() {
+		StringBuilder s = new StringBuilder();
+		if (pending != 0) {
+			s.append(pending);
+			pending = 0;
+		}
+		mark = pos;
+		while (fill()) {
+			pos = limit;
+		}
+		s.append(new String(buf, mark, limit - mark, UTF8));
+		mark = -1;
+		pos = limit;
+		return s.toString();
+	}
+
+	String[] readAllStrings() {
+		ArrayList<String> tokens = new ArrayList<String>();
+		while (!isEmpty())
+			tokens.add(readString());
+		return tokens.toArray(new String[0]);
+	}
+
+	int[] readAllInts() {
+		int[] a = new int[16];
+		int n = 0;
+		while (skipWhitespace()) {
+			if (n == a.length) a = Arrays.copyOf(a, 2 * n);
+			a[n++] = readInt();
+		}
+		return Arrays.copyOf(a, n);
+	}
+
+	long[] readAllLongs() {
+		long[] a = new long[16];
+		int n = 0;
+		while (skipWhitespace()) {
+			if (n == a.length) a = Arrays.copyOf(a, 2 * n);
+			a[n++] = readLong();
+		}
+		return Arrays.copyOf(a, n);
+	}
+
+	double[] readAllDoubles() {
+		double[] a = new double[16];
+		int n = 0;
+		while (skipWhitespace()) {
+			if (n == a.length) a = Arrays.copyOf(a, 2 * n);
+			a[n++] = readDouble();
+		}
+		return Arrays.copyOf(a, n);
+	}
+
+	// 统计剩余输入中词的数目，读完所有输入
+	int countTokens() {
+		int count = 0;
+		boolean inToken = false;
+		while (pos < limit || fill()) {
+			for (int i = pos; i < limit; i++) {
+				boolean whitespace = isWhitespace(buf[i]);
+				if (!whitespace && !inToken) count++;
+				inToken = !whitespace;
+			}
+			pos = limit;
+		}
+		return count;
+	}
+
+	void close() {
+		if (channel == null) return;
+		try {
+			channel.close();
+		}
+		catch (IOException e) { }
+	}
+}
@@ -0,0 +1,207 @@
+package org.xiao.algs.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/***
+ *
+ * Out和StdOut的快速模式使用的输出缓冲区，不使用PrintWriter
+ *
+ * 所有输出先按UTF-8编码到一个很大的byte数组中，满了或者调用flush()时才一次写入通道，
+ * print不会自动刷新；int、long直接在缓冲区中生成数字，不创建String
+ *
+ * double在[1e-3, 1e7)范围内时同样不创建String，输出能精确还原的最短小数(至少一位小数，如1.0)，
+ * 其他范围和float按String.valueOf的格式输出
+ *
+ * @author XiaoJian
+ *
+ */
+final class ByteWriter {
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final byte[] LINE_SEPARATOR = System.getProperty("line.separator").getBytes();
+	private static final byte[] DIGIT_ONES = new byte[100]; // DIGIT_ONES[i] = i的个位
+	private static final byte[] DIGIT_TENS = new byte[100]; // DIGIT_TENS[i] = i的十位
+	private static final long[] POWERS_OF_TEN = new long[19];
+	private static final double[] DOUBLE_POWERS_OF_TEN = new double[19];
+	private static final long MAX_EXACT = 1L << 53; // 小于该值的long都可以精确表示为double
+
+	static {
+		for (int i = 0; i < 100; i++) {
+			DIGIT_ONES[i] = (byte) ('0' + i % 10);
+			DIGIT_TENS[i] = (byte) ('0' + i / 10);
+		}
+		POWERS_OF_TEN[0] = 1;
+		DOUBLE_POWERS_OF_TEN[0] = 1.0;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+			DOUBLE_POWERS_OF_TEN[i] = POWERS_OF_TEN[i];
+		}
+	}
+
+	private final WritableByteChannel channel;
+	private final byte[] buf = new byte[BUFFER_SIZE];
+	private final ByteBuffer wrapper = ByteBuffer.wrap(buf);
+	private int n; // 缓冲区中的字节数
+
+	ByteWriter(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	// 保证缓冲区中至少还有size个字节的空间(size不超过BUFFER_SIZE)
+	private void reserve(int size) {
+		if (n + size > buf.length) flush();
+	}
+
+	void flush() {
+		if (n == 0) return;
+		try {
+			wrapper.clear().limit(n);
+			while (wrapper.hasRemaining())
+				channel.write(wrapper);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Could not write output", e);
+		}
+		n = 0;
+	}
+
+	void close() {
+		flush();
+		try {
+			channel.close();
+		}
+		catch (IOException e) { }
+	}
+
+	void newLine() {
+		reserve(LINE_SEPARATOR.length);
+		for (byte b : LINE_SEPARATOR)
+			buf[n++] = b;
+	}
+
+	void print(char c) {
+		if (c < 0x80) {
+			reserve(1);
+			buf[n++] = (byte) c;
+		}
+		else print(String.valueOf(c));
+	}
+
+	void print(boolean x) {
+		print(x ? "true" : "false");
+	}
+
+	// 按UTF-8编码字符串
+	void print(String s) {
+		if (s == null) s = "null";
+		int length = s.length();
+		for (int i = 0; i < length; i++) {
+			reserve(4);
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				buf[n++] = (byte) c;
+			}
+			else if (c < 0x800) {
+				buf[n++] = (byte) (0xC0 | (c >> 6));
+				buf[n++] = (byte) (0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				buf[n++] = (byte) (0xF0 | (cp >> 18));
+				buf[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buf[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buf[n++] = (byte) (0x80 | (cp & 0x3F));
+			}
+			else if (Character.isSurrogate(c)) {
+				buf[n++] = '?';
+			}
+			else {
+				buf[n++] = (byte) (0xE0 | (c >> 12));
+				buf[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buf[n++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	void print(int x) {
+		print((long) x);
+	}
+
+	void print(long x) {
+		reserve(20);
+		if (x < 0) {
+			buf[n++] = '-';
+			if (x == Long.MIN_VALUE) {
+				// -x溢出，先输出最高位
+				buf[n++] = '9';
+				x = -(x + 9 * POWERS_OF_TEN[18]);
+			}
+			else x = -x;
+		}
+		n += digits(x);
+		writeDigits(x, n);
+	}
+
+	// 非负整数x的位数
+	private static int digits(long x) {
+		int d = 1;
+		while (d < POWERS_OF_TEN.length && x >= POWERS_OF_TEN[d]) d++;
+		return d;
+	}
+
+	// 把非负整数x的各位从end-1开始往前写入缓冲区，每次两位
+	private void writeDigits(long x, int end) {
+		int i = end;
+		while (x >= 100) {
+			int r = (int) (x % 100);
+			x /= 100;
+			buf[--i] = DIGIT_ONES[r];
+			buf[--i] = DIGIT_TENS[r];
+		}
+		int r = (int) x;
+		buf[--i] = DIGIT_ONES[r];
+		if (r >= 10) buf[--i] = DIGIT_TENS[r];
+	}
+
+	void print(double x) {
+		double abs = Math.abs(x);
+		if (abs >= 1e-3 && abs < 1e7) {
+			// 找到最少的小数位数p，使得m / 10^p恰好还原为abs
+			int intDigits = abs < 1.0 ? 1 : digits((long) abs);
+			for (int p = 1; p + intDigits <= 17; p++) {
+				long m = Math.round(abs * DOUBLE_POWERS_OF_TEN[p]);
+				if (m >= MAX_EXACT) break;
+				if (m / DOUBLE_POWERS_OF_TEN[p] == abs) {
+					writeDecimal(x < 0, m, p);
+					return;
+				}
+			}
+		}
+		else if (x == 0.0) {
+			print(1 / x < 0 ? "-0.0" : "0.0");
+			return;
+		}
+		print(String.valueOf(x));
+	}
+
+	// 输出m / 10^p，小数点后恰好p位
+	private void writeDecimal(boolean negative, long m, int p) {
+		reserve(24);
+		if (negative) buf[n++] = '-';
+		long intPart = m / POWERS_OF_TEN[p];
+		long fraction = m - intPart * POWERS_OF_TEN[p];
+		n += digits(intPart);
+		writeDigits(intPart, n);
+		buf[n++] = '.';
+		// 小数部分补足前导0
+		for (int i = n; i < n + p; i++)
+			buf[i] = '0';
+		n += p;
+		writeDigits(fraction, n);
+	}
+
+	void print(float x) {
+		print(String.valueOf(x));
+	}
+}
@@ -2,10 +2,13 @@ package org.xiao.algs.io;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.Locale;
@@ -16,12 +19,18 @@ import java.util.regex.Pattern;
  * 
  * 对StdIn的扩展，可以从多个输入流读取，包括多个文件，多个URL等
  * 
+ * 默认使用Scanner解析，每个词都要经过正则表达式并创建String；
+ * 从通道或者ByteBuffer构造(或者用In.fast(filename)打开文件)时使用快速模式，
+ * 方法完全相同，但直接从字节解析数字，适合读取很大的边列表和数值数据，
+ * readInts、readLongs、readDoubles可以把数字直接读入基本类型数组
+ * 
  * @author XiaoJian
  *
  */
 public final class In {
 
 	private Scanner scanner;
+	private ByteScanner fast; // 快速模式，否则为null
 
 	/*** begin: section (1 of 2) of code duplicated from In to StdIn */
 
@@ -139,11 +148,37 @@ public final class In {
 		this.scanner = scanner;
 	}
 
+	/**
+	 * 快速模式，从通道读取，比如FileChannel
+	 */
+	public In(ReadableByteChannel channel) {
+		fast = new ByteScanner(channel);
+	}
+
+	/**
+	 * 快速模式，从buffer的当前位置读到limit，可以是很大的直接缓冲区或者MappedByteBuffer
+	 */
+	public In(ByteBuffer buffer) {
+		fast = new ByteScanner(buffer);
+	}
+
+	/**
+	 * 以快速模式打开文件
+	 */
+	public static In fast(String filename) {
+		try {
+			return new In(new FileInputStream(filename).getChannel());
+		} catch (IOException ioe) {
+			System.err.println("Could not open " + filename);
+			return new In((Scanner) null);
+		}
+	}
+
 	/**
 	 * Does the input stream exist?
 	 */
 	public boolean exists() {
-		return scanner != null;
+		return scanner != null || fast != null;
 	}
 
 	/***
@@ -157,6 +192,7 @@ public final class In {
 	 * etc will succeed.
 	 */
 	public boolean isEmpty() {
+		if (fast != null) return fast.isEmpty();
 		return !scanner.hasNext();
 	}
 
@@ -167,6 +203,7 @@ public final class In {
 	 * Functionally equivalent to {@link #hasNextChar()}.
 	 */
 	public boolean hasNextLine() {
+		if (fast != null) return fast.hasNextLine();
 		return scanner.hasNextLine();
 	}
 
@@ -177,6 +214,7 @@ public final class In {
 	 * Functionally equivalent to {@link #hasNextLine()}.
 	 */
 	public boolean hasNextChar() {
+		if (fast != null) return fast.hasNextLine();
 		scanner.useDelimiter(EMPTY_PATTERN);
 		boolean result = scanner.hasNext();
 		scanner.useDelimiter(WHITESPACE_PATTERN);
@@ -187,6 +225,7 @@ public final class In {
 	 * Read and return the next line.
 	 */
 	public String readLine() {
+		if (fast != null) return fast.readLine();
 		String line;
 		try {
 			line = scanner.nextLine();
@@ -200,6 +239,7 @@ public final class In {
 	 * Read and return the next character.
 	 */
 	public char readChar() {
+		if (fast != null) return fast.readChar();
 		scanner.useDelimiter(EMPTY_PATTERN);
 		String ch = scanner.next();
 		assert (ch.length() == 1) : "Internal (Std)In.readChar() error!"
@@ -212,6 +252,7 @@ public final class In {
 	 * Read and return the remainder of the input as a string.
 	 */
 	public String readAll() {
+		if (fast != null) return fast.readAll();
 		if (!scanner.hasNextLine())
 			return "";
 
@@ -225,6 +266,7 @@ public final class In {
 	 * Read and return the next string.
 	 */
 	public String readString() {
+		if (fast != null) return fast.readString();
 		return scanner.next();
 	}
 
@@ -232,6 +274,7 @@ public final class In {
 	 * Read and return the next int.
 	 */
 	public int readInt() {
+		if (fast != null) return fast.readInt();
 		return scanner.nextInt();
 	}
 
@@ -239,6 +282,7 @@ public final class In {
 	 * Read and return the next double.
 	 */
 	public double readDouble() {
+		if (fast != null) return fast.readDouble();
 		return scanner.nextDouble();
 	}
 
@@ -246,6 +290,7 @@ public final class In {
 	 * Read and return the next float.
 	 */
 	public float readFloat() {
+		if (fast != null) return fast.readFloat();
 		return scanner.nextFloat();
 	}
 
@@ -253,6 +298,7 @@ public final class In {
 	 * Read and return the next long.
 	 */
 	public long readLong() {
+		if (fast != null) return fast.readLong();
 		return scanner.nextLong();
 	}
 
@@ -260,6 +306,7 @@ public final class In {
 	 * Read and return the next short.
 	 */
 	public short readShort() {
+		if (fast != null) return fast.readShort();
 		return scanner.nextShort();
 	}
 
@@ -267,6 +314,7 @@ public final class In {
 	 * Read and return the next byte.
 	 */
 	public byte readByte() {
+		if (fast != null) return fast.readByte();
 		return scanner.nextByte();
 	}
 
@@ -291,6 +339,7 @@ public final class In {
 	 * Read all strings until the end of input is reached, and return them.
 	 */
 	public String[] readAllStrings() {
+		if (fast != null) return fast.readAllStrings();
 		// we could use readAll.trim().split(), but that's not consistent
 		// since trim() uses characters 0x00..0x20 as whitespace
 		String[] tokens = WHITESPACE_PATTERN.split(readAll());
@@ -320,6 +369,7 @@ public final class In {
 	 * Read all ints until the end of input is reached, and return them.
 	 */
 	public int[] readAllInts() {
+		if (fast != null) return fast.readAllInts();
 		String[] fields = readAllStrings();
 		int[] vals = new int[fields.length];
 		for (int i = 0; i < fields.length; i++)
@@ -331,6 +381,7 @@ public final class In {
 	 * Read all doubles until the end of input is reached, and return them.
 	 */
 	public double[] readAllDoubles() {
+		if (fast != null) return fast.readAllDoubles();
 		String[] fields = readAllStrings();
 		double[] vals = new double[fields.length];
 		for (int i = 0; i < fields.length; i++)
@@ -338,13 +389,50 @@ public final class In {
 		return vals;
 	}
 
+	/**
+	 * 读取接下来的n个int，依次存入a[offset ~ offset+n-1]
+	 */
+	public void readInts(int[] a, int offset, int n) {
+		for (int i = offset; i < offset + n; i++)
+			a[i] = readInt();
+	}
+
+	/**
+	 * 读取接下来的n个long，依次存入a[offset ~ offset+n-1]
+	 */
+	public void readLongs(long[] a, int offset, int n) {
+		for (int i = offset; i < offset + n; i++)
+			a[i] = readLong();
+	}
+
+	/**
+	 * 读取接下来的n个double，依次存入a[offset ~ offset+n-1]
+	 */
+	public void readDoubles(double[] a, int offset, int n) {
+		for (int i = offset; i < offset + n; i++)
+			a[i] = readDouble();
+	}
+
+	/**
+	 * Read all longs until the end of input is reached, and return them.
+	 */
+	public long[] readAllLongs() {
+		if (fast != null) return fast.readAllLongs();
+		String[] fields = readAllStrings();
+		long[] vals = new long[fields.length];
+		for (int i = 0; i < fields.length; i++)
+			vals[i] = Long.parseLong(fields[i]);
+		return vals;
+	}
+
 	/*** end: section (2 of 2) of code duplicated from In to StdIn */
 
 	/**
 	 * Close the input stream.
 	 */
 	public void close() {
-		scanner.close();
+		if (fast != null) fast.close();
+		else              scanner.close();
 	}
 
 	/**
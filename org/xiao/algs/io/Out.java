@@ -6,12 +6,17 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.channels.WritableByteChannel;
 import java.util.Locale;
 
 /***
  * 
  * 对StdOut的扩展，可以从多个流输出
  * 
+ * 默认每次print都会刷新；从通道构造(或者用Out.fast(filename)打开文件)时使用快速模式，
+ * 输出先写入很大的缓冲区，只在缓冲区满、调用flush()或close()时才写入通道，
+ * int、long、double直接编码为字节，不创建String，print(int[])等方法可以批量输出数组
+ * 
  * @author XiaoJian
  *
  */
@@ -23,7 +28,11 @@ public class Out {
     // assume language = English, country = US for consistency with In
     private static final Locale LOCALE = Locale.US;
 
+    // 和println()、ByteWriter.newLine()使用相同的换行符
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
     private PrintWriter out;
+    private ByteWriter fast; // 快速模式，否则为null
 
    /**
      * Create an Out object using an OutputStream.
@@ -65,10 +74,40 @@ public class Out {
         catch (IOException e) { e.printStackTrace(); }
     }
 
+   /**
+     * 快速模式，输出到通道，比如FileChannel
+     */
+    public Out(WritableByteChannel channel) {
+        fast = new ByteWriter(channel);
+    }
+
+   /**
+     * 以快速模式打开文件
+     */
+    public static Out fast(String filename) {
+        try {
+            return new Out(new FileOutputStream(filename).getChannel());
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("Could not open " + filename, e);
+        }
+    }
+
    /**
      * Close the output stream.
      */
-    public void close() { out.close(); }
+    public void close() {
+        if (fast != null) fast.close();
+        else              out.close();
+    }
+
+   /**
+     * 刷新输出流
+     */
+    public void flush() {
+        if (fast != null) fast.flush();
+        else              out.flush();
+    }
 
 
 
@@ -76,6 +115,10 @@ public class Out {
      * Terminate the line.
      */
     public void println() {
+        if (fast != null) {
+            fast.newLine();
+            return;
+        }
         out.println();
     }
 
@@ -83,6 +126,11 @@ public class Out {
      * Print an object and then terminate the line.
      */
     public void println(Object x) {
+        if (fast != null) {
+            fast.print(String.valueOf(x));
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -90,6 +138,11 @@ public class Out {
      * Print a boolean and then terminate the line.
      */
     public void println(boolean x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -97,6 +150,11 @@ public class Out {
      * Print a char and then terminate the line.
      */
     public void println(char x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -104,6 +162,11 @@ public class Out {
      * Print an double and then terminate the line.
      */
     public void println(double x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -111,6 +174,11 @@ public class Out {
      * Print a float and then terminate the line.
      */
     public void println(float x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -118,6 +186,11 @@ public class Out {
      * Print an int and then terminate the line.
      */
     public void println(int x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -125,6 +198,11 @@ public class Out {
      * Print a long and then terminate the line.
      */
     public void println(long x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -132,6 +210,11 @@ public class Out {
      * Print a byte and then terminate the line.
      */
     public void println(byte x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
@@ -141,13 +224,17 @@ public class Out {
      * Flush the output stream.
      */
     public void print() {
-        out.flush();
+        flush();
     }
 
    /**
      * Print an object and then flush the output stream.
      */
     public void print(Object x) {
+        if (fast != null) {
+            fast.print(String.valueOf(x));
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -156,6 +243,10 @@ public class Out {
      * Print an boolean and then flush the output stream.
      */
     public void print(boolean x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -164,6 +255,10 @@ public class Out {
      * Print an char and then flush the output stream.
      */
     public void print(char x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -172,6 +267,10 @@ public class Out {
      * Print an double and then flush the output stream.
      */
     public void print(double x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -180,6 +279,10 @@ public class Out {
      * Print a float and then flush the output stream.
      */
     public void print(float x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -188,6 +291,10 @@ public class Out {
      * Print an int and then flush the output stream.
      */
     public void print(int x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -196,6 +303,10 @@ public class Out {
      * Print a long and then flush the output stream.
      */
     public void print(long x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -204,6 +315,10 @@ public class Out {
      * Print a byte and then flush the output stream.
      */
     public void print(byte x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -213,6 +328,10 @@ public class Out {
      * and then flush the output stream.
      */
     public void printf(String format, Object... args) {
+        if (fast != null) {
+            fast.print(String.format(LOCALE, format, args));
+            return;
+        }
         out.printf(LOCALE, format, args);
         out.flush();
     }
@@ -222,11 +341,123 @@ public class Out {
      * and then flush the output stream.
      */
     public void printf(Locale locale, String format, Object... args) {
+        if (fast != null) {
+            fast.print(String.format(locale, format, args));
+            return;
+        }
         out.printf(locale, format, args);
         out.flush();
     }
 
 
+   /**
+     * 输出a[lo ~ hi-1]，每个元素后面输出separator
+     */
+    public void print(int[] a, int lo, int hi, char separator) {
+        if (fast != null) {
+            for (int i = lo; i < hi; i++) {
+                fast.print(a[i]);
+                fast.print(separator);
+            }
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            out.print(a[i]);
+            out.print(separator);
+        }
+        out.flush();
+    }
+
+   /**
+     * 输出a[lo ~ hi-1]，每个元素后面输出separator
+     */
+    public void print(long[] a, int lo, int hi, char separator) {
+        if (fast != null) {
+            for (int i = lo; i < hi; i++) {
+                fast.print(a[i]);
+                fast.print(separator);
+            }
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            out.print(a[i]);
+            out.print(separator);
+        }
+        out.flush();
+    }
+
+   /**
+     * 输出a[lo ~ hi-1]，每个元素后面输出separator
+     */
+    public void print(double[] a, int lo, int hi, char separator) {
+        if (fast != null) {
+            for (int i = lo; i < hi; i++) {
+                fast.print(a[i]);
+                fast.print(separator);
+            }
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            out.print(a[i]);
+            out.print(separator);
+        }
+        out.flush();
+    }
+
+   /**
+     * 每行输出数组中的一个元素，换行符和println()相同
+     */
+    public void print(int[] a) {
+        if (fast != null) {
+            for (int i = 0; i < a.length; i++) {
+                fast.print(a[i]);
+                fast.newLine();
+            }
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            out.print(a[i]);
+            out.print(LINE_SEPARATOR);
+        }
+        out.flush();
+    }
+
+   /**
+     * 每行输出数组中的一个元素，换行符和println()相同
+     */
+    public void print(long[] a) {
+        if (fast != null) {
+            for (int i = 0; i < a.length; i++) {
+                fast.print(a[i]);
+                fast.newLine();
+            }
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            out.print(a[i]);
+            out.print(LINE_SEPARATOR);
+        }
+        out.flush();
+    }
+
+   /**
+     * 每行输出数组中的一个元素，换行符和println()相同
+     */
+    public void print(double[] a) {
+        if (fast != null) {
+            for (int i = 0; i < a.length; i++) {
+                fast.print(a[i]);
+                fast.newLine();
+            }
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            out.print(a[i]);
+            out.print(LINE_SEPARATOR);
+        }
+        out.flush();
+    }
+
    /**
      * A test client.
      */
@@ -242,6 +473,12 @@ public class Out {
         out = new Out("test.txt");
         out.println("Test 2");
         out.close();
+
+        // write to a file in fast mode
+        out = Out.fast("test.txt");
+        out.println("Test 3");
+        out.print(new int[] { 1, 2, 3 });
+        out.close();
     }
 
 }
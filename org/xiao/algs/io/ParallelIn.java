@@ -0,0 +1,333 @@
+package org.xiao.algs.io;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Task;
+
+/***
+ *
+ * 并行读取只包含数字的大文件
+ *
+ * 把文件按CHUNK_SIZE分块，每个分界点向后移动到第一个空白字符，所以不会有数字跨越两块；
+ * 每块用FileChannel.map映射，由ByteScanner直接从字节解析
+ *
+ * readAllInts等方法读两遍：第一遍并行统计每块中数字的个数并计算每块在结果中的起始位置，
+ * 第二遍并行解析，每块直接写入同一个基本类型数组中自己的那一段；
+ * 堆中只有结果数组，不像In.readAllInts()那样先读入整个String再拆分为String[]
+ *
+ * ints()、doubles()返回流，按块依次映射和解析，只占用常数内存；
+ * 流是有序的，调用parallel()时按块拆分给多个线程；用完后应该关闭流
+ *
+ * @author XiaoJian
+ *
+ */
+public final class ParallelIn {
+	private static final long CHUNK_SIZE = 1 << 24; // 每块16MB
+
+	private ParallelIn() { }
+
+	/**
+	 * 使用公共ForkJoinPool读取文件中的所有int
+	 */
+	public static int[] readAllInts(String filename) {
+		return readAllInts(filename, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool读取文件中的所有int
+	 */
+	public static int[] readAllInts(String filename, ForkJoinPool pool) {
+		Chunks chunks = new Chunks(filename);
+		try {
+			final int[] a = new int[chunks.count(pool)];
+			chunks.parse(pool, new Parser() {
+				void parse(ByteScanner in, int offset, int n) {
+					for (int i = offset; i < offset + n; i++)
+						a[i] = in.readInt();
+				}
+			});
+			return a;
+		}
+		finally {
+			chunks.close();
+		}
+	}
+
+	/**
+	 * 使用公共ForkJoinPool读取文件中的所有long
+	 */
+	public static long[] readAllLongs(String filename) {
+		return readAllLongs(filename, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool读取文件中的所有long
+	 */
+	public static long[] readAllLongs(String filename, ForkJoinPool pool) {
+		Chunks chunks = new Chunks(filename);
+		try {
+			final long[] a = new long[chunks.count(pool)];
+			chunks.parse(pool, new Parser() {
+				void parse(ByteScanner in, int offset, int n) {
+					for (int i = offset; i < offset + n; i++)
+						a[i] = in.readLong();
+				}
+			});
+			return a;
+		}
+		finally {
+			chunks.close();
+		}
+	}
+
+	/**
+	 * 使用公共ForkJoinPool读取文件中的所有double
+	 */
+	public static double[] readAllDoubles(String filename) {
+		return readAllDoubles(filename, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool读取文件中的所有double
+	 */
+	public static double[] readAllDoubles(String filename, ForkJoinPool pool) {
+		Chunks chunks = new Chunks(filename);
+		try {
+			final double[] a = new double[chunks.count(pool)];
+			chunks.parse(pool, new Parser() {
+				void parse(ByteScanner in, int offset, int n) {
+					for (int i = offset; i < offset + n; i++)
+						a[i] = in.readDouble();
+				}
+			});
+			return a;
+		}
+		finally {
+			chunks.close();
+		}
+	}
+
+	/**
+	 * 文件中所有int组成的流
+	 */
+	public static IntStream ints(String filename) {
+		final Chunks chunks = new Chunks(filename);
+		return StreamSupport.intStream(new IntChunkSpliterator(chunks, 0, chunks.size()), false).onClose(new Runnable() {
+			public void run() {
+				chunks.close();
+			}
+		});
+	}
+
+	/**
+	 * 文件中所有double组成的流
+	 */
+	public static DoubleStream doubles(String filename) {
+		final Chunks chunks = new Chunks(filename);
+		return StreamSupport.doubleStream(new DoubleChunkSpliterator(chunks, 0, chunks.size()), false).onClose(new Runnable() {
+			public void run() {
+				chunks.close();
+			}
+		});
+	}
+
+	// 解析第i块，这一块中有n个数字，结果从offset开始存放
+	private abstract static class Parser {
+		abstract void parse(ByteScanner in, int offset, int n);
+	}
+
+	// 文件的分块
+	private static class Chunks {
+		private final RandomAccessFile file;
+		private final FileChannel channel;
+		private final long[] bounds; // 第i块为文件中的[bounds[i], bounds[i+1])
+		private int[] offsets; // 第i块的第一个数字在结果中的位置，最后一个元素是数字的总数
+
+		Chunks(String filename) {
+			try {
+				file = new RandomAccessFile(filename, "r");
+				channel = file.getChannel();
+				long size = channel.size();
+				int k = (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+				bounds = new long[k + 1];
+				ByteBuffer probe = ByteBuffer.allocate(64);
+				for (int i = 1; i < k; i++) {
+					bounds[i] = nextWhitespace(probe, Math.max(i * CHUNK_SIZE, bounds[i - 1]), size);
+				}
+				bounds[k] = size;
+			}
+			catch (IOException e) {
+				throw new IllegalArgumentException("Could not open " + filename, e);
+			}
+		}
+
+		// position及之后第一个空白字符的位置，没有时返回size
+		private long nextWhitespace(ByteBuffer probe, long position, long size) throws IOException {
+			while (position < size) {
+				probe.clear();
+				int n = channel.read(probe, position);
+				for (int i = 0; i < n; i++) {
+					byte b = probe.get(i);
+					if (b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F)) return position + i;
+				}
+				position += n;
+			}
+			return size;
+		}
+
+		int size() {
+			return bounds.length - 1;
+		}
+
+		ByteScanner scanner(int i) {
+			try {
+				return new ByteScanner(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]));
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not map chunk " + i, e);
+			}
+		}
+
+		// 第一遍：并行统计每块中数字的个数，返回总数
+		int count(ForkJoinPool pool) {
+			final int[] counts = new int[size()];
+			ParallelFor.forEach(pool, size(), new Task() {
+				public void run(int i) {
+					counts[i] = scanner(i).countTokens();
+				}
+			});
+			offsets = new int[size() + 1];
+			long total = 0;
+			for (int i = 0; i < size(); i++) {
+				offsets[i] = (int) total;
+				total += counts[i];
+				if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("too many numbers for an array");
+			}
+			offsets[size()] = (int) total;
+			return (int) total;
+		}
+
+		// 第二遍：并行解析每一块
+		void parse(ForkJoinPool pool, final Parser parser) {
+			ParallelFor.forEach(pool, size(), new Task() {
+				public void run(int i) {
+					parser.parse(scanner(i), offsets[i], offsets[i + 1] - offsets[i]);
+				}
+			});
+		}
+
+		void close() {
+			try {
+				file.close();
+			}
+			catch (IOException e) { }
+		}
+	}
+
+	// 按块依次解析[lo, hi)中的int，可以按块拆分
+	private static class IntChunkSpliterator implements Spliterator.OfInt {
+		private final Chunks chunks;
+		private int lo;
+		private final int hi;
+		private ByteScanner current; // 正在解析的块
+
+		IntChunkSpliterator(Chunks chunks, int lo, int hi) {
+			this.chunks = chunks;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		public boolean tryAdvance(IntConsumer action) {
+			while (current == null || current.isEmpty()) {
+				if (lo == hi) return false;
+				current = chunks.scanner(lo++);
+			}
+			action.accept(current.readInt());
+			return true;
+		}
+
+		public Spliterator.OfInt trySplit() {
+			if (current != null || hi - lo < 2) return null;
+			int mid = (lo + hi) >>> 1;
+			Spliterator.OfInt prefix = new IntChunkSpliterator(chunks, lo, mid);
+			lo = mid;
+			return prefix;
+		}
+
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+	}
+
+	// 按块依次解析[lo, hi)中的double，可以按块拆分
+	private static class DoubleChunkSpliterator implements Spliterator.OfDouble {
+		private final Chunks chunks;
+		private int lo;
+		private final int hi;
+		private ByteScanner current; // 正在解析的块
+
+		DoubleChunkSpliterator(Chunks chunks, int lo, int hi) {
+			this.chunks = chunks;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		public boolean tryAdvance(DoubleConsumer action) {
+			while (current == null || current.isEmpty()) {
+				if (lo == hi) return false;
+				current = chunks.scanner(lo++);
+			}
+			action.accept(current.readDouble());
+			return true;
+		}
+
+		public Spliterator.OfDouble trySplit() {
+			if (current != null || hi - lo < 2) return null;
+			int mid = (lo + hi) >>> 1;
+			Spliterator.OfDouble prefix = new DoubleChunkSpliterator(chunks, lo, mid);
+			lo = mid;
+			return prefix;
+		}
+
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+	}
+
+	/**
+	 * 测试，并行读取文件中的所有double，打印个数和总和，再用流计算一次
+	 *
+	 * java ParallelIn largeW.txt
+	 * 1000000 numbers, sum = ...
+	 * stream sum = ...
+	 */
+	public static void main(String[] args) {
+		double[] a = readAllDoubles(args[0]);
+		double sum = 0.0;
+		for (double x : a) sum += x;
+		StdOut.println(a.length + " numbers, sum = " + sum);
+		DoubleStream stream = doubles(args[0]);
+		StdOut.println("stream sum = " + stream.sum());
+		stream.close();
+	}
+
+}
@@ -1,5 +1,7 @@
 package org.xiao.algs.io;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
@@ -11,8 +13,13 @@ public final class StdOut {
 
     private static final Locale LOCALE = Locale.US;
 
+    // 和println()、ByteWriter.newLine()使用相同的换行符
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
     private static PrintWriter out;
 
+    private static ByteWriter fast; // 快速模式，否则为null
+
     static {
         try {
             out = new PrintWriter(new OutputStreamWriter(System.out, CHARSET_NAME), true);
@@ -23,104 +30,329 @@ public final class StdOut {
     private StdOut() { }
 
     public static void close() {
-        out.close();
+        if (fast != null) fast.close();
+        else              out.close();
+    }
+
+    /**
+     * 切换到快速模式：输出先写入很大的缓冲区，只在缓冲区满、调用flush()或close()时才写入标准输出的FileChannel，
+     * print不再自动刷新，int、long、double不创建String；程序退出时自动刷新，快速模式不是线程安全的
+     */
+    public static synchronized void fast() {
+        if (fast != null) return;
+        out.flush();
+        fast = new ByteWriter(new FileOutputStream(FileDescriptor.out).getChannel());
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            public void run() {
+                flush();
+            }
+        });
+    }
+
+    /**
+     * 刷新输出
+     */
+    public static void flush() {
+        if (fast != null) fast.flush();
+        else              out.flush();
+    }
+
+    /**
+     * 输出a[lo ~ hi-1]，每个元素后面输出separator
+     */
+    public static void print(int[] a, int lo, int hi, char separator) {
+        if (fast != null) {
+            for (int i = lo; i < hi; i++) {
+                fast.print(a[i]);
+                fast.print(separator);
+            }
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            out.print(a[i]);
+            out.print(separator);
+        }
+        out.flush();
+    }
+
+    /**
+     * 输出a[lo ~ hi-1]，每个元素后面输出separator
+     */
+    public static void print(long[] a, int lo, int hi, char separator) {
+        if (fast != null) {
+            for (int i = lo; i < hi; i++) {
+                fast.print(a[i]);
+                fast.print(separator);
+            }
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            out.print(a[i]);
+            out.print(separator);
+        }
+        out.flush();
+    }
+
+    /**
+     * 输出a[lo ~ hi-1]，每个元素后面输出separator
+     */
+    public static void print(double[] a, int lo, int hi, char separator) {
+        if (fast != null) {
+            for (int i = lo; i < hi; i++) {
+                fast.print(a[i]);
+                fast.print(separator);
+            }
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            out.print(a[i]);
+            out.print(separator);
+        }
+        out.flush();
+    }
+
+    /**
+     * 每行输出数组中的一个元素，换行符和println()相同
+     */
+    public static void print(int[] a) {
+        if (fast != null) {
+            for (int i = 0; i < a.length; i++) {
+                fast.print(a[i]);
+                fast.newLine();
+            }
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            out.print(a[i]);
+            out.print(LINE_SEPARATOR);
+        }
+        out.flush();
+    }
+
+    /**
+     * 每行输出数组中的一个元素，换行符和println()相同
+     */
+    public static void print(long[] a) {
+        if (fast != null) {
+            for (int i = 0; i < a.length; i++) {
+                fast.print(a[i]);
+                fast.newLine();
+            }
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            out.print(a[i]);
+            out.print(LINE_SEPARATOR);
+        }
+        out.flush();
+    }
+
+    /**
+     * 每行输出数组中的一个元素，换行符和println()相同
+     */
+    public static void print(double[] a) {
+        if (fast != null) {
+            for (int i = 0; i < a.length; i++) {
+                fast.print(a[i]);
+                fast.newLine();
+            }
+            return;
+        }
+        for (int i = 0; i < a.length; i++) {
+            out.print(a[i]);
+            out.print(LINE_SEPARATOR);
+        }
+        out.flush();
     }
 
     public static void println() {
+        if (fast != null) {
+            fast.newLine();
+            return;
+        }
         out.println();
     }
 
     public static void println(Object x) {
+        if (fast != null) {
+            fast.print(String.valueOf(x));
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(boolean x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
     
     public static void println(char x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(double x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(float x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(int x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(long x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(short x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void println(byte x) {
+        if (fast != null) {
+            fast.print(x);
+            fast.newLine();
+            return;
+        }
         out.println(x);
     }
 
     public static void print() {
-        out.flush();
+        flush();
     }
 
     public static void print(Object x) {
+        if (fast != null) {
+            fast.print(String.valueOf(x));
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(boolean x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(char x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(double x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(float x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(int x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(long x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(short x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void print(byte x) {
+        if (fast != null) {
+            fast.print(x);
+            return;
+        }
         out.print(x);
         out.flush();
     }
 
     public static void printf(String format, Object... args) {
+        if (fast != null) {
+            fast.print(String.format(LOCALE, format, args));
+            return;
+        }
         out.printf(LOCALE, format, args);
         out.flush();
     }
 
     public static void printf(Locale locale, String format, Object... args) {
+        if (fast != null) {
+            fast.print(String.format(locale, format, args));
+            return;
+        }
         out.printf(locale, format, args);
         out.flush();
     }
@@ -131,6 +363,12 @@ public final class StdOut {
         StdOut.println(17);
         StdOut.println(true);
         StdOut.printf("%.6f\n", 1.0/7.0);
+
+        // 快速模式
+        StdOut.fast();
+        StdOut.print(new int[] { 1, 2, 3 });
+        StdOut.println(0.1 + 0.2);
+        StdOut.flush();
     }
 
 }
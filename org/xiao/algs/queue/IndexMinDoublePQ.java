@@ -0,0 +1,247 @@
+package org.xiao.algs.queue;
+
+import java.util.NoSuchElementException;
+
+import org.xiao.algs.io.StdOut;
+
+/***
+ *
+ * 键为基本类型double的索引优先队列
+ *
+ * 和IndexMinPQ<Double>功能相同，但键直接存放在double数组中，插入和修改键时不会产生Double装箱对象，
+ * 比较时也不需要调用compareTo
+ *
+ * @author XiaoJian
+ *
+ */
+public class IndexMinDoublePQ {
+	private int NMAX; // maximum number of elements on PQ
+	private int N; // number of elements on PQ
+	private int[] pq; // binary heap using 1-based indexing
+	private int[] qp; // inverse of pq - qp[pq[i]] = pq[qp[i]] = i
+	private double[] keys; // keys[i] = priority of i
+
+	/**
+	 * 初始化一个最大容量为NMAX的优先队列
+	 */
+	public IndexMinDoublePQ(int NMAX) {
+		if (NMAX < 0)
+			throw new IllegalArgumentException();
+		this.NMAX = NMAX;
+		keys = new double[NMAX + 1];
+		pq = new int[NMAX + 1];
+		qp = new int[NMAX + 1];
+		for (int i = 0; i <= NMAX; i++)
+			qp[i] = -1;
+	}
+
+	/**
+	 * 返回优先队列是否为空
+	 */
+	public boolean isEmpty() {
+		return N == 0;
+	}
+
+	/**
+	 * 是否存在索引为i的元素
+	 */
+	public boolean contains(int i) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		return qp[i] != -1;
+	}
+
+	/**
+	 * 返回优先队列元素的个数
+	 */
+	public int size() {
+		return N;
+	}
+
+	/**
+	 * 插入一个元素，把它和索引i关联
+	 */
+	public void insert(int i, double key) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		if (contains(i))
+			throw new IllegalArgumentException(
+					"index is already in the priority queue");
+		N++;
+		qp[i] = N;
+		pq[N] = i;
+		keys[i] = key;
+		swim(N);
+	}
+
+	/**
+	 * 返回最小元素的索引
+	 */
+	public int minIndex() {
+		if (N == 0)
+			throw new NoSuchElementException("Priority queue underflow");
+		return pq[1];
+	}
+
+	/**
+	 * 返回最小元素
+	 */
+	public double minKey() {
+		if (N == 0)
+			throw new NoSuchElementException("Priority queue underflow");
+		return keys[pq[1]];
+	}
+
+	/**
+	 * 删除最小元素并返回它的索引
+	 */
+	public int delMin() {
+		if (N == 0)
+			throw new NoSuchElementException("Priority queue underflow");
+		int min = pq[1];
+		exch(1, N--);
+		sink(1);
+		qp[min] = -1; // delete
+		pq[N + 1] = -1; // not needed
+		return min;
+	}
+
+	/**
+	 * 返回索引i关联的key
+	 */
+	public double keyOf(int i) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		if (!contains(i))
+			throw new NoSuchElementException(
+					"index is not in the priority queue");
+		else
+			return keys[i];
+	}
+
+	/**
+	 * 将索引为i的元素设为key
+	 */
+	public void changeKey(int i, double key) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		if (!contains(i))
+			throw new NoSuchElementException(
+					"index is not in the priority queue");
+		keys[i] = key;
+		swim(qp[i]);
+		sink(qp[i]);
+	}
+
+	/**
+	 * Decrease the key associated with index i to the specified value.
+	 */
+	public void decreaseKey(int i, double key) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		if (!contains(i))
+			throw new NoSuchElementException(
+					"index is not in the priority queue");
+		if (keys[i] <= key)
+			throw new IllegalArgumentException(
+					"Calling decreaseKey() with given argument would not strictly decrease the key");
+		keys[i] = key;
+		swim(qp[i]);
+	}
+
+	/**
+	 * Increase the key associated with index i to the specified value.
+	 */
+	public void increaseKey(int i, double key) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		if (!contains(i))
+			throw new NoSuchElementException(
+					"index is not in the priority queue");
+		if (keys[i] >= key)
+			throw new IllegalArgumentException(
+					"Calling increaseKey() with given argument would not strictly increase the key");
+		keys[i] = key;
+		sink(qp[i]);
+	}
+
+	/**
+	 * 删除索引i及其相关联的元素
+	 */
+	public void delete(int i) {
+		if (i < 0 || i >= NMAX)
+			throw new IndexOutOfBoundsException();
+		if (!contains(i))
+			throw new NoSuchElementException(
+					"index is not in the priority queue");
+		int index = qp[i];
+		exch(index, N--);
+		swim(index);
+		sink(index);
+		qp[i] = -1;
+	}
+
+	/**
+	 * 删除所有元素，时间和当前元素个数成正比，而不是和NMAX成正比
+	 */
+	public void clear() {
+		for (int i = 1; i <= N; i++) {
+			qp[pq[i]] = -1;
+			pq[i] = -1;
+		}
+		N = 0;
+	}
+
+	private boolean greater(int i, int j) {
+		return keys[pq[i]] > keys[pq[j]];
+	}
+
+	private void exch(int i, int j) {
+		int swap = pq[i];
+		pq[i] = pq[j];
+		pq[j] = swap;
+		qp[pq[i]] = i;
+		qp[pq[j]] = j;
+	}
+
+	// 上浮
+	private void swim(int k) {
+		while (k > 1 && greater(k / 2, k)) {
+			exch(k, k / 2);
+			k = k / 2;
+		}
+	}
+
+	// 下沉
+	private void sink(int k) {
+		while (2 * k <= N) {
+			int j = 2 * k;
+			if (j < N && greater(j, j + 1))
+				j++;
+			if (!greater(k, j))
+				break;
+			exch(k, j);
+			k = j;
+		}
+	}
+
+	/**
+	 * 测试
+	 */
+	public static void main(String[] args) {
+		double[] keys = { 0.5, 0.25, 0.75, 0.125, 1.0, 0.375 };
+
+		IndexMinDoublePQ pq = new IndexMinDoublePQ(keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			pq.insert(i, keys[i]);
+		}
+		pq.decreaseKey(4, 0.0);
+
+		// 删除并打印每一个key
+		while (!pq.isEmpty()) {
+			double key = pq.minKey();
+			int i = pq.delMin();
+			StdOut.println(i + " " + key);
+		}
+	}
+}
@@ -0,0 +1,475 @@
+package org.xiao.algs.sort;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.xiao.algs.io.In;
+import org.xiao.algs.io.Out;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.util.Stopwatch;
+
+/***
+ *
+ * 外部归并排序，用于排序无法全部放入内存的文件
+ *
+ * 一、顺串：每次从输入中读入内存能容纳的一段(顺串)，在ForkJoinPool中并行排序(long用ParallelQuick，行用稳定的ParallelMerge)，
+ *     再以紧凑的二进制格式写入临时文件：long为8个字节，行为4个字节的长度加上UTF-8编码；
+ * 二、多向归并：和Multiway一样同时读取所有临时文件，每次输出最小的元素；
+ *     这里用败者树代替IndexMinPQ：树中只保存顺串的下标(int数组)，每输出一个元素只需要沿着一条路径比较lgk次；
+ *     临时文件超过MAX_FAN_IN个时先分组归并成较少的临时文件
+ *
+ * 每个临时文件的读写都使用很大的缓冲区，按顺序整块地读写
+ *
+ * 临时文件放在输出文件所在的目录中，排序结束后删除
+ *
+ * 对行的排序是稳定的：顺串内部使用稳定排序，归并时相等的行中来自前面顺串的在前
+ *
+ * @author XiaoJian
+ *
+ */
+public class ExternalSort {
+	private static final int BUFFER_SIZE = 1 << 20; // 每个临时文件的读写缓冲区大小
+	private static final int MAX_FAN_IN = 128; // 一次最多归并的临时文件数
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private ExternalSort() { }
+
+	/**
+	 * 使用公共ForkJoinPool把input中的所有long排序后输出到output，每行一个；顺串大小为最大堆内存的1/4
+	 */
+	public static void sortLongs(String input, String output) {
+		long n = Runtime.getRuntime().maxMemory() / 4 / 8;
+		sortLongs(input, output, (int) Math.min(n, Integer.MAX_VALUE - 8), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 把input中的所有long排序后输出到output，每行一个；每个顺串最多runLength个long，使用线程池pool排序
+	 */
+	public static void sortLongs(String input, String output, int runLength, ForkJoinPool pool) {
+		if (runLength < 1) throw new IllegalArgumentException("runLength must be positive");
+		File dir = directory(output);
+		List<File> runs = new ArrayList<File>();
+		try {
+			In in = open(input);
+			long[] run = new long[Math.min(runLength, 1 << 16)];
+			while (!in.isEmpty()) {
+				int n = 0;
+				while (n < runLength && !in.isEmpty()) {
+					if (n == run.length) run = Arrays.copyOf(run, (int) Math.min(2L * n, runLength));
+					run[n++] = in.readLong();
+				}
+				long[] a = n == run.length ? run : Arrays.copyOf(run, n);
+				ParallelQuick.sort(a, pool);
+				File file = tempFile(dir, runs);
+				RunWriter writer = new RunWriter(file);
+				for (int i = 0; i < n; i++)
+					writer.writeLong(a[i]);
+				writer.close();
+			}
+			in.close();
+			merge(runs, dir, output, LONGS);
+		}
+		finally {
+			delete(runs);
+		}
+	}
+
+	/**
+	 * 使用公共ForkJoinPool把input中的所有行排序后输出到output；顺串大小为最大堆内存的1/4
+	 */
+	public static void sortLines(String input, String output) {
+		sortLines(input, output, Runtime.getRuntime().maxMemory() / 4, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 把input中的所有行稳定排序后输出到output；每个顺串中的字符串大约占用runBytes个字节，使用线程池pool排序
+	 */
+	public static void sortLines(String input, String output, long runBytes, ForkJoinPool pool) {
+		if (runBytes < 1) throw new IllegalArgumentException("runBytes must be positive");
+		File dir = directory(output);
+		List<File> runs = new ArrayList<File>();
+		try {
+			In in = open(input);
+			String[] run = new String[1 << 10];
+			while (in.hasNextLine()) {
+				int n = 0;
+				long bytes = 0;
+				while (bytes < runBytes && in.hasNextLine()) {
+					if (n == run.length) run = Arrays.copyOf(run, 2 * n);
+					run[n] = in.readLine();
+					bytes += 48 + 2L * run[n].length(); // 估计String对象和数组引用占用的内存
+					n++;
+				}
+				String[] a = Arrays.copyOf(run, n);
+				Arrays.fill(run, 0, n, null);
+				ParallelMerge.sort(a, pool);
+				File file = tempFile(dir, runs);
+				RunWriter writer = new RunWriter(file);
+				for (int i = 0; i < n; i++) {
+					byte[] b = a[i].getBytes(UTF8);
+					writer.writeInt(b.length);
+					writer.write(b);
+				}
+				writer.close();
+			}
+			in.close();
+			merge(runs, dir, output, LINES);
+		}
+		finally {
+			delete(runs);
+		}
+	}
+
+	// 归并所有临时文件到output：临时文件太多时，先每MAX_FAN_IN个归并为一个新的临时文件
+	private static void merge(List<File> runs, File dir, String output, Format format) {
+		List<File> current = new ArrayList<File>(runs);
+		while (current.size() > MAX_FAN_IN) {
+			List<File> next = new ArrayList<File>();
+			for (int i = 0; i < current.size(); i += MAX_FAN_IN) {
+				List<File> group = current.subList(i, Math.min(i + MAX_FAN_IN, current.size()));
+				File file = tempFile(dir, runs);
+				RunWriter writer = new RunWriter(file);
+				merge(group, format, null, writer);
+				writer.close();
+				delete(group);
+				next.add(file);
+			}
+			current = next;
+		}
+		Out out = Out.fast(output);
+		merge(current, format, out, null);
+		out.close();
+	}
+
+	// 归并files中的顺串，输出到文本out或者临时文件writer中
+	private static void merge(List<File> files, Format format, Out out, RunWriter writer) {
+		if (files.isEmpty()) return;
+		RunReader[] readers = new RunReader[files.size()];
+		for (int i = 0; i < readers.length; i++)
+			readers[i] = new RunReader(files.get(i));
+		format.merge(readers, out, writer);
+		for (RunReader reader : readers)
+			reader.close();
+	}
+
+	// 一种记录的多向归并
+	private abstract static class Format {
+		abstract void merge(RunReader[] readers, Out out, RunWriter writer);
+	}
+
+	// long，每个8个字节
+	private static final Format LONGS = new Format() {
+		void merge(final RunReader[] readers, Out out, RunWriter writer) {
+			int k = readers.length;
+			final long[] heads = new long[k]; // heads[i] = 第i个顺串当前的元素
+			final boolean[] done = new boolean[k]; // 第i个顺串已经读完
+			for (int i = 0; i < k; i++) {
+				if (readers[i].isEmpty()) done[i] = true;
+				else                      heads[i] = readers[i].readLong();
+			}
+			LoserTree tree = new LoserTree(k) {
+				boolean exhausted(int i) {
+					return done[i];
+				}
+
+				boolean less(int i, int j) {
+					return heads[i] < heads[j];
+				}
+			};
+			tree.init();
+			while (true) {
+				int i = tree.winner();
+				if (done[i]) break;
+				if (out != null) out.println(heads[i]);
+				else             writer.writeLong(heads[i]);
+				if (readers[i].isEmpty()) done[i] = true;
+				else                      heads[i] = readers[i].readLong();
+				tree.adjust(i);
+			}
+		}
+	};
+
+	// 行，4个字节的长度加上UTF-8编码
+	private static final Format LINES = new Format() {
+		void merge(final RunReader[] readers, Out out, RunWriter writer) {
+			int k = readers.length;
+			final String[] heads = new String[k]; // heads[i] = 第i个顺串当前的行，读完时为null
+			for (int i = 0; i < k; i++)
+				heads[i] = readLine(readers[i]);
+			LoserTree tree = new LoserTree(k) {
+				boolean exhausted(int i) {
+					return heads[i] == null;
+				}
+
+				boolean less(int i, int j) {
+					return heads[i].compareTo(heads[j]) < 0;
+				}
+			};
+			tree.init();
+			while (true) {
+				int i = tree.winner();
+				if (heads[i] == null) break;
+				if (out != null) out.println(heads[i]);
+				else {
+					byte[] b = heads[i].getBytes(UTF8);
+					writer.writeInt(b.length);
+					writer.write(b);
+				}
+				heads[i] = readLine(readers[i]);
+				tree.adjust(i);
+			}
+		}
+
+		// 读取下一行，读完时返回null
+		private String readLine(RunReader reader) {
+			if (reader.isEmpty()) return null;
+			byte[] b = new byte[reader.readInt()];
+			reader.readFully(b);
+			return new String(b, UTF8);
+		}
+	};
+
+	/**
+	 * k个顺串的败者树
+	 *
+	 * 把k个顺串看作完全二叉树的叶子(第i个叶子在位置k+i)，tree[1..k-1]为内部结点，
+	 * 每个内部结点记录在这里比赛输掉的顺串，tree[0]记录最终的胜者(当前最小的元素所在的顺串)；
+	 * 胜者的顺串读入下一个元素后，只需要和从该叶子到根的路径上的败者依次比较
+	 *
+	 * 已经读完的顺串视为无穷大；相等时下标小的顺串胜出
+	 */
+	private abstract static class LoserTree {
+		private final int k;
+		private final int[] tree;
+
+		LoserTree(int k) {
+			this.k = k;
+			this.tree = new int[Math.max(k, 1)];
+		}
+
+		// 第i个顺串已经读完了吗
+		abstract boolean exhausted(int i);
+
+		// 第i个顺串当前的元素小于第j个顺串当前的元素吗(都没有读完)
+		abstract boolean less(int i, int j);
+
+		// 所有顺串读入第一个元素后调用：先让所有结点都记录一个比任何元素都小的虚拟顺串k，再依次加入每个顺串
+		void init() {
+			Arrays.fill(tree, k);
+			for (int i = k - 1; i >= 0; i--)
+				adjust(i);
+		}
+
+		// 当前最小的元素所在的顺串，所有顺串都读完时返回的顺串exhausted
+		int winner() {
+			return tree[0];
+		}
+
+		// 第i个顺串的当前元素改变后，从叶子到根重新比赛
+		void adjust(int i) {
+			int winner = i;
+			for (int t = (i + k) / 2; t > 0; t /= 2) {
+				if (beats(tree[t], winner)) {
+					int swap = tree[t];
+					tree[t] = winner;
+					winner = swap;
+				}
+			}
+			tree[0] = winner;
+		}
+
+		// 第i个顺串胜过第j个顺串吗
+		private boolean beats(int i, int j) {
+			if (i == k) return true;
+			if (j == k) return false;
+			if (exhausted(i)) return false;
+			if (exhausted(j)) return true;
+			if (less(i, j)) return true;
+			if (less(j, i)) return false;
+			return i < j;
+		}
+	}
+
+	// 临时文件的顺序写入，缓冲区满了才写入文件
+	private static class RunWriter {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		RunWriter(File file) {
+			try {
+				channel = new FileOutputStream(file).getChannel();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not create " + file, e);
+			}
+		}
+
+		void writeLong(long x) {
+			if (buffer.remaining() < 8) flush();
+			buffer.putLong(x);
+		}
+
+		void writeInt(int x) {
+			if (buffer.remaining() < 4) flush();
+			buffer.putInt(x);
+		}
+
+		void write(byte[] b) {
+			int offset = 0;
+			while (offset < b.length) {
+				if (!buffer.hasRemaining()) flush();
+				int n = Math.min(buffer.remaining(), b.length - offset);
+				buffer.put(b, offset, n);
+				offset += n;
+			}
+		}
+
+		private void flush() {
+			buffer.flip();
+			try {
+				while (buffer.hasRemaining())
+					channel.write(buffer);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not write temporary file", e);
+			}
+			buffer.clear();
+		}
+
+		void close() {
+			flush();
+			try {
+				channel.close();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not write temporary file", e);
+			}
+		}
+	}
+
+	// 临时文件的顺序读取，每次读入一整块
+	private static class RunReader {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private boolean eof;
+
+		RunReader(File file) {
+			try {
+				channel = new FileInputStream(file).getChannel();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not open " + file, e);
+			}
+			buffer.flip();
+		}
+
+		// 保证缓冲区中至少有n个字节，文件中的字节不够时返回false
+		private boolean ensure(int n) {
+			while (buffer.remaining() < n) {
+				if (eof) return false;
+				buffer.compact();
+				try {
+					if (channel.read(buffer) < 0) eof = true;
+				}
+				catch (IOException e) {
+					throw new IllegalStateException("Could not read temporary file", e);
+				}
+				buffer.flip();
+			}
+			return true;
+		}
+
+		boolean isEmpty() {
+			return !ensure(1);
+		}
+
+		long readLong() {
+			if (!ensure(8)) throw new NoSuchElementException();
+			return buffer.getLong();
+		}
+
+		int readInt() {
+			if (!ensure(4)) throw new NoSuchElementException();
+			return buffer.getInt();
+		}
+
+		void readFully(byte[] b) {
+			int offset = 0;
+			while (offset < b.length) {
+				if (!ensure(1)) throw new NoSuchElementException();
+				int n = Math.min(buffer.remaining(), b.length - offset);
+				buffer.get(b, offset, n);
+				offset += n;
+			}
+		}
+
+		void close() {
+			try {
+				channel.close();
+			}
+			catch (IOException e) { }
+		}
+	}
+
+	private static In open(String input) {
+		In in = In.fast(input);
+		if (!in.exists()) throw new IllegalArgumentException("Could not open " + input);
+		return in;
+	}
+
+	// 输出文件所在的目录，临时文件放在这里
+	private static File directory(String output) {
+		return new File(output).getAbsoluteFile().getParentFile();
+	}
+
+	// 在dir中创建一个临时文件并加入files
+	private static File tempFile(File dir, List<File> files) {
+		try {
+			File file = File.createTempFile("run", ".tmp", dir);
+			files.add(file);
+			return file;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Could not create temporary file in " + dir, e);
+		}
+	}
+
+	private static void delete(List<File> files) {
+		for (File file : files)
+			file.delete();
+	}
+
+	/**
+	 * 测试，对文件中的所有long(加上-lines时为所有的行)进行外部排序，可以指定每个顺串的long个数(或字节数)
+	 *
+	 * java ExternalSort largeT.txt sorted.txt
+	 * sorted largeT.txt in 1.2 seconds
+	 * java ExternalSort -lines log.txt sorted.txt 100000000
+	 * sorted log.txt in 3.4 seconds
+	 */
+	public static void main(String[] args) {
+		boolean lines = args[0].equals("-lines");
+		int i = lines ? 1 : 0;
+		String input = args[i], output = args[i + 1];
+		Stopwatch timer = new Stopwatch();
+		if (lines) {
+			if (args.length > i + 2) sortLines(input, output, Long.parseLong(args[i + 2]), ForkJoinPool.commonPool());
+			else                     sortLines(input, output);
+		}
+		else {
+			if (args.length > i + 2) sortLongs(input, output, Integer.parseInt(args[i + 2]), ForkJoinPool.commonPool());
+			else                     sortLongs(input, output);
+		}
+		StdOut.println("sorted " + input + " in " + timer.elapsedTime() + " seconds");
+	}
+}
@@ -41,6 +41,162 @@ public class Heap {
         }
     }
 
+    /**
+     * 对int数组进行堆排序
+     */
+    public static void sort(int[] pq) {
+        int N = pq.length;
+        for (int k = N/2; k >= 1; k--)
+            sink(pq, k, N);
+        while (N > 1) {
+            exch(pq, 1, N--);
+            sink(pq, 1, N);
+        }
+    }
+
+    private static void sink(int[] pq, int k, int N) {
+        while (2*k <= N) {
+            int j = 2*k;
+            if (j < N && less(pq, j, j+1)) j++;
+            if (!less(pq, k, j)) break;
+            exch(pq, k, j);
+            k = j;
+        }
+    }
+
+    /**
+     * 对long数组进行堆排序
+     */
+    public static void sort(long[] pq) {
+        int N = pq.length;
+        for (int k = N/2; k >= 1; k--)
+            sink(pq, k, N);
+        while (N > 1) {
+            exch(pq, 1, N--);
+            sink(pq, 1, N);
+        }
+    }
+
+    private static void sink(long[] pq, int k, int N) {
+        while (2*k <= N) {
+            int j = 2*k;
+            if (j < N && less(pq, j, j+1)) j++;
+            if (!less(pq, k, j)) break;
+            exch(pq, k, j);
+            k = j;
+        }
+    }
+
+    /**
+     * 对float数组进行堆排序
+     */
+    public static void sort(float[] pq) {
+        int N = pq.length;
+        for (int k = N/2; k >= 1; k--)
+            sink(pq, k, N);
+        while (N > 1) {
+            exch(pq, 1, N--);
+            sink(pq, 1, N);
+        }
+    }
+
+    private static void sink(float[] pq, int k, int N) {
+        while (2*k <= N) {
+            int j = 2*k;
+            if (j < N && less(pq, j, j+1)) j++;
+            if (!less(pq, k, j)) break;
+            exch(pq, k, j);
+            k = j;
+        }
+    }
+
+    /**
+     * 对double数组进行堆排序
+     */
+    public static void sort(double[] pq) {
+        int N = pq.length;
+        for (int k = N/2; k >= 1; k--)
+            sink(pq, k, N);
+        while (N > 1) {
+            exch(pq, 1, N--);
+            sink(pq, 1, N);
+        }
+    }
+
+    private static void sink(double[] pq, int k, int N) {
+        while (2*k <= N) {
+            int j = 2*k;
+            if (j < N && less(pq, j, j+1)) j++;
+            if (!less(pq, k, j)) break;
+            exch(pq, k, j);
+            k = j;
+        }
+    }
+
+    private static boolean less(int[] pq, int i, int j) {
+        return less(pq[i-1], pq[j-1]);
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(int[] pq, int i, int j) {
+        int swap = pq[i-1];
+        pq[i-1] = pq[j-1];
+        pq[j-1] = swap;
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    private static boolean less(long[] pq, int i, int j) {
+        return less(pq[i-1], pq[j-1]);
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(long[] pq, int i, int j) {
+        long swap = pq[i-1];
+        pq[i-1] = pq[j-1];
+        pq[j-1] = swap;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    private static boolean less(float[] pq, int i, int j) {
+        return less(pq[i-1], pq[j-1]);
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(float[] pq, int i, int j) {
+        float swap = pq[i-1];
+        pq[i-1] = pq[j-1];
+        pq[j-1] = swap;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    private static boolean less(double[] pq, int i, int j) {
+        return less(pq[i-1], pq[j-1]);
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(double[] pq, int i, int j) {
+        double swap = pq[i-1];
+        pq[i-1] = pq[j-1];
+        pq[j-1] = swap;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
 	private static boolean less(Comparable[] pq, int i, int j) {
         return pq[i-1].compareTo(pq[j-1]) < 0;
     }
@@ -58,6 +58,95 @@ public class Insertion {
         return index;
     }
 
+    /**
+     * 对int数组升序排序
+     */
+    public static void sort(int[] a) {
+        int N = a.length;
+        for (int i = 0; i < N; i++) {
+            for (int j = i; j > 0 && less(a[j], a[j-1]); j--) {
+                exch(a, j, j-1);
+            }
+        }
+    }
+
+    /**
+     * 对long数组升序排序
+     */
+    public static void sort(long[] a) {
+        int N = a.length;
+        for (int i = 0; i < N; i++) {
+            for (int j = i; j > 0 && less(a[j], a[j-1]); j--) {
+                exch(a, j, j-1);
+            }
+        }
+    }
+
+    /**
+     * 对float数组升序排序
+     */
+    public static void sort(float[] a) {
+        int N = a.length;
+        for (int i = 0; i < N; i++) {
+            for (int j = i; j > 0 && less(a[j], a[j-1]); j--) {
+                exch(a, j, j-1);
+            }
+        }
+    }
+
+    /**
+     * 对double数组升序排序
+     */
+    public static void sort(double[] a) {
+        int N = a.length;
+        for (int i = 0; i < N; i++) {
+            for (int j = i; j > 0 && less(a[j], a[j-1]); j--) {
+                exch(a, j, j-1);
+            }
+        }
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(long[] a, int i, int j) {
+        long swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(float[] a, int i, int j) {
+        float swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(double[] a, int i, int j) {
+        double swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
     // is v < w ?
     private static boolean less(Comparable v, Comparable w) {
         return (v.compareTo(w) < 0);
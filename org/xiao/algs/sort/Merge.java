@@ -54,6 +54,142 @@ public class Merge {
         assert isSorted(a);
     }
 
+    /**
+     * 对int数组归并排序(自顶向下)
+     */
+    public static void sort(int[] a) {
+        int[] aux = new int[a.length];
+        sort(a, aux, 0, a.length-1);
+    }
+
+    private static void sort(int[] a, int[] aux, int lo, int hi) {
+        if (hi <= lo) return;
+        int mid = lo + (hi - lo) / 2;
+        sort(a, aux, lo, mid);
+        sort(a, aux, mid + 1, hi);
+        merge(a, aux, lo, mid, hi);
+    }
+
+    private static void merge(int[] a, int[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * 对long数组归并排序(自顶向下)
+     */
+    public static void sort(long[] a) {
+        long[] aux = new long[a.length];
+        sort(a, aux, 0, a.length-1);
+    }
+
+    private static void sort(long[] a, long[] aux, int lo, int hi) {
+        if (hi <= lo) return;
+        int mid = lo + (hi - lo) / 2;
+        sort(a, aux, lo, mid);
+        sort(a, aux, mid + 1, hi);
+        merge(a, aux, lo, mid, hi);
+    }
+
+    private static void merge(long[] a, long[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * 对float数组归并排序(自顶向下)
+     */
+    public static void sort(float[] a) {
+        float[] aux = new float[a.length];
+        sort(a, aux, 0, a.length-1);
+    }
+
+    private static void sort(float[] a, float[] aux, int lo, int hi) {
+        if (hi <= lo) return;
+        int mid = lo + (hi - lo) / 2;
+        sort(a, aux, lo, mid);
+        sort(a, aux, mid + 1, hi);
+        merge(a, aux, lo, mid, hi);
+    }
+
+    private static void merge(float[] a, float[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * 对double数组归并排序(自顶向下)
+     */
+    public static void sort(double[] a) {
+        double[] aux = new double[a.length];
+        sort(a, aux, 0, a.length-1);
+    }
+
+    private static void sort(double[] a, double[] aux, int lo, int hi) {
+        if (hi <= lo) return;
+        int mid = lo + (hi - lo) / 2;
+        sort(a, aux, lo, mid);
+        sort(a, aux, mid + 1, hi);
+        merge(a, aux, lo, mid, hi);
+    }
+
+    private static void merge(double[] a, double[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
     // is v < w ?
     private static boolean less(Comparable v, Comparable w) {
         return (v.compareTo(w) < 0);
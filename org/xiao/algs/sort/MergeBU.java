@@ -50,6 +50,130 @@ public class MergeBU {
         assert isSorted(a);
     }
     
+    /**
+     * 对int数组归并排序(自底向上)
+     */
+    public static void sort(int[] a) {
+        int N = a.length;
+        int[] aux = new int[N];
+        for (int n = 1; n < N; n = n+n) {
+            for (int i = 0; i < N-n; i += n+n) {
+                merge(a, aux, i, i+n-1, Math.min(i+n+n-1, N-1));
+            }
+        }
+    }
+
+    private static void merge(int[] a, int[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * 对long数组归并排序(自底向上)
+     */
+    public static void sort(long[] a) {
+        int N = a.length;
+        long[] aux = new long[N];
+        for (int n = 1; n < N; n = n+n) {
+            for (int i = 0; i < N-n; i += n+n) {
+                merge(a, aux, i, i+n-1, Math.min(i+n+n-1, N-1));
+            }
+        }
+    }
+
+    private static void merge(long[] a, long[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * 对float数组归并排序(自底向上)
+     */
+    public static void sort(float[] a) {
+        int N = a.length;
+        float[] aux = new float[N];
+        for (int n = 1; n < N; n = n+n) {
+            for (int i = 0; i < N-n; i += n+n) {
+                merge(a, aux, i, i+n-1, Math.min(i+n+n-1, N-1));
+            }
+        }
+    }
+
+    private static void merge(float[] a, float[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * 对double数组归并排序(自底向上)
+     */
+    public static void sort(double[] a) {
+        int N = a.length;
+        double[] aux = new double[N];
+        for (int n = 1; n < N; n = n+n) {
+            for (int i = 0; i < N-n; i += n+n) {
+                merge(a, aux, i, i+n-1, Math.min(i+n+n-1, N-1));
+            }
+        }
+    }
+
+    private static void merge(double[] a, double[] aux, int lo, int mid, int hi) {
+        for (int k = lo; k <= hi; k++) {
+            aux[k] = a[k];
+        }
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              a[k] = aux[j++];
+            else if (j > hi)               a[k] = aux[i++];
+            else if (less(aux[j], aux[i])) a[k] = aux[j++];
+            else                           a[k] = aux[i++];
+        }
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
     // is v < w ?
     private static boolean less(Comparable v, Comparable w) {
         return (v.compareTo(w) < 0);
@@ -72,6 +72,210 @@ public class MergeX {
     }
 
 
+    /**
+     * 改进的归并排序，对int数组排序
+     */
+    public static void sort(int[] a) {
+        int[] aux = a.clone();
+        sort(aux, a, 0, a.length-1);
+    }
+
+    private static void sort(int[] src, int[] dst, int lo, int hi) {
+        if (hi <= lo + CUTOFF) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        sort(dst, src, lo, mid);
+        sort(dst, src, mid+1, hi);
+        if (!less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(int[] src, int[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              dst[k] = src[j++];
+            else if (j > hi)               dst[k] = src[i++];
+            else if (less(src[j], src[i])) dst[k] = src[j++];
+            else                           dst[k] = src[i++];
+        }
+    }
+
+    private static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    /**
+     * 改进的归并排序，对long数组排序
+     */
+    public static void sort(long[] a) {
+        long[] aux = a.clone();
+        sort(aux, a, 0, a.length-1);
+    }
+
+    private static void sort(long[] src, long[] dst, int lo, int hi) {
+        if (hi <= lo + CUTOFF) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        sort(dst, src, lo, mid);
+        sort(dst, src, mid+1, hi);
+        if (!less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(long[] src, long[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              dst[k] = src[j++];
+            else if (j > hi)               dst[k] = src[i++];
+            else if (less(src[j], src[i])) dst[k] = src[j++];
+            else                           dst[k] = src[i++];
+        }
+    }
+
+    private static void insertionSort(long[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    /**
+     * 改进的归并排序，对float数组排序
+     */
+    public static void sort(float[] a) {
+        float[] aux = a.clone();
+        sort(aux, a, 0, a.length-1);
+    }
+
+    private static void sort(float[] src, float[] dst, int lo, int hi) {
+        if (hi <= lo + CUTOFF) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        sort(dst, src, lo, mid);
+        sort(dst, src, mid+1, hi);
+        if (!less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(float[] src, float[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              dst[k] = src[j++];
+            else if (j > hi)               dst[k] = src[i++];
+            else if (less(src[j], src[i])) dst[k] = src[j++];
+            else                           dst[k] = src[i++];
+        }
+    }
+
+    private static void insertionSort(float[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    /**
+     * 改进的归并排序，对double数组排序
+     */
+    public static void sort(double[] a) {
+        double[] aux = a.clone();
+        sort(aux, a, 0, a.length-1);
+    }
+
+    private static void sort(double[] src, double[] dst, int lo, int hi) {
+        if (hi <= lo + CUTOFF) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        sort(dst, src, lo, mid);
+        sort(dst, src, mid+1, hi);
+        if (!less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(double[] src, double[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)              dst[k] = src[j++];
+            else if (j > hi)               dst[k] = src[i++];
+            else if (less(src[j], src[i])) dst[k] = src[j++];
+            else                           dst[k] = src[i++];
+        }
+    }
+
+    private static void insertionSort(double[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(int[] a, int i, int j) {
+        int swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(long[] a, int i, int j) {
+        long swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(float[] a, int i, int j) {
+        float swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(double[] a, int i, int j) {
+        double swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
     // 使用插入排序
     private static void insertionSort(Comparable[] a, int lo, int hi) {
         for (int i = lo; i <= hi; i++)
@@ -0,0 +1,711 @@
+package org.xiao.algs.sort;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.xiao.algs.io.StdIn;
+import org.xiao.algs.io.StdOut;
+
+/***
+ *
+ * 并行归并排序(基于MergeX)
+ *
+ * 和MergeX一样只在开始时复制一次辅助数组，递归时交替使用a和aux作为源数组和目标数组，不再逐层复制；
+ * 子数组很小时改用插入排序
+ *
+ * 左右两个子数组在ForkJoinPool中并行排序，归并也是并行的：
+ * 取结果的中点k，用二分查找求出前k个元素中分别有多少来自左右两个子数组(co-rank)，
+ * 于是前k个元素和其余元素可以独立地归并到结果的两段中，如此递归拆分，最上层的归并同样由所有线程分担
+ *
+ * 排序是稳定的：相等的元素中来自左边子数组的在前；需要和输入一样大的辅助数组
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelMerge {
+	private static final int CUTOFF = 7; // 子数组不超过该值时使用插入排序
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 13; // 子数组少于该值时不再拆分任务
+
+	// Comparable的自然顺序
+	private static final Comparator NATURAL_ORDER = new Comparator() {
+		public int compare(Object v, Object w) {
+			return ((Comparable) v).compareTo(w);
+		}
+	};
+
+	private ParallelMerge() { }
+
+	/**
+	 * 使用公共ForkJoinPool对数组a排序
+	 */
+	public static void sort(Comparable[] a) {
+		sort(a, NATURAL_ORDER, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对数组a排序
+	 */
+	public static void sort(Comparable[] a, ForkJoinPool pool) {
+		sort(a, NATURAL_ORDER, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool按Comparator c对数组a排序
+	 */
+	public static void sort(Object[] a, Comparator c) {
+		sort(a, c, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool按Comparator c对数组a排序
+	 */
+	public static void sort(Object[] a, Comparator c, ForkJoinPool pool) {
+		Object[] aux = a.clone();
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(aux, a, 0, a.length - 1, c);
+		else pool.invoke(new SortTask(aux, a, 0, a.length - 1, c));
+		assert isSorted(a, c);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对int数组排序
+	 */
+	public static void sort(int[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对int数组排序
+	 */
+	public static void sort(int[] a, ForkJoinPool pool) {
+		int[] aux = a.clone();
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(aux, a, 0, a.length - 1);
+		else pool.invoke(new IntSortTask(aux, a, 0, a.length - 1));
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对long数组排序
+	 */
+	public static void sort(long[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对long数组排序
+	 */
+	public static void sort(long[] a, ForkJoinPool pool) {
+		long[] aux = a.clone();
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(aux, a, 0, a.length - 1);
+		else pool.invoke(new LongSortTask(aux, a, 0, a.length - 1));
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对float数组排序
+	 */
+	public static void sort(float[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对float数组排序
+	 */
+	public static void sort(float[] a, ForkJoinPool pool) {
+		float[] aux = a.clone();
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(aux, a, 0, a.length - 1);
+		else pool.invoke(new FloatSortTask(aux, a, 0, a.length - 1));
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对double数组排序
+	 */
+	public static void sort(double[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对double数组排序
+	 */
+	public static void sort(double[] a, ForkJoinPool pool) {
+		double[] aux = a.clone();
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(aux, a, 0, a.length - 1);
+		else pool.invoke(new DoubleSortTask(aux, a, 0, a.length - 1));
+	}
+
+	// 和MergeX相同：调用时src[lo..hi]和dst[lo..hi]中的元素相同，排序的结果放在dst中
+	private static void sort(Object[] src, Object[] dst, int lo, int hi, Comparator c) {
+		if (hi <= lo + CUTOFF) {
+			insertionSort(dst, lo, hi, c);
+			return;
+		}
+		int mid = lo + (hi - lo) / 2;
+		sort(dst, src, lo, mid, c);
+		sort(dst, src, mid+1, hi, c);
+		if (!less(c, src[mid+1], src[mid])) {
+			System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+			return;
+		}
+		merge(src, lo, mid+1, mid+1, hi+1, dst, lo, c);
+	}
+
+	// 把有序的src[alo, ahi)和src[blo, bhi)归并到从dst[k]开始的位置，相等时src[alo, ahi)中的元素在前
+	private static void merge(Object[] src, int alo, int ahi, int blo, int bhi, Object[] dst, int k, Comparator c) {
+		int i = alo, j = blo;
+		while (i < ahi && j < bhi) {
+			if (less(c, src[j], src[i])) dst[k++] = src[j++];
+			else                         dst[k++] = src[i++];
+		}
+		System.arraycopy(src, i, dst, k, ahi - i);
+		System.arraycopy(src, j, dst, k + ahi - i, bhi - j);
+	}
+
+	// 归并src[alo, ahi)和src[blo, bhi)时，结果的前k个元素中来自src[alo, ahi)的个数(co-rank)
+	private static int corank(Object[] src, int alo, int ahi, int blo, int bhi, int k, Comparator c) {
+		int lo = Math.max(0, k - (bhi - blo)), hi = Math.min(k, ahi - alo);
+		while (lo < hi) {
+			// 取前一段的i个和后一段的k-i个，后一段取到的最后一个必须小于前一段剩下的第一个，否则i太小
+			int i = (lo + hi) >>> 1;
+			if (less(c, src[blo + k - i - 1], src[alo + i])) hi = i;
+			else                                              lo = i + 1;
+		}
+		return lo;
+	}
+
+	// 使用插入排序
+	private static void insertionSort(Object[] a, int lo, int hi, Comparator c) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(c, a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	// 并行排序，src和dst的约定和sort(src, dst, lo, hi, c)相同
+	private static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Object[] src, dst;
+		private final int lo, hi;
+		private final Comparator c;
+
+		SortTask(Object[] src, Object[] dst, int lo, int hi, Comparator c) {
+			this.src = src;
+			this.dst = dst;
+			this.lo = lo;
+			this.hi = hi;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD) {
+				sort(src, dst, lo, hi, c);
+				return;
+			}
+			int mid = lo + (hi - lo) / 2;
+			invokeAll(new SortTask(dst, src, lo, mid, c), new SortTask(dst, src, mid+1, hi, c));
+			new MergeTask(src, lo, mid+1, mid+1, hi+1, dst, lo, c).compute();
+		}
+	}
+
+	// 并行归并src[alo, ahi)和src[blo, bhi)到从dst[k]开始的位置
+	private static class MergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Object[] src, dst;
+		private final int alo, ahi, blo, bhi, k;
+		private final Comparator c;
+
+		MergeTask(Object[] src, int alo, int ahi, int blo, int bhi, Object[] dst, int k, Comparator c) {
+			this.src = src;
+			this.alo = alo;
+			this.ahi = ahi;
+			this.blo = blo;
+			this.bhi = bhi;
+			this.dst = dst;
+			this.k = k;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			int n = (ahi - alo) + (bhi - blo);
+			if (n < SEQUENTIAL_THRESHOLD) {
+				merge(src, alo, ahi, blo, bhi, dst, k, c);
+				return;
+			}
+			// 结果的前half个元素由src[alo, i)和src[blo, j)归并得到
+			int half = n / 2;
+			int i = alo + corank(src, alo, ahi, blo, bhi, half, c);
+			int j = blo + half - (i - alo);
+			invokeAll(new MergeTask(src, alo, i, blo, j, dst, k, c),
+					new MergeTask(src, i, ahi, j, bhi, dst, k + half, c));
+		}
+	}
+
+	// int数组的排序，和sort(src, dst, lo, hi, c)相同
+	private static void sort(int[] src, int[] dst, int lo, int hi) {
+		if (hi <= lo + CUTOFF) {
+			insertionSort(dst, lo, hi);
+			return;
+		}
+		int mid = lo + (hi - lo) / 2;
+		sort(dst, src, lo, mid);
+		sort(dst, src, mid+1, hi);
+		if (!less(src[mid+1], src[mid])) {
+			System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+			return;
+		}
+		merge(src, lo, mid+1, mid+1, hi+1, dst, lo);
+	}
+
+	private static void merge(int[] src, int alo, int ahi, int blo, int bhi, int[] dst, int k) {
+		int i = alo, j = blo;
+		while (i < ahi && j < bhi) {
+			if (less(src[j], src[i])) dst[k++] = src[j++];
+			else                      dst[k++] = src[i++];
+		}
+		System.arraycopy(src, i, dst, k, ahi - i);
+		System.arraycopy(src, j, dst, k + ahi - i, bhi - j);
+	}
+
+	private static int corank(int[] src, int alo, int ahi, int blo, int bhi, int k) {
+		int lo = Math.max(0, k - (bhi - blo)), hi = Math.min(k, ahi - alo);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			if (less(src[blo + k - i - 1], src[alo + i])) hi = i;
+			else                                         lo = i + 1;
+		}
+		return lo;
+	}
+
+	private static void insertionSort(int[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class IntSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] src, dst;
+		private final int lo, hi;
+
+		IntSortTask(int[] src, int[] dst, int lo, int hi) {
+			this.src = src;
+			this.dst = dst;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD) {
+				sort(src, dst, lo, hi);
+				return;
+			}
+			int mid = lo + (hi - lo) / 2;
+			invokeAll(new IntSortTask(dst, src, lo, mid), new IntSortTask(dst, src, mid+1, hi));
+			new IntMergeTask(src, lo, mid+1, mid+1, hi+1, dst, lo).compute();
+		}
+	}
+
+	private static class IntMergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] src, dst;
+		private final int alo, ahi, blo, bhi, k;
+
+		IntMergeTask(int[] src, int alo, int ahi, int blo, int bhi, int[] dst, int k) {
+			this.src = src;
+			this.alo = alo;
+			this.ahi = ahi;
+			this.blo = blo;
+			this.bhi = bhi;
+			this.dst = dst;
+			this.k = k;
+		}
+
+		@Override
+		protected void compute() {
+			int n = (ahi - alo) + (bhi - blo);
+			if (n < SEQUENTIAL_THRESHOLD) {
+				merge(src, alo, ahi, blo, bhi, dst, k);
+				return;
+			}
+			int half = n / 2;
+			int i = alo + corank(src, alo, ahi, blo, bhi, half);
+			int j = blo + half - (i - alo);
+			invokeAll(new IntMergeTask(src, alo, i, blo, j, dst, k),
+					new IntMergeTask(src, i, ahi, j, bhi, dst, k + half));
+		}
+	}
+
+	// long数组的排序，和sort(src, dst, lo, hi, c)相同
+	private static void sort(long[] src, long[] dst, int lo, int hi) {
+		if (hi <= lo + CUTOFF) {
+			insertionSort(dst, lo, hi);
+			return;
+		}
+		int mid = lo + (hi - lo) / 2;
+		sort(dst, src, lo, mid);
+		sort(dst, src, mid+1, hi);
+		if (!less(src[mid+1], src[mid])) {
+			System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+			return;
+		}
+		merge(src, lo, mid+1, mid+1, hi+1, dst, lo);
+	}
+
+	private static void merge(long[] src, int alo, int ahi, int blo, int bhi, long[] dst, int k) {
+		int i = alo, j = blo;
+		while (i < ahi && j < bhi) {
+			if (less(src[j], src[i])) dst[k++] = src[j++];
+			else                      dst[k++] = src[i++];
+		}
+		System.arraycopy(src, i, dst, k, ahi - i);
+		System.arraycopy(src, j, dst, k + ahi - i, bhi - j);
+	}
+
+	private static int corank(long[] src, int alo, int ahi, int blo, int bhi, int k) {
+		int lo = Math.max(0, k - (bhi - blo)), hi = Math.min(k, ahi - alo);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			if (less(src[blo + k - i - 1], src[alo + i])) hi = i;
+			else                                         lo = i + 1;
+		}
+		return lo;
+	}
+
+	private static void insertionSort(long[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class LongSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final long[] src, dst;
+		private final int lo, hi;
+
+		LongSortTask(long[] src, long[] dst, int lo, int hi) {
+			this.src = src;
+			this.dst = dst;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD) {
+				sort(src, dst, lo, hi);
+				return;
+			}
+			int mid = lo + (hi - lo) / 2;
+			invokeAll(new LongSortTask(dst, src, lo, mid), new LongSortTask(dst, src, mid+1, hi));
+			new LongMergeTask(src, lo, mid+1, mid+1, hi+1, dst, lo).compute();
+		}
+	}
+
+	private static class LongMergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final long[] src, dst;
+		private final int alo, ahi, blo, bhi, k;
+
+		LongMergeTask(long[] src, int alo, int ahi, int blo, int bhi, long[] dst, int k) {
+			this.src = src;
+			this.alo = alo;
+			this.ahi = ahi;
+			this.blo = blo;
+			this.bhi = bhi;
+			this.dst = dst;
+			this.k = k;
+		}
+
+		@Override
+		protected void compute() {
+			int n = (ahi - alo) + (bhi - blo);
+			if (n < SEQUENTIAL_THRESHOLD) {
+				merge(src, alo, ahi, blo, bhi, dst, k);
+				return;
+			}
+			int half = n / 2;
+			int i = alo + corank(src, alo, ahi, blo, bhi, half);
+			int j = blo + half - (i - alo);
+			invokeAll(new LongMergeTask(src, alo, i, blo, j, dst, k),
+					new LongMergeTask(src, i, ahi, j, bhi, dst, k + half));
+		}
+	}
+
+	// float数组的排序，和sort(src, dst, lo, hi, c)相同
+	private static void sort(float[] src, float[] dst, int lo, int hi) {
+		if (hi <= lo + CUTOFF) {
+			insertionSort(dst, lo, hi);
+			return;
+		}
+		int mid = lo + (hi - lo) / 2;
+		sort(dst, src, lo, mid);
+		sort(dst, src, mid+1, hi);
+		if (!less(src[mid+1], src[mid])) {
+			System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+			return;
+		}
+		merge(src, lo, mid+1, mid+1, hi+1, dst, lo);
+	}
+
+	private static void merge(float[] src, int alo, int ahi, int blo, int bhi, float[] dst, int k) {
+		int i = alo, j = blo;
+		while (i < ahi && j < bhi) {
+			if (less(src[j], src[i])) dst[k++] = src[j++];
+			else                      dst[k++] = src[i++];
+		}
+		System.arraycopy(src, i, dst, k, ahi - i);
+		System.arraycopy(src, j, dst, k + ahi - i, bhi - j);
+	}
+
+	private static int corank(float[] src, int alo, int ahi, int blo, int bhi, int k) {
+		int lo = Math.max(0, k - (bhi - blo)), hi = Math.min(k, ahi - alo);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			if (less(src[blo + k - i - 1], src[alo + i])) hi = i;
+			else                                         lo = i + 1;
+		}
+		return lo;
+	}
+
+	private static void insertionSort(float[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class FloatSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final float[] src, dst;
+		private final int lo, hi;
+
+		FloatSortTask(float[] src, float[] dst, int lo, int hi) {
+			this.src = src;
+			this.dst = dst;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD) {
+				sort(src, dst, lo, hi);
+				return;
+			}
+			int mid = lo + (hi - lo) / 2;
+			invokeAll(new FloatSortTask(dst, src, lo, mid), new FloatSortTask(dst, src, mid+1, hi));
+			new FloatMergeTask(src, lo, mid+1, mid+1, hi+1, dst, lo).compute();
+		}
+	}
+
+	private static class FloatMergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final float[] src, dst;
+		private final int alo, ahi, blo, bhi, k;
+
+		FloatMergeTask(float[] src, int alo, int ahi, int blo, int bhi, float[] dst, int k) {
+			this.src = src;
+			this.alo = alo;
+			this.ahi = ahi;
+			this.blo = blo;
+			this.bhi = bhi;
+			this.dst = dst;
+			this.k = k;
+		}
+
+		@Override
+		protected void compute() {
+			int n = (ahi - alo) + (bhi - blo);
+			if (n < SEQUENTIAL_THRESHOLD) {
+				merge(src, alo, ahi, blo, bhi, dst, k);
+				return;
+			}
+			int half = n / 2;
+			int i = alo + corank(src, alo, ahi, blo, bhi, half);
+			int j = blo + half - (i - alo);
+			invokeAll(new FloatMergeTask(src, alo, i, blo, j, dst, k),
+					new FloatMergeTask(src, i, ahi, j, bhi, dst, k + half));
+		}
+	}
+
+	// double数组的排序，和sort(src, dst, lo, hi, c)相同
+	private static void sort(double[] src, double[] dst, int lo, int hi) {
+		if (hi <= lo + CUTOFF) {
+			insertionSort(dst, lo, hi);
+			return;
+		}
+		int mid = lo + (hi - lo) / 2;
+		sort(dst, src, lo, mid);
+		sort(dst, src, mid+1, hi);
+		if (!less(src[mid+1], src[mid])) {
+			System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+			return;
+		}
+		merge(src, lo, mid+1, mid+1, hi+1, dst, lo);
+	}
+
+	private static void merge(double[] src, int alo, int ahi, int blo, int bhi, double[] dst, int k) {
+		int i = alo, j = blo;
+		while (i < ahi && j < bhi) {
+			if (less(src[j], src[i])) dst[k++] = src[j++];
+			else                      dst[k++] = src[i++];
+		}
+		System.arraycopy(src, i, dst, k, ahi - i);
+		System.arraycopy(src, j, dst, k + ahi - i, bhi - j);
+	}
+
+	private static int corank(double[] src, int alo, int ahi, int blo, int bhi, int k) {
+		int lo = Math.max(0, k - (bhi - blo)), hi = Math.min(k, ahi - alo);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			if (less(src[blo + k - i - 1], src[alo + i])) hi = i;
+			else                                         lo = i + 1;
+		}
+		return lo;
+	}
+
+	private static void insertionSort(double[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class DoubleSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final double[] src, dst;
+		private final int lo, hi;
+
+		DoubleSortTask(double[] src, double[] dst, int lo, int hi) {
+			this.src = src;
+			this.dst = dst;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD) {
+				sort(src, dst, lo, hi);
+				return;
+			}
+			int mid = lo + (hi - lo) / 2;
+			invokeAll(new DoubleSortTask(dst, src, lo, mid), new DoubleSortTask(dst, src, mid+1, hi));
+			new DoubleMergeTask(src, lo, mid+1, mid+1, hi+1, dst, lo).compute();
+		}
+	}
+
+	private static class DoubleMergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final double[] src, dst;
+		private final int alo, ahi, blo, bhi, k;
+
+		DoubleMergeTask(double[] src, int alo, int ahi, int blo, int bhi, double[] dst, int k) {
+			this.src = src;
+			this.alo = alo;
+			this.ahi = ahi;
+			this.blo = blo;
+			this.bhi = bhi;
+			this.dst = dst;
+			this.k = k;
+		}
+
+		@Override
+		protected void compute() {
+			int n = (ahi - alo) + (bhi - blo);
+			if (n < SEQUENTIAL_THRESHOLD) {
+				merge(src, alo, ahi, blo, bhi, dst, k);
+				return;
+			}
+			int half = n / 2;
+			int i = alo + corank(src, alo, ahi, blo, bhi, half);
+			int j = blo + half - (i - alo);
+			invokeAll(new DoubleMergeTask(src, alo, i, blo, j, dst, k),
+					new DoubleMergeTask(src, i, ahi, j, bhi, dst, k + half));
+		}
+	}
+
+	// is v < w ?
+	private static boolean less(Comparator c, Object v, Object w) {
+		return (c.compare(v, w) < 0);
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(Object[] a, int i, int j) {
+		Object swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ?
+	private static boolean less(int v, int w) {
+		return v < w;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(int[] a, int i, int j) {
+		int swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ?
+	private static boolean less(long v, long w) {
+		return v < w;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(long[] a, int i, int j) {
+		long swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ? 和Float.compareTo的顺序相同
+	private static boolean less(float v, float w) {
+		return Float.compare(v, w) < 0;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(float[] a, int i, int j) {
+		float swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ? 和Double.compareTo的顺序相同
+	private static boolean less(double v, double w) {
+		return Double.compare(v, w) < 0;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(double[] a, int i, int j) {
+		double swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// 用于调试数组是否有序
+	private static boolean isSorted(Object[] a, Comparator c) {
+		for (int i = 1; i < a.length; i++)
+			if (less(c, a[i], a[i-1])) return false;
+		return true;
+	}
+
+	// 打印数组
+	private static void show(Comparable[] a) {
+		for (int i = 0; i < a.length; i++) {
+			StdOut.println(a[i]);
+		}
+	}
+
+	/**
+	 * 测试
+	 * more tiny.txt
+	 * S O R T E X A M P L E
+	 * more word3.txt
+	 * bed dad yes zoo ... all bad yet
+	 */
+	public static void main(String[] args) {
+		String[] a = StdIn.readAllStrings();
+		ParallelMerge.sort(a);
+		show(a);
+	}
+}
@@ -0,0 +1,832 @@
+package org.xiao.algs.sort;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.xiao.algs.io.StdIn;
+import org.xiao.algs.io.StdOut;
+
+/***
+ *
+ * 并行的双切分元素快速排序
+ *
+ * 从5个等距的元素中取第2小和第4小的两个元素p < q作为切分元素，一次切分为a[lo..lt-1] < p、p <= a[lt+1..gt-1] <= q、a[gt+1..hi] > q三部分；
+ * 如果p和q相等，说明重复元素很多，改为和Quick3way一样的三向切分，等于切分元素的部分不再处理
+ *
+ * 子数组较大时，切分出的各部分作为ForkJoinPool中的任务并行排序；很小时使用插入排序
+ *
+ * 和内省排序(introsort)一样限制递归深度为2lgN，超过时该子数组改用堆排序，所以最坏情况下也是NlogN
+ *
+ * 排序不是稳定的，不需要辅助数组
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelQuick {
+	private static final int INSERTION_CUTOFF = 27; // 子数组小于该值时使用插入排序，至少为27才能取5个等距的元素
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 13; // 子数组小于该值时不再拆分任务
+
+	// Comparable的自然顺序
+	private static final Comparator NATURAL_ORDER = new Comparator() {
+		public int compare(Object v, Object w) {
+			return ((Comparable) v).compareTo(w);
+		}
+	};
+
+	private ParallelQuick() { }
+
+	/**
+	 * 使用公共ForkJoinPool对数组a排序
+	 */
+	public static void sort(Comparable[] a) {
+		sort(a, NATURAL_ORDER, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对数组a排序
+	 */
+	public static void sort(Comparable[] a, ForkJoinPool pool) {
+		sort(a, NATURAL_ORDER, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool按Comparator c对数组a排序
+	 */
+	public static void sort(Object[] a, Comparator c) {
+		sort(a, c, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool按Comparator c对数组a排序
+	 */
+	public static void sort(Object[] a, Comparator c, ForkJoinPool pool) {
+		int depth = depthLimit(a.length);
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(a, 0, a.length - 1, depth, c);
+		else pool.invoke(new SortTask(a, 0, a.length - 1, depth, c));
+		assert isSorted(a, c);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对int数组排序
+	 */
+	public static void sort(int[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对int数组排序
+	 */
+	public static void sort(int[] a, ForkJoinPool pool) {
+		int depth = depthLimit(a.length);
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(a, 0, a.length - 1, depth);
+		else pool.invoke(new IntSortTask(a, 0, a.length - 1, depth));
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对long数组排序
+	 */
+	public static void sort(long[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对long数组排序
+	 */
+	public static void sort(long[] a, ForkJoinPool pool) {
+		int depth = depthLimit(a.length);
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(a, 0, a.length - 1, depth);
+		else pool.invoke(new LongSortTask(a, 0, a.length - 1, depth));
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对float数组排序
+	 */
+	public static void sort(float[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对float数组排序
+	 */
+	public static void sort(float[] a, ForkJoinPool pool) {
+		int depth = depthLimit(a.length);
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(a, 0, a.length - 1, depth);
+		else pool.invoke(new FloatSortTask(a, 0, a.length - 1, depth));
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对double数组排序
+	 */
+	public static void sort(double[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对double数组排序
+	 */
+	public static void sort(double[] a, ForkJoinPool pool) {
+		int depth = depthLimit(a.length);
+		if (a.length < SEQUENTIAL_THRESHOLD) sort(a, 0, a.length - 1, depth);
+		else pool.invoke(new DoubleSortTask(a, 0, a.length - 1, depth));
+	}
+
+	// 递归深度的上限2lgN
+	private static int depthLimit(int N) {
+		return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(N, 1)));
+	}
+
+	// 对a[lo..hi]排序，depth为剩余的递归深度，用完后改用堆排序
+	private static void sort(Object[] a, int lo, int hi, int depth, Comparator c) {
+		if (hi - lo < INSERTION_CUTOFF) {
+			insertionSort(a, lo, hi, c);
+			return;
+		}
+		if (depth == 0) {
+			heapSort(a, lo, hi, c);
+			return;
+		}
+		long bounds = partition(a, lo, hi, c);
+		int lt = (int) (bounds >>> 32), gt = (int) bounds;
+		sort(a, lo, lt-1, depth-1, c);
+		if (less(c, a[lt], a[gt])) sort(a, lt+1, gt-1, depth-1, c);
+		sort(a, gt+1, hi, depth-1, c);
+	}
+
+	// 切分a[lo..hi]，返回打包为一个long的lt和gt：
+	// a[lo..lt-1] < a[lt] <= a[lt+1..gt-1] <= a[gt] < a[gt+1..hi]，a[lt]和a[gt]相等时a[lt..gt]全部相等
+	private static long partition(Object[] a, int lo, int hi, Comparator c) {
+		// 从5个等距的元素中取第2小和第4小的作为切分元素
+		int seventh = (hi - lo + 1) / 7;
+		int e3 = (lo + hi) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		sort5(a, e1, e2, e3, e4, e5, c);
+
+		if (!less(c, a[e2], a[e4])) {
+			// 两个切分元素相等，和Quick3way一样三向切分
+			exch(a, lo, e3);
+			Object v = a[lo];
+			int lt = lo, gt = hi, i = lo + 1;
+			while (i <= gt) {
+				if      (less(c, a[i], v)) exch(a, lt++, i++);
+				else if (less(c, v, a[i])) exch(a, i, gt--);
+				else                    i++;
+			}
+			return ((long) lt << 32) | gt;
+		}
+
+		// 双切分元素p < q
+		exch(a, lo, e2);
+		exch(a, hi, e4);
+		Object p = a[lo], q = a[hi];
+		int lt = lo + 1, gt = hi - 1, i = lo + 1;
+		while (i <= gt) {
+			if      (less(c, a[i], p)) exch(a, lt++, i++);
+			else if (less(c, q, a[i])) exch(a, i, gt--);
+			else                    i++;
+		}
+		exch(a, lo, --lt);
+		exch(a, hi, ++gt);
+		return ((long) lt << 32) | gt;
+	}
+
+	// 用9次比较交换把a[e1..e5]这5个元素排好序
+	private static void sort5(Object[] a, int e1, int e2, int e3, int e4, int e5, Comparator c) {
+		compareExch(a, e1, e2, c);
+		compareExch(a, e4, e5, c);
+		compareExch(a, e3, e5, c);
+		compareExch(a, e3, e4, c);
+		compareExch(a, e1, e4, c);
+		compareExch(a, e1, e3, c);
+		compareExch(a, e2, e5, c);
+		compareExch(a, e2, e4, c);
+		compareExch(a, e2, e3, c);
+	}
+
+	private static void compareExch(Object[] a, int i, int j, Comparator c) {
+		if (less(c, a[j], a[i])) exch(a, i, j);
+	}
+
+	// 对a[lo..hi]进行堆排序，和Heap相同，堆中第k个元素为a[lo+k-1]
+	private static void heapSort(Object[] a, int lo, int hi, Comparator c) {
+		int N = hi - lo + 1;
+		for (int k = N/2; k >= 1; k--)
+			sink(a, lo - 1, k, N, c);
+		while (N > 1) {
+			exch(a, lo, lo + N - 1);
+			sink(a, lo - 1, 1, --N, c);
+		}
+	}
+
+	private static void sink(Object[] a, int base, int k, int N, Comparator c) {
+		while (2*k <= N) {
+			int j = 2*k;
+			if (j < N && less(c, a[base + j], a[base + j + 1])) j++;
+			if (!less(c, a[base + k], a[base + j])) break;
+			exch(a, base + k, base + j);
+			k = j;
+		}
+	}
+
+	// 插入排序
+	private static void insertionSort(Object[] a, int lo, int hi, Comparator c) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(c, a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	// 并行排序a[lo..hi]：切分后各部分作为子任务
+	private static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Object[] a;
+		private final int lo, hi, depth;
+		private final Comparator c;
+
+		SortTask(Object[] a, int lo, int hi, int depth, Comparator c) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.depth = depth;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD || depth == 0) {
+				sort(a, lo, hi, depth, c);
+				return;
+			}
+			long bounds = partition(a, lo, hi, c);
+			int lt = (int) (bounds >>> 32), gt = (int) bounds;
+			if (less(c, a[lt], a[gt]))
+				invokeAll(new SortTask(a, lo, lt-1, depth-1, c), new SortTask(a, lt+1, gt-1, depth-1, c),
+						new SortTask(a, gt+1, hi, depth-1, c));
+			else
+				invokeAll(new SortTask(a, lo, lt-1, depth-1, c), new SortTask(a, gt+1, hi, depth-1, c));
+		}
+	}
+
+	private static void sort(int[] a, int lo, int hi, int depth) {
+		if (hi - lo < INSERTION_CUTOFF) {
+			insertionSort(a, lo, hi);
+			return;
+		}
+		if (depth == 0) {
+			heapSort(a, lo, hi);
+			return;
+		}
+		long bounds = partition(a, lo, hi);
+		int lt = (int) (bounds >>> 32), gt = (int) bounds;
+		sort(a, lo, lt-1, depth-1);
+		if (less(a[lt], a[gt])) sort(a, lt+1, gt-1, depth-1);
+		sort(a, gt+1, hi, depth-1);
+	}
+
+	private static long partition(int[] a, int lo, int hi) {
+		int seventh = (hi - lo + 1) / 7;
+		int e3 = (lo + hi) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		sort5(a, e1, e2, e3, e4, e5);
+
+		if (!less(a[e2], a[e4])) {
+			exch(a, lo, e3);
+			int v = a[lo];
+			int lt = lo, gt = hi, i = lo + 1;
+			while (i <= gt) {
+				if      (less(a[i], v)) exch(a, lt++, i++);
+				else if (less(v, a[i])) exch(a, i, gt--);
+				else                    i++;
+			}
+			return ((long) lt << 32) | gt;
+		}
+
+		exch(a, lo, e2);
+		exch(a, hi, e4);
+		int p = a[lo], q = a[hi];
+		int lt = lo + 1, gt = hi - 1, i = lo + 1;
+		while (i <= gt) {
+			if      (less(a[i], p)) exch(a, lt++, i++);
+			else if (less(q, a[i])) exch(a, i, gt--);
+			else                    i++;
+		}
+		exch(a, lo, --lt);
+		exch(a, hi, ++gt);
+		return ((long) lt << 32) | gt;
+	}
+
+	private static void sort5(int[] a, int e1, int e2, int e3, int e4, int e5) {
+		compareExch(a, e1, e2);
+		compareExch(a, e4, e5);
+		compareExch(a, e3, e5);
+		compareExch(a, e3, e4);
+		compareExch(a, e1, e4);
+		compareExch(a, e1, e3);
+		compareExch(a, e2, e5);
+		compareExch(a, e2, e4);
+		compareExch(a, e2, e3);
+	}
+
+	private static void compareExch(int[] a, int i, int j) {
+		if (less(a[j], a[i])) exch(a, i, j);
+	}
+
+	private static void heapSort(int[] a, int lo, int hi) {
+		int N = hi - lo + 1;
+		for (int k = N/2; k >= 1; k--)
+			sink(a, lo - 1, k, N);
+		while (N > 1) {
+			exch(a, lo, lo + N - 1);
+			sink(a, lo - 1, 1, --N);
+		}
+	}
+
+	private static void sink(int[] a, int base, int k, int N) {
+		while (2*k <= N) {
+			int j = 2*k;
+			if (j < N && less(a[base + j], a[base + j + 1])) j++;
+			if (!less(a[base + k], a[base + j])) break;
+			exch(a, base + k, base + j);
+			k = j;
+		}
+	}
+
+	private static void insertionSort(int[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class IntSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] a;
+		private final int lo, hi, depth;
+
+		IntSortTask(int[] a, int lo, int hi, int depth) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD || depth == 0) {
+				sort(a, lo, hi, depth);
+				return;
+			}
+			long bounds = partition(a, lo, hi);
+			int lt = (int) (bounds >>> 32), gt = (int) bounds;
+			if (less(a[lt], a[gt]))
+				invokeAll(new IntSortTask(a, lo, lt-1, depth-1), new IntSortTask(a, lt+1, gt-1, depth-1),
+						new IntSortTask(a, gt+1, hi, depth-1));
+			else
+				invokeAll(new IntSortTask(a, lo, lt-1, depth-1), new IntSortTask(a, gt+1, hi, depth-1));
+		}
+	}
+
+	private static void sort(long[] a, int lo, int hi, int depth) {
+		if (hi - lo < INSERTION_CUTOFF) {
+			insertionSort(a, lo, hi);
+			return;
+		}
+		if (depth == 0) {
+			heapSort(a, lo, hi);
+			return;
+		}
+		long bounds = partition(a, lo, hi);
+		int lt = (int) (bounds >>> 32), gt = (int) bounds;
+		sort(a, lo, lt-1, depth-1);
+		if (less(a[lt], a[gt])) sort(a, lt+1, gt-1, depth-1);
+		sort(a, gt+1, hi, depth-1);
+	}
+
+	private static long partition(long[] a, int lo, int hi) {
+		int seventh = (hi - lo + 1) / 7;
+		int e3 = (lo + hi) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		sort5(a, e1, e2, e3, e4, e5);
+
+		if (!less(a[e2], a[e4])) {
+			exch(a, lo, e3);
+			long v = a[lo];
+			int lt = lo, gt = hi, i = lo + 1;
+			while (i <= gt) {
+				if      (less(a[i], v)) exch(a, lt++, i++);
+				else if (less(v, a[i])) exch(a, i, gt--);
+				else                    i++;
+			}
+			return ((long) lt << 32) | gt;
+		}
+
+		exch(a, lo, e2);
+		exch(a, hi, e4);
+		long p = a[lo], q = a[hi];
+		int lt = lo + 1, gt = hi - 1, i = lo + 1;
+		while (i <= gt) {
+			if      (less(a[i], p)) exch(a, lt++, i++);
+			else if (less(q, a[i])) exch(a, i, gt--);
+			else                    i++;
+		}
+		exch(a, lo, --lt);
+		exch(a, hi, ++gt);
+		return ((long) lt << 32) | gt;
+	}
+
+	private static void sort5(long[] a, int e1, int e2, int e3, int e4, int e5) {
+		compareExch(a, e1, e2);
+		compareExch(a, e4, e5);
+		compareExch(a, e3, e5);
+		compareExch(a, e3, e4);
+		compareExch(a, e1, e4);
+		compareExch(a, e1, e3);
+		compareExch(a, e2, e5);
+		compareExch(a, e2, e4);
+		compareExch(a, e2, e3);
+	}
+
+	private static void compareExch(long[] a, int i, int j) {
+		if (less(a[j], a[i])) exch(a, i, j);
+	}
+
+	private static void heapSort(long[] a, int lo, int hi) {
+		int N = hi - lo + 1;
+		for (int k = N/2; k >= 1; k--)
+			sink(a, lo - 1, k, N);
+		while (N > 1) {
+			exch(a, lo, lo + N - 1);
+			sink(a, lo - 1, 1, --N);
+		}
+	}
+
+	private static void sink(long[] a, int base, int k, int N) {
+		while (2*k <= N) {
+			int j = 2*k;
+			if (j < N && less(a[base + j], a[base + j + 1])) j++;
+			if (!less(a[base + k], a[base + j])) break;
+			exch(a, base + k, base + j);
+			k = j;
+		}
+	}
+
+	private static void insertionSort(long[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class LongSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final long[] a;
+		private final int lo, hi, depth;
+
+		LongSortTask(long[] a, int lo, int hi, int depth) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD || depth == 0) {
+				sort(a, lo, hi, depth);
+				return;
+			}
+			long bounds = partition(a, lo, hi);
+			int lt = (int) (bounds >>> 32), gt = (int) bounds;
+			if (less(a[lt], a[gt]))
+				invokeAll(new LongSortTask(a, lo, lt-1, depth-1), new LongSortTask(a, lt+1, gt-1, depth-1),
+						new LongSortTask(a, gt+1, hi, depth-1));
+			else
+				invokeAll(new LongSortTask(a, lo, lt-1, depth-1), new LongSortTask(a, gt+1, hi, depth-1));
+		}
+	}
+
+	private static void sort(float[] a, int lo, int hi, int depth) {
+		if (hi - lo < INSERTION_CUTOFF) {
+			insertionSort(a, lo, hi);
+			return;
+		}
+		if (depth == 0) {
+			heapSort(a, lo, hi);
+			return;
+		}
+		long bounds = partition(a, lo, hi);
+		int lt = (int) (bounds >>> 32), gt = (int) bounds;
+		sort(a, lo, lt-1, depth-1);
+		if (less(a[lt], a[gt])) sort(a, lt+1, gt-1, depth-1);
+		sort(a, gt+1, hi, depth-1);
+	}
+
+	private static long partition(float[] a, int lo, int hi) {
+		int seventh = (hi - lo + 1) / 7;
+		int e3 = (lo + hi) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		sort5(a, e1, e2, e3, e4, e5);
+
+		if (!less(a[e2], a[e4])) {
+			exch(a, lo, e3);
+			float v = a[lo];
+			int lt = lo, gt = hi, i = lo + 1;
+			while (i <= gt) {
+				if      (less(a[i], v)) exch(a, lt++, i++);
+				else if (less(v, a[i])) exch(a, i, gt--);
+				else                    i++;
+			}
+			return ((long) lt << 32) | gt;
+		}
+
+		exch(a, lo, e2);
+		exch(a, hi, e4);
+		float p = a[lo], q = a[hi];
+		int lt = lo + 1, gt = hi - 1, i = lo + 1;
+		while (i <= gt) {
+			if      (less(a[i], p)) exch(a, lt++, i++);
+			else if (less(q, a[i])) exch(a, i, gt--);
+			else                    i++;
+		}
+		exch(a, lo, --lt);
+		exch(a, hi, ++gt);
+		return ((long) lt << 32) | gt;
+	}
+
+	private static void sort5(float[] a, int e1, int e2, int e3, int e4, int e5) {
+		compareExch(a, e1, e2);
+		compareExch(a, e4, e5);
+		compareExch(a, e3, e5);
+		compareExch(a, e3, e4);
+		compareExch(a, e1, e4);
+		compareExch(a, e1, e3);
+		compareExch(a, e2, e5);
+		compareExch(a, e2, e4);
+		compareExch(a, e2, e3);
+	}
+
+	private static void compareExch(float[] a, int i, int j) {
+		if (less(a[j], a[i])) exch(a, i, j);
+	}
+
+	private static void heapSort(float[] a, int lo, int hi) {
+		int N = hi - lo + 1;
+		for (int k = N/2; k >= 1; k--)
+			sink(a, lo - 1, k, N);
+		while (N > 1) {
+			exch(a, lo, lo + N - 1);
+			sink(a, lo - 1, 1, --N);
+		}
+	}
+
+	private static void sink(float[] a, int base, int k, int N) {
+		while (2*k <= N) {
+			int j = 2*k;
+			if (j < N && less(a[base + j], a[base + j + 1])) j++;
+			if (!less(a[base + k], a[base + j])) break;
+			exch(a, base + k, base + j);
+			k = j;
+		}
+	}
+
+	private static void insertionSort(float[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class FloatSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final float[] a;
+		private final int lo, hi, depth;
+
+		FloatSortTask(float[] a, int lo, int hi, int depth) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD || depth == 0) {
+				sort(a, lo, hi, depth);
+				return;
+			}
+			long bounds = partition(a, lo, hi);
+			int lt = (int) (bounds >>> 32), gt = (int) bounds;
+			if (less(a[lt], a[gt]))
+				invokeAll(new FloatSortTask(a, lo, lt-1, depth-1), new FloatSortTask(a, lt+1, gt-1, depth-1),
+						new FloatSortTask(a, gt+1, hi, depth-1));
+			else
+				invokeAll(new FloatSortTask(a, lo, lt-1, depth-1), new FloatSortTask(a, gt+1, hi, depth-1));
+		}
+	}
+
+	private static void sort(double[] a, int lo, int hi, int depth) {
+		if (hi - lo < INSERTION_CUTOFF) {
+			insertionSort(a, lo, hi);
+			return;
+		}
+		if (depth == 0) {
+			heapSort(a, lo, hi);
+			return;
+		}
+		long bounds = partition(a, lo, hi);
+		int lt = (int) (bounds >>> 32), gt = (int) bounds;
+		sort(a, lo, lt-1, depth-1);
+		if (less(a[lt], a[gt])) sort(a, lt+1, gt-1, depth-1);
+		sort(a, gt+1, hi, depth-1);
+	}
+
+	private static long partition(double[] a, int lo, int hi) {
+		int seventh = (hi - lo + 1) / 7;
+		int e3 = (lo + hi) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		sort5(a, e1, e2, e3, e4, e5);
+
+		if (!less(a[e2], a[e4])) {
+			exch(a, lo, e3);
+			double v = a[lo];
+			int lt = lo, gt = hi, i = lo + 1;
+			while (i <= gt) {
+				if      (less(a[i], v)) exch(a, lt++, i++);
+				else if (less(v, a[i])) exch(a, i, gt--);
+				else                    i++;
+			}
+			return ((long) lt << 32) | gt;
+		}
+
+		exch(a, lo, e2);
+		exch(a, hi, e4);
+		double p = a[lo], q = a[hi];
+		int lt = lo + 1, gt = hi - 1, i = lo + 1;
+		while (i <= gt) {
+			if      (less(a[i], p)) exch(a, lt++, i++);
+			else if (less(q, a[i])) exch(a, i, gt--);
+			else                    i++;
+		}
+		exch(a, lo, --lt);
+		exch(a, hi, ++gt);
+		return ((long) lt << 32) | gt;
+	}
+
+	private static void sort5(double[] a, int e1, int e2, int e3, int e4, int e5) {
+		compareExch(a, e1, e2);
+		compareExch(a, e4, e5);
+		compareExch(a, e3, e5);
+		compareExch(a, e3, e4);
+		compareExch(a, e1, e4);
+		compareExch(a, e1, e3);
+		compareExch(a, e2, e5);
+		compareExch(a, e2, e4);
+		compareExch(a, e2, e3);
+	}
+
+	private static void compareExch(double[] a, int i, int j) {
+		if (less(a[j], a[i])) exch(a, i, j);
+	}
+
+	private static void heapSort(double[] a, int lo, int hi) {
+		int N = hi - lo + 1;
+		for (int k = N/2; k >= 1; k--)
+			sink(a, lo - 1, k, N);
+		while (N > 1) {
+			exch(a, lo, lo + N - 1);
+			sink(a, lo - 1, 1, --N);
+		}
+	}
+
+	private static void sink(double[] a, int base, int k, int N) {
+		while (2*k <= N) {
+			int j = 2*k;
+			if (j < N && less(a[base + j], a[base + j + 1])) j++;
+			if (!less(a[base + k], a[base + j])) break;
+			exch(a, base + k, base + j);
+			k = j;
+		}
+	}
+
+	private static void insertionSort(double[] a, int lo, int hi) {
+		for (int i = lo; i <= hi; i++)
+			for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+				exch(a, j, j-1);
+	}
+
+	private static class DoubleSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final double[] a;
+		private final int lo, hi, depth;
+
+		DoubleSortTask(double[] a, int lo, int hi, int depth) {
+			this.a = a;
+			this.lo = lo;
+			this.hi = hi;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo < SEQUENTIAL_THRESHOLD || depth == 0) {
+				sort(a, lo, hi, depth);
+				return;
+			}
+			long bounds = partition(a, lo, hi);
+			int lt = (int) (bounds >>> 32), gt = (int) bounds;
+			if (less(a[lt], a[gt]))
+				invokeAll(new DoubleSortTask(a, lo, lt-1, depth-1), new DoubleSortTask(a, lt+1, gt-1, depth-1),
+						new DoubleSortTask(a, gt+1, hi, depth-1));
+			else
+				invokeAll(new DoubleSortTask(a, lo, lt-1, depth-1), new DoubleSortTask(a, gt+1, hi, depth-1));
+		}
+	}
+
+	// is v < w ?
+	private static boolean less(Comparator c, Object v, Object w) {
+		return (c.compare(v, w) < 0);
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(Object[] a, int i, int j) {
+		Object swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ?
+	private static boolean less(int v, int w) {
+		return v < w;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(int[] a, int i, int j) {
+		int swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ?
+	private static boolean less(long v, long w) {
+		return v < w;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(long[] a, int i, int j) {
+		long swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ? 和Float.compareTo的顺序相同
+	private static boolean less(float v, float w) {
+		return Float.compare(v, w) < 0;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(float[] a, int i, int j) {
+		float swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// is v < w ? 和Double.compareTo的顺序相同
+	private static boolean less(double v, double w) {
+		return Double.compare(v, w) < 0;
+	}
+
+	// 交换数组元素 a[i] 和  a[j]
+	private static void exch(double[] a, int i, int j) {
+		double swap = a[i];
+		a[i] = a[j];
+		a[j] = swap;
+	}
+
+	// 用于调试数组是否有序
+	private static boolean isSorted(Object[] a, Comparator c) {
+		for (int i = 1; i < a.length; i++)
+			if (less(c, a[i], a[i-1])) return false;
+		return true;
+	}
+
+	// 打印数组
+	private static void show(Comparable[] a) {
+		for (int i = 0; i < a.length; i++) {
+			StdOut.println(a[i]);
+		}
+	}
+
+	/**
+	 * 测试
+	 * more tiny.txt
+	 * S O R T E X A M P L E
+	 * more word3.txt
+	 * bed dad yes zoo ... all bad yet
+	 */
+	public static void main(String[] args) {
+		String[] a = StdIn.readAllStrings();
+		ParallelQuick.sort(a);
+		show(a);
+	}
+}
@@ -77,6 +77,190 @@ public class Quick {
         return a[lo];
     }
 
+    /**
+     * 对int数组进行快速排序
+     */
+    public static void sort(int[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(int[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int j = partition(a, lo, hi);
+        sort(a, lo, j-1);
+        sort(a, j+1, hi);
+    }
+
+    private static int partition(int[] a, int lo, int hi) {
+        int i = lo;
+        int j = hi + 1;
+        int v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i >= j) break;
+
+            exch(a, i, j);
+        }
+        exch(a, lo, j);
+        return j;
+    }
+
+    /**
+     * 对long数组进行快速排序
+     */
+    public static void sort(long[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(long[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int j = partition(a, lo, hi);
+        sort(a, lo, j-1);
+        sort(a, j+1, hi);
+    }
+
+    private static int partition(long[] a, int lo, int hi) {
+        int i = lo;
+        int j = hi + 1;
+        long v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i >= j) break;
+
+            exch(a, i, j);
+        }
+        exch(a, lo, j);
+        return j;
+    }
+
+    /**
+     * 对float数组进行快速排序
+     */
+    public static void sort(float[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(float[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int j = partition(a, lo, hi);
+        sort(a, lo, j-1);
+        sort(a, j+1, hi);
+    }
+
+    private static int partition(float[] a, int lo, int hi) {
+        int i = lo;
+        int j = hi + 1;
+        float v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i >= j) break;
+
+            exch(a, i, j);
+        }
+        exch(a, lo, j);
+        return j;
+    }
+
+    /**
+     * 对double数组进行快速排序
+     */
+    public static void sort(double[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(double[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int j = partition(a, lo, hi);
+        sort(a, lo, j-1);
+        sort(a, j+1, hi);
+    }
+
+    private static int partition(double[] a, int lo, int hi) {
+        int i = lo;
+        int j = hi + 1;
+        double v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i >= j) break;
+
+            exch(a, i, j);
+        }
+        exch(a, lo, j);
+        return j;
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(int[] a, int i, int j) {
+        int swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(long[] a, int i, int j) {
+        long swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(float[] a, int i, int j) {
+        float swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(double[] a, int i, int j) {
+        double swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
     // is v < w ?
     private static boolean less(Comparable v, Comparable w) {
         return (v.compareTo(w) < 0);
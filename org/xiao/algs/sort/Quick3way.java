@@ -48,6 +48,142 @@ public class Quick3way {
     }
 
     
+    /**
+     * 使用三向切分的快速排序对int数组排序
+     */
+    public static void sort(int[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(int[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int lt = lo, gt = hi;
+        int v = a[lo];
+        int i = lo;
+        while (i <= gt) {
+            if      (less(a[i], v)) exch(a, lt++, i++);
+            else if (less(v, a[i])) exch(a, i, gt--);
+            else                    i++;
+        }
+        sort(a, lo, lt-1);
+        sort(a, gt+1, hi);
+    }
+
+    /**
+     * 使用三向切分的快速排序对long数组排序
+     */
+    public static void sort(long[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(long[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int lt = lo, gt = hi;
+        long v = a[lo];
+        int i = lo;
+        while (i <= gt) {
+            if      (less(a[i], v)) exch(a, lt++, i++);
+            else if (less(v, a[i])) exch(a, i, gt--);
+            else                    i++;
+        }
+        sort(a, lo, lt-1);
+        sort(a, gt+1, hi);
+    }
+
+    /**
+     * 使用三向切分的快速排序对float数组排序
+     */
+    public static void sort(float[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(float[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int lt = lo, gt = hi;
+        float v = a[lo];
+        int i = lo;
+        while (i <= gt) {
+            if      (less(a[i], v)) exch(a, lt++, i++);
+            else if (less(v, a[i])) exch(a, i, gt--);
+            else                    i++;
+        }
+        sort(a, lo, lt-1);
+        sort(a, gt+1, hi);
+    }
+
+    /**
+     * 使用三向切分的快速排序对double数组排序
+     */
+    public static void sort(double[] a) {
+        StdRandom.shuffle(a);
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(double[] a, int lo, int hi) {
+        if (hi <= lo) return;
+        int lt = lo, gt = hi;
+        double v = a[lo];
+        int i = lo;
+        while (i <= gt) {
+            if      (less(a[i], v)) exch(a, lt++, i++);
+            else if (less(v, a[i])) exch(a, i, gt--);
+            else                    i++;
+        }
+        sort(a, lo, lt-1);
+        sort(a, gt+1, hi);
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(int[] a, int i, int j) {
+        int swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(long[] a, int i, int j) {
+        long swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(float[] a, int i, int j) {
+        float swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(double[] a, int i, int j) {
+        double swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
     // is v < w ?
     private static boolean less(Comparable v, Comparable w) {
         return (v.compareTo(w) < 0);
@@ -98,6 +98,338 @@ public class QuickX {
                (less(a[k], a[j]) ? j : less(a[k], a[i]) ? k : i));
     }
 
+    /**
+     * 使用改进的快速排序对int数组排序
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(int[] a, int lo, int hi) {
+        int N = hi - lo + 1;
+        if (N <= CUTOFF) {
+            insertionSort(a, lo, hi);
+            return;
+        }
+        else if (N <= 40) {
+            int m = median3(a, lo, lo + N/2, hi);
+            exch(a, m, lo);
+        }
+        else  {
+            int eps = N/8;
+            int mid = lo + N/2;
+            int m1 = median3(a, lo, lo + eps, lo + eps + eps);
+            int m2 = median3(a, mid - eps, mid, mid + eps);
+            int m3 = median3(a, hi - eps - eps, hi - eps, hi);
+            int ninther = median3(a, m1, m2, m3);
+            exch(a, ninther, lo);
+        }
+
+        // Bentley-McIlroy 3-way partitioning
+        int i = lo, j = hi+1;
+        int p = lo, q = hi+1;
+        int v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i == j && eq(a[i], v))
+                exch(a, ++p, i);
+            if (i >= j) break;
+
+            exch(a, i, j);
+            if (eq(a[i], v)) exch(a, ++p, i);
+            if (eq(a[j], v)) exch(a, --q, j);
+        }
+
+        i = j + 1;
+        for (int k = lo; k <= p; k++) exch(a, k, j--);
+        for (int k = hi; k >= q; k--) exch(a, k, i++);
+
+        sort(a, lo, j);
+        sort(a, i, hi);
+    }
+
+    private static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    private static int median3(int[] a, int i, int j, int k) {
+        return (less(a[i], a[j]) ?
+               (less(a[j], a[k]) ? j : less(a[i], a[k]) ? k : i) :
+               (less(a[k], a[j]) ? j : less(a[k], a[i]) ? k : i));
+    }
+
+    /**
+     * 使用改进的快速排序对long数组排序
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(long[] a, int lo, int hi) {
+        int N = hi - lo + 1;
+        if (N <= CUTOFF) {
+            insertionSort(a, lo, hi);
+            return;
+        }
+        else if (N <= 40) {
+            int m = median3(a, lo, lo + N/2, hi);
+            exch(a, m, lo);
+        }
+        else  {
+            int eps = N/8;
+            int mid = lo + N/2;
+            int m1 = median3(a, lo, lo + eps, lo + eps + eps);
+            int m2 = median3(a, mid - eps, mid, mid + eps);
+            int m3 = median3(a, hi - eps - eps, hi - eps, hi);
+            int ninther = median3(a, m1, m2, m3);
+            exch(a, ninther, lo);
+        }
+
+        // Bentley-McIlroy 3-way partitioning
+        int i = lo, j = hi+1;
+        int p = lo, q = hi+1;
+        long v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i == j && eq(a[i], v))
+                exch(a, ++p, i);
+            if (i >= j) break;
+
+            exch(a, i, j);
+            if (eq(a[i], v)) exch(a, ++p, i);
+            if (eq(a[j], v)) exch(a, --q, j);
+        }
+
+        i = j + 1;
+        for (int k = lo; k <= p; k++) exch(a, k, j--);
+        for (int k = hi; k >= q; k--) exch(a, k, i++);
+
+        sort(a, lo, j);
+        sort(a, i, hi);
+    }
+
+    private static void insertionSort(long[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    private static int median3(long[] a, int i, int j, int k) {
+        return (less(a[i], a[j]) ?
+               (less(a[j], a[k]) ? j : less(a[i], a[k]) ? k : i) :
+               (less(a[k], a[j]) ? j : less(a[k], a[i]) ? k : i));
+    }
+
+    /**
+     * 使用改进的快速排序对float数组排序
+     */
+    public static void sort(float[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(float[] a, int lo, int hi) {
+        int N = hi - lo + 1;
+        if (N <= CUTOFF) {
+            insertionSort(a, lo, hi);
+            return;
+        }
+        else if (N <= 40) {
+            int m = median3(a, lo, lo + N/2, hi);
+            exch(a, m, lo);
+        }
+        else  {
+            int eps = N/8;
+            int mid = lo + N/2;
+            int m1 = median3(a, lo, lo + eps, lo + eps + eps);
+            int m2 = median3(a, mid - eps, mid, mid + eps);
+            int m3 = median3(a, hi - eps - eps, hi - eps, hi);
+            int ninther = median3(a, m1, m2, m3);
+            exch(a, ninther, lo);
+        }
+
+        // Bentley-McIlroy 3-way partitioning
+        int i = lo, j = hi+1;
+        int p = lo, q = hi+1;
+        float v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i == j && eq(a[i], v))
+                exch(a, ++p, i);
+            if (i >= j) break;
+
+            exch(a, i, j);
+            if (eq(a[i], v)) exch(a, ++p, i);
+            if (eq(a[j], v)) exch(a, --q, j);
+        }
+
+        i = j + 1;
+        for (int k = lo; k <= p; k++) exch(a, k, j--);
+        for (int k = hi; k >= q; k--) exch(a, k, i++);
+
+        sort(a, lo, j);
+        sort(a, i, hi);
+    }
+
+    private static void insertionSort(float[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    private static int median3(float[] a, int i, int j, int k) {
+        return (less(a[i], a[j]) ?
+               (less(a[j], a[k]) ? j : less(a[i], a[k]) ? k : i) :
+               (less(a[k], a[j]) ? j : less(a[k], a[i]) ? k : i));
+    }
+
+    /**
+     * 使用改进的快速排序对double数组排序
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    private static void sort(double[] a, int lo, int hi) {
+        int N = hi - lo + 1;
+        if (N <= CUTOFF) {
+            insertionSort(a, lo, hi);
+            return;
+        }
+        else if (N <= 40) {
+            int m = median3(a, lo, lo + N/2, hi);
+            exch(a, m, lo);
+        }
+        else  {
+            int eps = N/8;
+            int mid = lo + N/2;
+            int m1 = median3(a, lo, lo + eps, lo + eps + eps);
+            int m2 = median3(a, mid - eps, mid, mid + eps);
+            int m3 = median3(a, hi - eps - eps, hi - eps, hi);
+            int ninther = median3(a, m1, m2, m3);
+            exch(a, ninther, lo);
+        }
+
+        // Bentley-McIlroy 3-way partitioning
+        int i = lo, j = hi+1;
+        int p = lo, q = hi+1;
+        double v = a[lo];
+        while (true) {
+            while (less(a[++i], v))
+                if (i == hi) break;
+            while (less(v, a[--j]))
+                if (j == lo) break;
+
+            if (i == j && eq(a[i], v))
+                exch(a, ++p, i);
+            if (i >= j) break;
+
+            exch(a, i, j);
+            if (eq(a[i], v)) exch(a, ++p, i);
+            if (eq(a[j], v)) exch(a, --q, j);
+        }
+
+        i = j + 1;
+        for (int k = lo; k <= p; k++) exch(a, k, j--);
+        for (int k = hi; k >= q; k--) exch(a, k, i++);
+
+        sort(a, lo, j);
+        sort(a, i, hi);
+    }
+
+    private static void insertionSort(double[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+    }
+
+    private static int median3(double[] a, int i, int j, int k) {
+        return (less(a[i], a[j]) ?
+               (less(a[j], a[k]) ? j : less(a[i], a[k]) ? k : i) :
+               (less(a[k], a[j]) ? j : less(a[k], a[i]) ? k : i));
+    }
+
+    // is v < w ?
+    private static boolean less(int v, int w) {
+        return v < w;
+    }
+
+    // does v == w ?
+    private static boolean eq(int v, int w) {
+        return v == w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(int[] a, int i, int j) {
+        int swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ?
+    private static boolean less(long v, long w) {
+        return v < w;
+    }
+
+    // does v == w ?
+    private static boolean eq(long v, long w) {
+        return v == w;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(long[] a, int i, int j) {
+        long swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Float.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(float v, float w) {
+        return Float.compare(v, w) < 0;
+    }
+
+    // does v == w ?
+    private static boolean eq(float v, float w) {
+        return Float.compare(v, w) == 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(float[] a, int i, int j) {
+        float swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // is v < w ? 和Double.compareTo的顺序相同：-0.0 < 0.0，NaN最大
+    private static boolean less(double v, double w) {
+        return Double.compare(v, w) < 0;
+    }
+
+    // does v == w ?
+    private static boolean eq(double v, double w) {
+        return Double.compare(v, w) == 0;
+    }
+
+    // 交换数组元素 a[i] 和  a[j]
+    private static void exch(double[] a, int i, int j) {
+        double swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
     // is v < w ?
     private static boolean less(Comparable v, Comparable w) {
         return (v.compareTo(w) < 0);
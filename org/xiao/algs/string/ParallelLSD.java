@@ -0,0 +1,404 @@
+package org.xiao.algs.string;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.xiao.algs.io.StdIn;
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.util.ParallelFor;
+import org.xiao.algs.util.ParallelFor.Task;
+
+/***
+ *
+ * 并行的低位优先基数排序(int、long键)
+ *
+ * 和LSD.sort(int[])一样每次以一个byte为键进行键索引计数排序，从最低的byte到最高的byte，
+ * 最高的byte把符号位取反，所以负数排在正数之前；排序是稳定的
+ *
+ * 每一轮把数组分成若干块并行处理：
+ * 一、每块统计自己的各个字节值的出现频率；
+ * 二、把频率转换成索引：字节值为c的元素中，第b块的元素排在前面各块之后，所以每块知道自己的每个字节值应该写入的位置；
+ * 三、每块并行地把元素分类写入辅助数组，每个字节值的元素先放在一个缓存行大小的小缓冲区中(write-combining)，
+ *     满了再一次复制过去，减少对辅助数组中256个不同位置的零散写入
+ * 所有元素的某个byte都相同时跳过这一轮
+ *
+ * 可以带一个int[]值数组随键一起移动(键值对排序)；按int或long键排序对象数组时，先取出键并用下标作为值排序，再按下标重排对象
+ *
+ * 需要和输入一样大的辅助数组(键值对排序时还需要和值数组一样大的辅助数组)，重复排序时可以由调用者提供并重用，避免每次分配
+ *
+ * MSD.sort(int[])按最高byte拆分后各个子数组的大小可能相差很大，不适合均匀地分给多个线程，所以这里只实现LSD
+ *
+ * @author XiaoJian
+ *
+ */
+public class ParallelLSD {
+	private static final int BITS_PER_BYTE = 8;
+	private static final int R = 1 << BITS_PER_BYTE; // 每一个byte在 0 and 255
+	private static final int MASK = R - 1;
+	private static final int INT_BUFFER = 16; // 每个字节值的缓冲区大小，16个int为64字节的一个缓存行
+	private static final int LONG_BUFFER = 8; // 8个long为一个缓存行
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 16; // 每块至少包含的元素个数
+
+	private ParallelLSD() { }
+
+	/**
+	 * 使用公共ForkJoinPool对int数组排序
+	 */
+	public static void sort(int[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对int数组排序
+	 */
+	public static void sort(int[] a, ForkJoinPool pool) {
+		sortWithAux(a, new int[a.length], pool);
+	}
+
+	/**
+	 * 使用线程池pool和调用者提供的辅助数组aux(长度不小于a)对int数组排序，aux的内容会被覆盖
+	 */
+	public static void sortWithAux(int[] a, int[] aux, ForkJoinPool pool) {
+		checkAux(a, aux, a.length, aux.length);
+		lsd(a, aux, null, null, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool按键keys排序，values[i]随keys[i]一起移动
+	 */
+	public static void sort(int[] keys, int[] values) {
+		sort(keys, values, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool按键keys排序，values[i]随keys[i]一起移动
+	 */
+	public static void sort(int[] keys, int[] values, ForkJoinPool pool) {
+		sortWithAux(keys, values, new int[keys.length], new int[values.length], pool);
+	}
+
+	/**
+	 * 使用线程池pool和调用者提供的辅助数组按键keys排序，values[i]随keys[i]一起移动
+	 * aux和valuesAux的长度不小于keys，它们的内容会被覆盖
+	 */
+	public static void sortWithAux(int[] keys, int[] values, int[] aux, int[] valuesAux, ForkJoinPool pool) {
+		if (values.length != keys.length) throw new IllegalArgumentException("keys and values have different lengths");
+		checkAux(keys, aux, keys.length, aux.length);
+		checkAux(values, valuesAux, values.length, valuesAux.length);
+		lsd(keys, aux, values, valuesAux, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool对long数组排序
+	 */
+	public static void sort(long[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool对long数组排序
+	 */
+	public static void sort(long[] a, ForkJoinPool pool) {
+		sortWithAux(a, new long[a.length], pool);
+	}
+
+	/**
+	 * 使用线程池pool和调用者提供的辅助数组aux(长度不小于a)对long数组排序，aux的内容会被覆盖
+	 */
+	public static void sortWithAux(long[] a, long[] aux, ForkJoinPool pool) {
+		checkAux(a, aux, a.length, aux.length);
+		lsd(a, aux, null, null, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool按键keys排序，values[i]随keys[i]一起移动
+	 */
+	public static void sort(long[] keys, int[] values) {
+		sort(keys, values, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool按键keys排序，values[i]随keys[i]一起移动
+	 */
+	public static void sort(long[] keys, int[] values, ForkJoinPool pool) {
+		sortWithAux(keys, values, new long[keys.length], new int[values.length], pool);
+	}
+
+	/**
+	 * 使用线程池pool和调用者提供的辅助数组按键keys排序，values[i]随keys[i]一起移动
+	 * aux和valuesAux的长度不小于keys，它们的内容会被覆盖
+	 */
+	public static void sortWithAux(long[] keys, int[] values, long[] aux, int[] valuesAux, ForkJoinPool pool) {
+		if (values.length != keys.length) throw new IllegalArgumentException("keys and values have different lengths");
+		checkAux(keys, aux, keys.length, aux.length);
+		checkAux(values, valuesAux, values.length, valuesAux.length);
+		lsd(keys, aux, values, valuesAux, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool按key取出的int键对数组a稳定排序
+	 */
+	public static <Item> void sortByIntKey(Item[] a, ToIntFunction<? super Item> key) {
+		sortByIntKey(a, key, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool按key取出的int键对数组a稳定排序
+	 */
+	public static <Item> void sortByIntKey(final Item[] a, final ToIntFunction<? super Item> key, ForkJoinPool pool) {
+		final int N = a.length;
+		final int[] keys = new int[N];
+		final int[] index = new int[N];
+		final int B = blocks(N, pool);
+		ParallelFor.forEach(pool, B, new Task() {
+			public void run(int b) {
+				for (int i = begin(N, B, b), end = begin(N, B, b + 1); i < end; i++) {
+					keys[i] = key.applyAsInt(a[i]);
+					index[i] = i;
+				}
+			}
+		});
+		lsd(keys, new int[N], index, new int[N], pool);
+		permute(a, index, pool);
+	}
+
+	/**
+	 * 使用公共ForkJoinPool按key取出的long键对数组a稳定排序
+	 */
+	public static <Item> void sortByLongKey(Item[] a, ToLongFunction<? super Item> key) {
+		sortByLongKey(a, key, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 使用线程池pool按key取出的long键对数组a稳定排序
+	 */
+	public static <Item> void sortByLongKey(final Item[] a, final ToLongFunction<? super Item> key, ForkJoinPool pool) {
+		final int N = a.length;
+		final long[] keys = new long[N];
+		final int[] index = new int[N];
+		final int B = blocks(N, pool);
+		ParallelFor.forEach(pool, B, new Task() {
+			public void run(int b) {
+				for (int i = begin(N, B, b), end = begin(N, B, b + 1); i < end; i++) {
+					keys[i] = key.applyAsLong(a[i]);
+					index[i] = i;
+				}
+			}
+		});
+		lsd(keys, new long[N], index, new int[N], pool);
+		permute(a, index, pool);
+	}
+
+	// a[i] = 原来的a[index[i]]
+	private static void permute(final Object[] a, final int[] index, ForkJoinPool pool) {
+		final Object[] copy = a.clone();
+		final int N = a.length;
+		final int B = blocks(N, pool);
+		ParallelFor.forEach(pool, B, new Task() {
+			public void run(int b) {
+				for (int i = begin(N, B, b), end = begin(N, B, b + 1); i < end; i++)
+					a[i] = copy[index[i]];
+			}
+		});
+	}
+
+	// 对a排序，values不为null时随a一起移动，aux和valuesAux为辅助数组
+	private static void lsd(final int[] a, int[] aux, final int[] values, int[] valuesAux, ForkJoinPool pool) {
+		final int N = a.length;
+		final int B = blocks(N, pool);
+		final int[][] count = new int[B][R];
+		int[] src = a, dst = aux, vsrc = values, vdst = valuesAux;
+		for (int d = 0; d < 4; d++) {
+			final int[] from = src, to = dst, vfrom = vsrc, vto = vdst;
+			final int shift = BITS_PER_BYTE * d;
+			final int flip = d == 3 ? R/2 : 0; // 最高的byte中0x80-0xFF排在0x00-0x7F之前
+
+			// 每块计算出现频率
+			ParallelFor.forEach(pool, B, new Task() {
+				public void run(int b) {
+					int[] cnt = count[b];
+					Arrays.fill(cnt, 0);
+					for (int i = begin(N, B, b), end = begin(N, B, b + 1); i < end; i++)
+						cnt[((from[i] >>> shift) & MASK) ^ flip]++;
+				}
+			});
+
+			// 将频率转换成索引，所有元素的这个byte都相同时跳过
+			if (!toIndices(count, N)) continue;
+
+			// 每块将元素分类
+			ParallelFor.forEach(pool, B, new Task() {
+				public void run(int b) {
+					scatter(from, to, vfrom, vto, begin(N, B, b), begin(N, B, b + 1), shift, flip, count[b]);
+				}
+			});
+			src = to;
+			dst = from;
+			vsrc = vto;
+			vdst = vfrom;
+		}
+
+		// 回写
+		if (src != a) {
+			final int[] from = src, vfrom = vsrc;
+			ParallelFor.forEach(pool, B, new Task() {
+				public void run(int b) {
+					int lo = begin(N, B, b), hi = begin(N, B, b + 1);
+					System.arraycopy(from, lo, a, lo, hi - lo);
+					if (values != null) System.arraycopy(vfrom, lo, values, lo, hi - lo);
+				}
+			});
+		}
+	}
+
+	// 把from[lo, hi)中的元素按字节值写入to，next[c]为字节值为c的下一个元素在to中的位置
+	private static void scatter(int[] from, int[] to, int[] vfrom, int[] vto, int lo, int hi, int shift, int flip, int[] next) {
+		int[] buf = new int[R * INT_BUFFER]; // 字节值为c的元素暂存在buf[c*INT_BUFFER..]
+		int[] vbuf = vfrom == null ? null : new int[R * INT_BUFFER];
+		int[] fill = new int[R];
+		for (int i = lo; i < hi; i++) {
+			int c = ((from[i] >>> shift) & MASK) ^ flip;
+			int k = c * INT_BUFFER + fill[c];
+			buf[k] = from[i];
+			if (vbuf != null) vbuf[k] = vfrom[i];
+			if (++fill[c] == INT_BUFFER) {
+				System.arraycopy(buf, c * INT_BUFFER, to, next[c], INT_BUFFER);
+				if (vbuf != null) System.arraycopy(vbuf, c * INT_BUFFER, vto, next[c], INT_BUFFER);
+				next[c] += INT_BUFFER;
+				fill[c] = 0;
+			}
+		}
+		for (int c = 0; c < R; c++) {
+			System.arraycopy(buf, c * INT_BUFFER, to, next[c], fill[c]);
+			if (vbuf != null) System.arraycopy(vbuf, c * INT_BUFFER, vto, next[c], fill[c]);
+		}
+	}
+
+	// 对a排序，values不为null时随a一起移动，aux和valuesAux为辅助数组
+	private static void lsd(final long[] a, long[] aux, final int[] values, int[] valuesAux, ForkJoinPool pool) {
+		final int N = a.length;
+		final int B = blocks(N, pool);
+		final int[][] count = new int[B][R];
+		long[] src = a, dst = aux;
+		int[] vsrc = values, vdst = valuesAux;
+		for (int d = 0; d < 8; d++) {
+			final long[] from = src, to = dst;
+			final int[] vfrom = vsrc, vto = vdst;
+			final int shift = BITS_PER_BYTE * d;
+			final int flip = d == 7 ? R/2 : 0; // 最高的byte中0x80-0xFF排在0x00-0x7F之前
+
+			// 每块计算出现频率
+			ParallelFor.forEach(pool, B, new Task() {
+				public void run(int b) {
+					int[] cnt = count[b];
+					Arrays.fill(cnt, 0);
+					for (int i = begin(N, B, b), end = begin(N, B, b + 1); i < end; i++)
+						cnt[((int) (from[i] >>> shift) & MASK) ^ flip]++;
+				}
+			});
+
+			// 将频率转换成索引，所有元素的这个byte都相同时跳过
+			if (!toIndices(count, N)) continue;
+
+			// 每块将元素分类
+			ParallelFor.forEach(pool, B, new Task() {
+				public void run(int b) {
+					scatter(from, to, vfrom, vto, begin(N, B, b), begin(N, B, b + 1), shift, flip, count[b]);
+				}
+			});
+			src = to;
+			dst = from;
+			vsrc = vto;
+			vdst = vfrom;
+		}
+
+		// 回写
+		if (src != a) {
+			final long[] from = src;
+			final int[] vfrom = vsrc;
+			ParallelFor.forEach(pool, B, new Task() {
+				public void run(int b) {
+					int lo = begin(N, B, b), hi = begin(N, B, b + 1);
+					System.arraycopy(from, lo, a, lo, hi - lo);
+					if (values != null) System.arraycopy(vfrom, lo, values, lo, hi - lo);
+				}
+			});
+		}
+	}
+
+	// 把from[lo, hi)中的元素按字节值写入to，next[c]为字节值为c的下一个元素在to中的位置
+	private static void scatter(long[] from, long[] to, int[] vfrom, int[] vto, int lo, int hi, int shift, int flip, int[] next) {
+		long[] buf = new long[R * LONG_BUFFER]; // 字节值为c的元素暂存在buf[c*LONG_BUFFER..]
+		int[] vbuf = vfrom == null ? null : new int[R * LONG_BUFFER];
+		int[] fill = new int[R];
+		for (int i = lo; i < hi; i++) {
+			int c = ((int) (from[i] >>> shift) & MASK) ^ flip;
+			int k = c * LONG_BUFFER + fill[c];
+			buf[k] = from[i];
+			if (vbuf != null) vbuf[k] = vfrom[i];
+			if (++fill[c] == LONG_BUFFER) {
+				System.arraycopy(buf, c * LONG_BUFFER, to, next[c], LONG_BUFFER);
+				if (vbuf != null) System.arraycopy(vbuf, c * LONG_BUFFER, vto, next[c], LONG_BUFFER);
+				next[c] += LONG_BUFFER;
+				fill[c] = 0;
+			}
+		}
+		for (int c = 0; c < R; c++) {
+			System.arraycopy(buf, c * LONG_BUFFER, to, next[c], fill[c]);
+			if (vbuf != null) System.arraycopy(vbuf, c * LONG_BUFFER, vto, next[c], fill[c]);
+		}
+	}
+
+	// 把每块的频率count[b][c]转换成第b块中字节值为c的第一个元素的位置；所有元素的字节值都相同时返回false
+	private static boolean toIndices(int[][] count, int N) {
+		for (int c = 0; c < R; c++) {
+			int total = 0;
+			for (int b = 0; b < count.length; b++)
+				total += count[b][c];
+			if (total == N) return false;
+			if (total > 0) break;
+		}
+		int next = 0;
+		for (int c = 0; c < R; c++) {
+			for (int b = 0; b < count.length; b++) {
+				int k = count[b][c];
+				count[b][c] = next;
+				next += k;
+			}
+		}
+		return true;
+	}
+
+	// 辅助数组不能比数组短，也不能是数组本身
+	private static void checkAux(Object a, Object aux, int length, int auxLength) {
+		if (aux == a) throw new IllegalArgumentException("auxiliary array is the array being sorted");
+		if (auxLength < length) throw new IllegalArgumentException("auxiliary array is shorter than the array being sorted");
+	}
+
+	// 长度为N的数组分成的块数
+	private static int blocks(int N, ForkJoinPool pool) {
+		return Math.max(1, Math.min(N / SEQUENTIAL_THRESHOLD, 4 * pool.getParallelism()));
+	}
+
+	// 长度为N的数组分成B块时，第b块的起始位置
+	private static int begin(int N, int B, int b) {
+		return (int) ((long) N * b / B);
+	}
+
+	/***
+	 *  测试，读入标准输入中的所有int，排序后输出
+	 *
+	 *  java ParallelLSD < 1Kints.txt
+	 *  -999942
+	 *  -998862
+	 *  ...
+	 */
+	public static void main(String[] args) {
+		int[] a = StdIn.readAllInts();
+		sort(a);
+		for (int i = 0; i < a.length; i++)
+			StdOut.println(a[i]);
+	}
+}
@@ -0,0 +1,289 @@
+package org.xiao.algs.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+import org.xiao.algs.io.StdOut;
+import org.xiao.algs.sort.Heap;
+import org.xiao.algs.sort.Insertion;
+import org.xiao.algs.sort.Merge;
+import org.xiao.algs.sort.MergeBU;
+import org.xiao.algs.sort.MergeX;
+import org.xiao.algs.sort.ParallelMerge;
+import org.xiao.algs.sort.ParallelQuick;
+import org.xiao.algs.sort.Quick;
+import org.xiao.algs.sort.Quick3way;
+import org.xiao.algs.sort.QuickX;
+import org.xiao.algs.sort.Selection;
+import org.xiao.algs.sort.Shell;
+
+/***
+ *
+ * 排序算法的基准测试
+ *
+ * 和SortCompare相比：
+ * 一、用System.nanoTime计时，每种组合先预热(运行足够长的时间让JIT编译完成)再正式测量多次，报告平均值和标准差；
+ * 二、每次测量前把同一份输入复制到工作数组，复制不计入时间，每种算法排序的输入完全相同；
+ * 三、排序结果被汇总到一个volatile变量中(blackhole)，并在最后检查是否有序，防止JIT把排序当作无用代码消除；
+ * 四、通过com.sun.management.ThreadMXBean统计每次排序在调用线程中分配的字节数(JVM不支持时显示为-)，
+ *     并行排序在ForkJoinPool工作线程中的分配不计入
+ *
+ * 输入分布：random(随机)、sorted(有序)、reversed(逆序)、few-distinct(只有10个不同的值)、organ-pipe(先升后降)
+ * 元素类型：Integer(Integer[]，每次比较调用compareTo)、int(int[]，使用基本类型的重载)
+ *
+ * 报告每秒排序的次数(ops/s)、每秒排序的元素数(Melem/s)、每次排序分配的字节数和分配速率
+ *
+ * @author XiaoJian
+ *
+ */
+public class SortBenchmark {
+	static final String[] SORTS = { "Insertion", "Selection", "Shell", "Merge", "MergeBU", "MergeX", "Quick", "Quick3way", "QuickX", "Heap", "ParallelMerge", "ParallelQuick" };
+	static final String[] DISTRIBUTIONS = { "random", "sorted", "reversed", "few-distinct", "organ-pipe" };
+	static final String[] TYPES = { "Integer", "int" };
+
+	private static final long WARMUP_NANOS = 1000000000L; // 每种组合至少预热1秒
+	private static final int WARMUP_ITERATIONS = 5; // 并且至少预热5次
+	private static final int MEASURE_ITERATIONS = 10; // 正式测量的次数
+	private static final int QUADRATIC_LIMIT = 10000; // 平方级别的排序只测试不超过该规模的输入
+
+	private static volatile int sink; // blackhole
+
+	/**
+	 * 用算法alg排序数组a
+	 */
+	public static void sort(String alg, Comparable[] a) {
+		if      (alg.equals("Insertion")) Insertion.sort(a);
+		else if (alg.equals("Selection")) Selection.sort(a);
+		else if (alg.equals("Shell"))     Shell.sort(a);
+		else if (alg.equals("Merge"))     Merge.sort(a);
+		else if (alg.equals("MergeBU"))   MergeBU.sort(a);
+		else if (alg.equals("MergeX"))    MergeX.sort(a);
+		else if (alg.equals("Quick"))     Quick.sort(a);
+		else if (alg.equals("Quick3way")) Quick3way.sort(a);
+		else if (alg.equals("QuickX"))    QuickX.sort(a);
+		else if (alg.equals("Heap"))      Heap.sort(a);
+		else if (alg.equals("ParallelMerge")) ParallelMerge.sort(a);
+		else if (alg.equals("ParallelQuick")) ParallelQuick.sort(a);
+		else throw new IllegalArgumentException("unknown sort " + alg);
+	}
+
+	/**
+	 * 用算法alg排序int数组a
+	 */
+	public static void sort(String alg, int[] a) {
+		if      (alg.equals("Insertion")) Insertion.sort(a);
+		else if (alg.equals("Selection")) Selection.sort(a);
+		else if (alg.equals("Shell"))     Shell.sort(a);
+		else if (alg.equals("Merge"))     Merge.sort(a);
+		else if (alg.equals("MergeBU"))   MergeBU.sort(a);
+		else if (alg.equals("MergeX"))    MergeX.sort(a);
+		else if (alg.equals("Quick"))     Quick.sort(a);
+		else if (alg.equals("Quick3way")) Quick3way.sort(a);
+		else if (alg.equals("QuickX"))    QuickX.sort(a);
+		else if (alg.equals("Heap"))      Heap.sort(a);
+		else if (alg.equals("ParallelMerge")) ParallelMerge.sort(a);
+		else if (alg.equals("ParallelQuick")) ParallelQuick.sort(a);
+		else throw new IllegalArgumentException("unknown sort " + alg);
+	}
+
+	/**
+	 * 生成N个元素的输入，seed相同时结果相同
+	 */
+	public static int[] generate(String distribution, int N, long seed) {
+		Random random = new Random(seed);
+		int[] a = new int[N];
+		for (int i = 0; i < N; i++) {
+			int x;
+			if      (distribution.equals("random"))       x = random.nextInt();
+			else if (distribution.equals("sorted"))       x = i;
+			else if (distribution.equals("reversed"))     x = N - i;
+			else if (distribution.equals("few-distinct")) x = random.nextInt(10);
+			else if (distribution.equals("organ-pipe"))   x = i < N / 2 ? i : N - i;
+			else throw new IllegalArgumentException("unknown distribution " + distribution);
+			a[i] = x;
+		}
+		return a;
+	}
+
+	// 当前线程已经分配的字节数，不支持时返回-1
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled())
+				return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	// 一种元素类型的工作数组，每次测量前从同一份输入复制
+	private abstract static class Work {
+		abstract void reset(); // 把输入复制到工作数组
+		abstract void sort(String alg);
+		abstract int sample(int i); // 工作数组中第i个元素的值
+
+		// 把排序结果汇总到sink中
+		void consume(int N) {
+			int h = 0;
+			for (int i = 0; i < N; i += Math.max(1, N / 16))
+				h = 31 * h + sample(i);
+			sink += h;
+		}
+
+		boolean isSorted(int N) {
+			for (int i = 1; i < N; i++)
+				if (sample(i) < sample(i - 1)) return false;
+			return true;
+		}
+	}
+
+	// Integer[]
+	private static class BoxedWork extends Work {
+		private final Integer[] input, work;
+
+		BoxedWork(int[] a) {
+			input = new Integer[a.length];
+			work = new Integer[a.length];
+			for (int i = 0; i < a.length; i++)
+				input[i] = a[i];
+		}
+
+		void reset() {
+			System.arraycopy(input, 0, work, 0, input.length);
+		}
+
+		void sort(String alg) {
+			SortBenchmark.sort(alg, work);
+		}
+
+		int sample(int i) {
+			return work[i];
+		}
+	}
+
+	// int[]
+	private static class IntWork extends Work {
+		private final int[] input, work;
+
+		IntWork(int[] a) {
+			input = a;
+			work = new int[a.length];
+		}
+
+		void reset() {
+			System.arraycopy(input, 0, work, 0, input.length);
+		}
+
+		void sort(String alg) {
+			SortBenchmark.sort(alg, work);
+		}
+
+		int sample(int i) {
+			return work[i];
+		}
+	}
+
+	/**
+	 * 一种组合的测量结果
+	 */
+	public static class Result {
+		public final String alg, type, distribution;
+		public final int N;
+		public final double meanNanos, stddevNanos; // 每次排序的平均时间和标准差
+		public final long bytesPerOp; // 每次排序分配的字节数，不支持时为-1
+
+		Result(String alg, String type, String distribution, int N, double meanNanos, double stddevNanos, long bytesPerOp) {
+			this.alg = alg;
+			this.type = type;
+			this.distribution = distribution;
+			this.N = N;
+			this.meanNanos = meanNanos;
+			this.stddevNanos = stddevNanos;
+			this.bytesPerOp = bytesPerOp;
+		}
+
+		public String toString() {
+			double opsPerSecond = 1e9 / meanNanos;
+			String alloc = bytesPerOp < 0 ? "-" : String.format("%d", bytesPerOp);
+			String rate = bytesPerOp < 0 ? "-" : String.format("%.1f", bytesPerOp * opsPerSecond / (1 << 20));
+			return String.format("%-13s %-8s %-13s %10d %12.2f ± %5.1f%% %10.2f %14s %10s",
+					alg, type, distribution, N, opsPerSecond, 100.0 * stddevNanos / meanNanos,
+					N * opsPerSecond / 1e6, alloc, rate);
+		}
+	}
+
+	/**
+	 * 测量算法alg排序distribution分布的N个type类型元素的性能
+	 */
+	public static Result run(String alg, String type, String distribution, int N) {
+		int[] input = generate(distribution, N, N);
+		Work work;
+		if      (type.equals("Integer")) work = new BoxedWork(input);
+		else if (type.equals("int"))     work = new IntWork(input);
+		else throw new IllegalArgumentException("unknown type " + type);
+
+		// 预热
+		long start = System.nanoTime();
+		for (int i = 0; i < WARMUP_ITERATIONS || System.nanoTime() - start < WARMUP_NANOS; i++) {
+			work.reset();
+			work.sort(alg);
+			work.consume(N);
+		}
+
+		// 测量
+		double[] nanos = new double[MEASURE_ITERATIONS];
+		long bytes = 0;
+		for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+			work.reset();
+			long allocBefore = allocatedBytes();
+			long t0 = System.nanoTime();
+			work.sort(alg);
+			long t1 = System.nanoTime();
+			long allocAfter = allocatedBytes();
+			work.consume(N);
+			nanos[i] = t1 - t0;
+			if (allocBefore < 0 || bytes < 0) bytes = -1;
+			else                              bytes += allocAfter - allocBefore;
+		}
+		if (!work.isSorted(N)) throw new IllegalStateException(alg + " did not sort " + distribution + " input");
+
+		double mean = 0.0;
+		for (double x : nanos) mean += x;
+		mean /= nanos.length;
+		double variance = 0.0;
+		for (double x : nanos) variance += (x - mean) * (x - mean);
+		double stddev = Math.sqrt(variance / (nanos.length - 1));
+		return new Result(alg, type, distribution, N, mean, stddev, bytes < 0 ? -1 : bytes / MEASURE_ITERATIONS);
+	}
+
+	/**
+	 * 测试，参数依次为排序算法、输入规模、输入分布、元素类型，用逗号分隔，all表示全部，省略时使用默认值
+	 *
+	 * java SortBenchmark Merge,Quick 100000 random,sorted Integer,int
+	 * sort       type     distribution           N        ops/s ± error     Melem/s     bytes/op     MB/s
+	 * Merge      Integer  random            100000        ...
+	 */
+	public static void main(String[] args) {
+		String[] sorts = args.length > 0 && !args[0].equals("all") ? args[0].split(",") : SORTS;
+		String[] sizes = args.length > 1 ? args[1].split(",") : new String[] { "1000", "100000", "1000000" };
+		String[] distributions = args.length > 2 && !args[2].equals("all") ? args[2].split(",") : DISTRIBUTIONS;
+		String[] types = args.length > 3 && !args[3].equals("all") ? args[3].split(",") : TYPES;
+
+		StdOut.printf("%-13s %-8s %-13s %10s %12s   %-6s %10s %14s %10s\n",
+				"sort", "type", "distribution", "N", "ops/s", "error", "Melem/s", "bytes/op", "MB/s");
+		for (String size : sizes) {
+			int N = Integer.parseInt(size);
+			for (String distribution : distributions) {
+				for (String alg : sorts) {
+					boolean quadratic = alg.equals("Insertion") || alg.equals("Selection");
+					if (quadratic && N > QUADRATIC_LIMIT) continue;
+					for (String type : types)
+						StdOut.println(run(alg, type, distribution, N));
+				}
+			}
+		}
+		if (sink == 42) StdOut.println();
+	}
+
+}
@@ -25,6 +25,7 @@ public class SortCompare {
 	static final String MERGE_SORT = "Merge"; // 归并排序
 	static final String QUICK_SORT = "Quick"; // 快速排序
 	static final String HEAP_SORT = "Heap"; // 堆排序
+	static final String PRIMITIVE = "primitive"; // 使用基本类型数组
 
 	/**
 	 * 针对给定输入，为某种排序算法计时
@@ -52,6 +53,32 @@ public class SortCompare {
 		return timer.elapsedTime();
 	}
 
+	/**
+	 * 针对给定的基本类型输入，为某种排序算法计时
+	 */
+	public static double time(String alg, double[] a) {
+		Stopwatch timer = new Stopwatch();
+		if (alg.equals(INSERTTION_SORT)) {
+			Insertion.sort(a);
+		}
+		if (alg.equals(SELECTION_SORT)) {
+			Selection.sort(a);
+		}
+		if (alg.equals(SHELL_SORT)) {
+			Shell.sort(a);
+		}
+		if (alg.equals(MERGE_SORT)) {
+			Merge.sort(a);
+		}
+		if (alg.equals(QUICK_SORT)) {
+			Quick.sort(a);
+		}
+		if (alg.equals(HEAP_SORT)) {
+			Heap.sort(a);
+		}
+		return timer.elapsedTime();
+	}
+
 	/**
 	 * 使用算法alg将T个长度为N的数组排序，计算算法总时间
 	 */
@@ -69,17 +96,40 @@ public class SortCompare {
 	}
 
 	/**
-	 * 测试
+	 * 使用算法alg将T个长度为N的double[]排序，计算算法总时间，排序时不需要装箱
+	 */
+	public static double timeRandomPrimitiveInput(String alg, int N, int T) {
+		double total = 0.0;
+		double[] a = new double[N];
+		for (int t = 0; t < T; t++) {
+			for (int i = 0; i < N; i++) {
+				a[i] = StdRandom.uniform();
+			}
+			total += time(alg, a);
+		}
+		return total;
+	}
+
+	/**
+	 * 测试，第五个参数为primitive时使用double[]，否则使用Double[]
 	 * java SortCompare Insertion Selection 1000 100
+	 * java SortCompare Insertion Selection 1000 100 primitive
 	 */
 	public static void main(String[] args) {
-		if(args.length != 4){
-			System.out.println("Usage:java SortCompare Insertion Selection 1000 100");
+		if(args.length != 4 && args.length != 5){
+			System.out.println("Usage:java SortCompare Insertion Selection 1000 100 [primitive]");
 		}
 		String alg1 = args[0];
 		String alg2 = args[1];
 		int N = Integer.parseInt(args[2]);
 		int T = Integer.parseInt(args[3]);
+		if (args.length == 5 && args[4].equals(PRIMITIVE)) {
+			double t1 = timeRandomPrimitiveInput(alg1, N, T);// 计算算法1的总时间
+			double t2 = timeRandomPrimitiveInput(alg2, N, T);// 计算算法2的总时间
+			StdOut.printf("For %d random doubles\n	%s is", N, alg1);
+			StdOut.printf(" %.1f times faster than %s\n", t2 / t1, alg2);
+			return;
+		}
 		double t1 = timeRandomInput(alg1, N, T);// 计算算法1的总时间
 		double t2 = timeRandomInput(alg2, N, T);// 计算算法2的总时间
 		StdOut.printf("For %d random Doubles\n	%s is", N, alg1);
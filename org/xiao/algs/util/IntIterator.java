@@ -0,0 +1,22 @@
+package org.xiao.algs.util;
+
+/***
+ *
+ * 基本类型int的迭代器，迭代过程中不会产生Integer装箱对象
+ *
+ * @author XiaoJian
+ *
+ */
+public interface IntIterator {
+
+	/**
+	 * 是否还有下一个元素
+	 */
+	boolean hasNext();
+
+	/**
+	 * 返回下一个元素
+	 */
+	int next();
+
+}
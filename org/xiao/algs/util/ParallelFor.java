@@ -0,0 +1,199 @@
+package org.xiao.algs.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.xiao.algs.io.StdOut;
+
+/***
+ *
+ * 并行循环，所有在ForkJoinPool中按下标二分拆分任务的并行算法共用
+ *
+ * forEach(pool, lo, hi, threshold, task)对lo ~ hi-1中的每个下标执行Task，供ParallelIn、ParallelLSD等按块处理数据的类，
+ * 以及ParallelCC、ParallelBoruvkaMST等按顶点处理的类使用；forEach(pool, n, task)把每一块作为一个叶子任务，
+ * 调用者自己决定块数(通常是并行度的几倍)，块的大小由调用者保证足够大
+ *
+ * forEach(pool, vertices, threshold, body)对一组顶点(或者0 ~ n-1的所有顶点)中的每一个执行Body，
+ * 每个叶子任务把输出的顶点收集到自己的IntList中，最后按任意顺序合并为一个IntList，
+ * 供ParallelBellmanFordSP、ParallelSCC、TopologicalLevels、DeltaSteppingSP等按层推进的算法使用
+ *
+ * 下标不超过threshold个时直接在当前线程中执行；已经在同一个ForkJoinPool的任务中调用时在当前任务中执行，不再提交给pool
+ *
+ * @author XiaoJian
+ *
+ */
+public final class ParallelFor {
+
+	private ParallelFor() { }
+
+	/**
+	 * 对第i个下标(第i块)执行的操作
+	 */
+	public abstract static class Task {
+		public abstract void run(int i);
+	}
+
+	/**
+	 * 对顶点集合中的每一个顶点并行执行的操作，结果收集到IntList中
+	 */
+	public abstract static class Body {
+		public abstract void apply(int v, IntList out);
+	}
+
+	/**
+	 * 使用线程池pool对0 ~ n-1中的每一块并行执行task，每一块是一个叶子任务，所有块都执行完后返回
+	 */
+	public static void forEach(ForkJoinPool pool, int n, Task task) {
+		forEach(pool, 0, n, 1, task);
+	}
+
+	/**
+	 * 对lo ~ hi-1中的每个下标执行task，下标多于threshold个时使用pool并行，所有下标都执行完后返回
+	 */
+	public static void forEach(ForkJoinPool pool, int lo, int hi, int threshold, Task task) {
+		if (hi <= lo) return;
+		invoke(pool, new Range(lo, hi, threshold, task), hi - lo, threshold);
+	}
+
+	/**
+	 * 对0 ~ n-1中的每个顶点执行body，顶点多于threshold个时使用pool并行，返回所有输出
+	 */
+	public static IntList forEach(ForkJoinPool pool, int n, int threshold, Body body) {
+		return forEach(pool, null, 0, n, threshold, body);
+	}
+
+	/**
+	 * 对vertices中的每个顶点执行body，顶点多于threshold个时使用pool并行，返回所有输出
+	 */
+	public static IntList forEach(ForkJoinPool pool, IntList vertices, int threshold, Body body) {
+		return forEach(pool, vertices.a, 0, vertices.n, threshold, body);
+	}
+
+	/**
+	 * 对vertices[lo ~ hi-1]中的每个顶点执行body(vertices为null时是lo ~ hi-1)，顶点多于threshold个时使用pool并行，返回所有输出
+	 */
+	public static IntList forEach(ForkJoinPool pool, int[] vertices, int lo, int hi, int threshold, Body body) {
+		IntList all = new IntList();
+		if (hi <= lo) return all;
+		ConcurrentLinkedQueue<IntList> results = new ConcurrentLinkedQueue<IntList>();
+		invoke(pool, new Collect(vertices, lo, hi, threshold, body, results), hi - lo, threshold);
+		for (IntList list : results)
+			all.addAll(list);
+		return all;
+	}
+
+	// 不超过threshold个下标时(不会拆分)或已经在pool的任务中时在当前线程中执行，否则提交给pool
+	private static void invoke(ForkJoinPool pool, RecursiveAction action, int size, int threshold) {
+		if (size <= threshold || ForkJoinTask.getPool() == pool) action.invoke();
+		else                                                      pool.invoke(action);
+	}
+
+	// 对[lo, hi)中的每个下标执行task
+	private static class Range extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int lo, hi;
+		private final int threshold;
+		private final Task task;
+
+		Range(int lo, int hi, int threshold, Task task) {
+			this.lo = lo;
+			this.hi = hi;
+			this.threshold = threshold;
+			this.task = task;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > threshold) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Range(lo, mid, threshold, task), new Range(mid, hi, threshold, task));
+				return;
+			}
+			for (int i = lo; i < hi; i++)
+				task.run(i);
+		}
+	}
+
+	// 对vertices[lo, hi)中的每个顶点执行body，输出收集到results中
+	private static class Collect extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] vertices; // 为null时第i个顶点就是i
+		private final int lo, hi;
+		private final int threshold;
+		private final Body body;
+		private final ConcurrentLinkedQueue<IntList> results;
+
+		Collect(int[] vertices, int lo, int hi, int threshold, Body body, ConcurrentLinkedQueue<IntList> results) {
+			this.vertices = vertices;
+			this.lo = lo;
+			this.hi = hi;
+			this.threshold = threshold;
+			this.body = body;
+			this.results = results;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > threshold) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Collect(vertices, lo, mid, threshold, body, results),
+						new Collect(vertices, mid, hi, threshold, body, results));
+				return;
+			}
+			IntList out = new IntList();
+			if (vertices == null) {
+				for (int v = lo; v < hi; v++)
+					body.apply(v, out);
+			}
+			else {
+				for (int i = lo; i < hi; i++)
+					body.apply(vertices[i], out);
+			}
+			if (out.n > 0) results.add(out);
+		}
+	}
+
+	/**
+	 * 可增长的int数组，a[0 ~ n-1]为其中的元素
+	 */
+	public static class IntList {
+		public int[] a = new int[8];
+		public int n;
+
+		public void add(int x) {
+			if (n == a.length) a = Arrays.copyOf(a, 2 * n);
+			a[n++] = x;
+		}
+
+		public void addAll(IntList that) {
+			if (n + that.n > a.length) a = Arrays.copyOf(a, Math.max(2 * a.length, n + that.n));
+			System.arraycopy(that.a, 0, a, n, that.n);
+			n += that.n;
+		}
+	}
+
+	/**
+	 * 测试，并行计算1 ~ N的平方和
+	 *
+	 * java ParallelFor 1000000
+	 * 333333833333500000
+	 */
+	public static void main(String[] args) {
+		final int N = Integer.parseInt(args[0]);
+		final int B = 4 * ForkJoinPool.commonPool().getParallelism();
+		final long[] sums = new long[B];
+		forEach(ForkJoinPool.commonPool(), B, new Task() {
+			public void run(int b) {
+				for (long i = (long) N * b / B + 1, end = (long) N * (b + 1) / B; i <= end; i++)
+					sums[b] += i * i;
+			}
+		});
+		long sum = 0;
+		for (long s : sums)
+			sum += s;
+		StdOut.println(sum);
+	}
+}
@@ -238,6 +238,32 @@ public final class StdRandom {
         }
     }
 
+    /**
+     * 将数组a随机排序
+     */
+    public static void shuffle(long[] a) {
+        int N = a.length;
+        for (int i = 0; i < N; i++) {
+            int r = i + uniform(N-i);     // between i and N-1
+            long temp = a[i];
+            a[i] = a[r];
+            a[r] = temp;
+        }
+    }
+
+    /**
+     * 将数组a随机排序
+     */
+    public static void shuffle(float[] a) {
+        int N = a.length;
+        for (int i = 0; i < N; i++) {
+            int r = i + uniform(N-i);     // between i and N-1
+            float temp = a[i];
+            a[i] = a[r];
+            a[r] = temp;
+        }
+    }
+
 
     /**
      * 将数组 a[lo..hi] 随机排序 